@@ -0,0 +1,50 @@
+package com.expensetracker.benchmarks;
+
+import java.util.Random;
+
+// Deterministic expense text for the benchmarks: a fixed merchant/item vocabulary drawn with a skew, so a few
+// words are very common (as "coffee" or "uber" are in real data) and most are rare
+public final class SyntheticExpenses {
+
+    private static final String[] COMMON = {
+            "coffee", "lunch", "groceries", "uber", "taxi", "rent", "electricity", "internet", "fuel", "pharmacy",
+            "dinner", "train", "bus", "movie", "gym", "books", "parking", "snacks", "water", "phone"
+    };
+    private static final String[] MERCHANTS = {
+            "starbucks", "walmart", "amazon", "target", "costco", "shell", "netflix", "spotify", "ikea", "lidl",
+            "aldi", "tesco", "bolt", "lyft", "airbnb", "zara", "apple", "google", "steam", "dominos"
+    };
+    private static final int RARE_WORDS = 5000;
+
+    private SyntheticExpenses() {
+    }
+
+    public static String title(Random random) {
+        return word(random) + " at " + MERCHANTS[skewed(random, MERCHANTS.length)];
+    }
+
+    public static String description(Random random) {
+        int words = 1 + random.nextInt(4);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(word(random));
+        }
+        return sb.toString();
+    }
+
+    // Category the title's first word suggests, so a classifier has something to learn
+    public static int category(String title, int categories) {
+        return Math.floorMod(title.substring(0, title.indexOf(' ')).hashCode(), categories);
+    }
+
+    private static String word(Random random) {
+        return random.nextInt(4) > 0 ? COMMON[skewed(random, COMMON.length)] : "item" + random.nextInt(RARE_WORDS);
+    }
+
+    // Index in [0, n) where low indexes are much more likely
+    private static int skewed(Random random, int n) {
+        double u = random.nextDouble();
+        return (int) (n * u * u);
+    }
+}
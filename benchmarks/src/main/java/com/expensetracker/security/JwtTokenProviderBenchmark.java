@@ -0,0 +1,61 @@
+package com.expensetracker.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Issuing a token on login and verifying it on every authenticated request (HS512)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider provider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setup() {
+        provider = new JwtTokenProvider();
+        set("jwtSecret", "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret");
+        set("jwtExpirationInMs", 86_400_000);
+        UserPrincipal principal = new UserPrincipal(42L, "bench", "bench@example.com", "unused",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), true);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = provider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return provider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return provider.validateToken(token);
+    }
+
+    private void set(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtTokenProvider.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, provider, value);
+    }
+}
@@ -0,0 +1,49 @@
+package com.expensetracker.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cost of one token-bucket check: a caller's own bucket, and one bucket hammered by four threads at once
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitFilterBenchmark {
+
+    // Effectively unlimited, so every call takes the allow path and its compare-and-set
+    private static final long INTERVAL_NANOS = 1;
+    private static final long TOLERANCE_NANOS = Long.MAX_VALUE / 4;
+
+    @State(Scope.Thread)
+    public static class OwnBucket {
+        final AtomicLong tat = new AtomicLong(System.nanoTime());
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedBucket {
+        final AtomicLong tat = new AtomicLong(System.nanoTime());
+    }
+
+    @Benchmark
+    public long ownBucket(OwnBucket bucket) {
+        return RateLimitFilter.acquire(bucket.tat, INTERVAL_NANOS, TOLERANCE_NANOS);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long sharedBucket(SharedBucket bucket) {
+        return RateLimitFilter.acquire(bucket.tat, INTERVAL_NANOS, TOLERANCE_NANOS);
+    }
+}
@@ -0,0 +1,84 @@
+package com.expensetracker.service;
+
+import com.expensetracker.benchmarks.SyntheticExpenses;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Category suggestion for one title, and the incremental training each committed expense applies
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CategoryClassifierBenchmark {
+
+    private static final int MAX_FEATURES = 32768;
+    private static final int QUERIES = 1024;
+
+    @Param({"20", "200"})
+    int categories;
+
+    @Param({"10000"})
+    int trainedExpenses;
+
+    private CategoryClassifier classifier;
+    private String[] titles;
+    private String[] descriptions;
+    private int[] features;
+    private double[] scores;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        classifier = new CategoryClassifier(MAX_FEATURES);
+        for (int i = 0; i < trainedExpenses; i++) {
+            String title = SyntheticExpenses.title(random);
+            classifier.train(SyntheticExpenses.category(title, categories), title, SyntheticExpenses.description(random));
+        }
+        titles = new String[QUERIES];
+        descriptions = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            titles[i] = SyntheticExpenses.title(random);
+            descriptions[i] = SyntheticExpenses.description(random);
+        }
+        features = new int[CategoryClassifier.MAX_TOKENS];
+        scores = new double[classifier.categoryCount()];
+    }
+
+    @Setup(Level.Iteration)
+    public void rewind() {
+        next = 0;
+    }
+
+    @Benchmark
+    public double[] score() {
+        int i = next++ & (QUERIES - 1);
+        classifier.score(titles[i], descriptions[i], features, scores);
+        return scores;
+    }
+
+    // A train immediately undone, so the model stays the same size across invocations
+    @Benchmark
+    public int trainAndUntrain() {
+        int i = next++ & (QUERIES - 1);
+        long category = SyntheticExpenses.category(titles[i], categories);
+        classifier.train(category, titles[i], descriptions[i]);
+        classifier.untrain(category, titles[i], descriptions[i]);
+        return classifier.categoryCount();
+    }
+}
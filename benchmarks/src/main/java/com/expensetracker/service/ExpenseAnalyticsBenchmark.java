@@ -0,0 +1,100 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Expense;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Group-by scans of one user's in-memory columns, as served by /insights/analytics
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExpenseAnalyticsBenchmark {
+
+    private static final byte EXPENSE = (byte) (Expense.ExpenseType.EXPENSE.ordinal() + 1);
+    private static final byte INCOME = (byte) (Expense.ExpenseType.INCOME.ordinal() + 1);
+    private static final int CATEGORIES = 40;
+    private static final int FIRST_DAY = (int) LocalDate.of(2020, 1, 1).toEpochDay();
+    private static final int DAYS = 5 * 365;
+
+    @Param({"1000000"})
+    int rows;
+
+    private ExpenseColumns columns;
+    private int fromDay;
+    private int toDay;
+
+    @Setup
+    public void setup() {
+        columns = build(rows);
+        // The last year, about a fifth of the rows
+        toDay = FIRST_DAY + DAYS - 1;
+        fromDay = toDay - 364;
+    }
+
+    @Benchmark
+    public long[] sumByCategory() {
+        long[] sums = new long[columns.categoryCount()];
+        columns.sumByCategory(fromDay, toDay, EXPENSE, sums, new long[sums.length]);
+        return sums;
+    }
+
+    @Benchmark
+    public long[] sumByMonth() {
+        long[] sums = new long[ExpenseColumns.monthIndex(toDay) - ExpenseColumns.monthIndex(fromDay) + 1];
+        columns.sumByMonth(fromDay, toDay, EXPENSE, sums, new long[sums.length]);
+        return sums;
+    }
+
+    @Benchmark
+    public int[] top10ByAmount() {
+        int[] top = new int[10];
+        columns.topByAmount(fromDay, toDay, EXPENSE, top);
+        return top;
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long columnBytes;
+    }
+
+    // Time to load a user's columns, with their estimated size as a secondary result. Events are summed over
+    // measurement iterations, hence a single one.
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 1)
+    public ExpenseColumns load(Footprint footprint) {
+        ExpenseColumns loaded = build(rows);
+        footprint.columnBytes = loaded.memoryBytes();
+        return loaded;
+    }
+
+    private static ExpenseColumns build(int rows) {
+        Random random = new Random(42);
+        ExpenseColumns c = new ExpenseColumns(64);
+        for (int i = 0; i < rows; i++) {
+            byte type = random.nextInt(10) == 0 ? INCOME : EXPENSE;
+            c.upsert(i + 1, 100 + random.nextInt(20_000), FIRST_DAY + random.nextInt(DAYS), 1 + random.nextInt(CATEGORIES),
+                    type, (byte) (1 + random.nextInt(Expense.PaymentMethod.values().length)));
+        }
+        return c;
+    }
+}
@@ -0,0 +1,85 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseDto;
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.Expense;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity-to-DTO mapping and JSON rendering of one GET /expenses page
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseDtoBenchmark {
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    private List<Expense> entities;
+    private Page<ExpenseDto> page;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() {
+        Category category = new Category();
+        category.setId(7L);
+        category.setName("Groceries");
+        entities = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Expense e = new Expense();
+            e.setId(1000L + i);
+            e.setTitle("Weekly shop " + i);
+            e.setDescription("Vegetables, bread and milk");
+            e.setAmount(new BigDecimal("42.17"));
+            e.setExpenseDate(LocalDate.of(2024, 5, 1).plusDays(i % 28));
+            e.setType(Expense.ExpenseType.EXPENSE);
+            e.setPaymentMethod(Expense.PaymentMethod.DEBIT_CARD);
+            e.setNotes(i % 3 == 0 ? "Split with flatmate" : null);
+            e.setIsRecurring(false);
+            e.setCategory(category);
+            entities.add(e);
+        }
+        page = new PageImpl<>(toDtos(), PageRequest.of(0, pageSize, Sort.by("expenseDate").descending()), 5000);
+        // Same settings Spring Boot applies to the MVC message converter
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public List<ExpenseDto> toDtos() {
+        List<ExpenseDto> dtos = new ArrayList<>(entities.size());
+        for (Expense e : entities) dtos.add(ExpenseService.toDto(e));
+        return dtos;
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,96 @@
+package com.expensetracker.service;
+
+import com.expensetracker.ExpenseTrackerAiApplication;
+import com.expensetracker.dto.SpendingForecastDto;
+import com.expensetracker.entity.Expense;
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesChangedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// An uncached forecast end to end: reading one user's monthly rollups from the database and fitting a model per
+// category. The user's expense rows (36 months over 20 categories) live in an in-memory H2 database behind the
+// application context; the rollups keep the read at categories x history-months rows, so the time should stay flat
+// as the row count grows.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExpenseForecastBenchmark {
+
+    private static final long USER_ID = 1;
+    private static final int CATEGORIES = 20;
+    private static final int DAYS = 36 * 30;
+    private static final int HORIZON = 3;
+
+    @Param({"10000", "100000", "1000000"})
+    int expenses;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseForecastService forecastService;
+    private ExpensesChangedEvent fittedMonthChange;
+
+    @Setup
+    public void setup() {
+        // Arguments rather than default properties, which application.properties would override
+        context = new SpringApplicationBuilder(ExpenseTrackerAiApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:forecast;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef");
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(ExpenseRollupService.class).rebuild(USER_ID);
+        forecastService = context.getBean(ExpenseForecastService.class);
+        fittedMonthChange = ExpensesChangedEvent.single(USER_ID, null, new ExpenseSnapshot(null, USER_ID, 1L,
+                Expense.ExpenseType.EXPENSE, null, BigDecimal.ONE, LocalDate.now().minusMonths(2), "Change", null, null));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // A change in an already-fitted month drops the user's cached models, so every call reads and fits again
+    @Benchmark
+    public SpendingForecastDto readAndFit() {
+        forecastService.onExpensesChanged(fittedMonthChange);
+        return forecastService.forecast(USER_ID, HORIZON);
+    }
+
+    // Set-based inserts (H2's SYSTEM_RANGE); every row is dated before the current month, so all of them are history
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, name, role, is_active) " +
+                "VALUES (?, 'forecast', 'forecast@example.com', 'not-a-hash', 'Forecast', 'USER', TRUE)", USER_ID);
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, type, is_active) " +
+                "SELECT X, ?, CONCAT('Category ', X), 'EXPENSE', TRUE FROM SYSTEM_RANGE(1, ?)", USER_ID, CATEGORIES);
+        jdbcTemplate.update("INSERT INTO expenses (id, user_id, category_id, title, amount, expense_date, type, is_recurring) " +
+                "SELECT X, ?, MOD(X, ?) + 1, CONCAT('Expense ', X), 5 + MOD(X * 7919, 20000) / 100.0, " +
+                "DATEADD('DAY', -1 - MOD(X, CAST(? AS INT)), CAST(? AS DATE)), 'EXPENSE', FALSE FROM SYSTEM_RANGE(1, ?)",
+                USER_ID, CATEGORIES, DAYS, LocalDate.now().withDayOfMonth(1), expenses);
+        jdbcTemplate.update("UPDATE expense_seq SET next_val = ?", expenses + 1L);
+    }
+}
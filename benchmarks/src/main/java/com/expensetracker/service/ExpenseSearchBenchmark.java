@@ -0,0 +1,90 @@
+package com.expensetracker.service;
+
+import com.expensetracker.benchmarks.SyntheticExpenses;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Queries against one user's text index, from a common word (most documents) to a rare one, plus the time and
+// estimated size of building the index
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ExpenseSearchBenchmark {
+
+    private static final int MAX_RESULTS = 1000;
+
+    @Param({"1000000"})
+    int documents;
+
+    private ExpenseTextIndex index;
+
+    @Setup
+    public void setup() {
+        index = build(documents);
+    }
+
+    @Benchmark
+    public long[] commonWord() {
+        return index.search(List.of("coffee"), MAX_RESULTS);
+    }
+
+    @Benchmark
+    public long[] rareWord() {
+        return index.search(List.of("item4242"), MAX_RESULTS);
+    }
+
+    @Benchmark
+    public long[] shortPrefix() {
+        return index.search(List.of("it"), MAX_RESULTS);
+    }
+
+    @Benchmark
+    public long[] twoWords() {
+        return index.search(List.of("taxi", "uber"), MAX_RESULTS);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long indexBytes;
+    }
+
+    // Events are summed over measurement iterations, hence a single one
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 1)
+    public ExpenseTextIndex load(Footprint footprint) {
+        ExpenseTextIndex built = build(documents);
+        footprint.indexBytes = built.memoryBytes();
+        return built;
+    }
+
+    private static ExpenseTextIndex build(int documents) {
+        Random random = new Random(42);
+        ExpenseTextIndex i = new ExpenseTextIndex();
+        for (int id = 1; id <= documents; id++) {
+            i.add(id, SyntheticExpenses.title(random), SyntheticExpenses.description(random),
+                    random.nextInt(5) == 0 ? SyntheticExpenses.description(random) : null);
+        }
+        return i;
+    }
+}
@@ -0,0 +1,82 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// The filter chain GET /expenses builds per request, alone and turned into a criteria predicate
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseSpecificationBenchmark {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+    private static final BigDecimal MIN = new BigDecimal("5.00");
+    private static final BigDecimal MAX = new BigDecimal("500.00");
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder cb;
+
+    @Setup
+    public void setup() {
+        // Only the metamodel is needed; callbacks are off because the User listener is a Spring bean
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(Expense.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:benchmark;MODE=MySQL")
+                .setProperty(AvailableSettings.JPA_CALLBACKS_ENABLED, "false")
+                .buildSessionFactory();
+        cb = sessionFactory.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Specification<Expense> buildUserOnly() {
+        return ExpenseService.filterSpec(42L, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Specification<Expense> buildAllFilters() {
+        return ExpenseService.filterSpec(42L, FROM, TO, 7L, "expense", MIN, MAX);
+    }
+
+    @Benchmark
+    public Predicate toPredicateAllFilters() {
+        Specification<Expense> spec = ExpenseService.filterSpec(42L, FROM, TO, 7L, "expense", MIN, MAX);
+        CriteriaQuery<Expense> query = cb.createQuery(Expense.class);
+        Root<Expense> root = query.from(Expense.class);
+        return spec.toPredicate(root, query, cb);
+    }
+}
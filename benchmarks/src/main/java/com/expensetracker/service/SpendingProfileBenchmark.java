@@ -0,0 +1,64 @@
+package com.expensetracker.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The in-memory side of anomaly scoring: reading a category's statistics for a new expense and moving them
+// for a committed change. The persisted delta write is a single UPDATE and not measured here.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpendingProfileBenchmark {
+
+    private static final int CATEGORIES = 50;
+
+    private SpendingProfile profile;
+    private SpendingProfile.CategoryStats scratch;
+    private long category;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        profile = new SpendingProfile();
+        for (int c = 1; c <= CATEGORIES; c++) {
+            for (int day = 1; day <= 7; day++) {
+                long count = 20 + random.nextInt(200);
+                BigDecimal mean = BigDecimal.valueOf(10 + random.nextInt(100));
+                BigDecimal sum = mean.multiply(BigDecimal.valueOf(count));
+                BigDecimal sumSq = mean.multiply(mean).multiply(BigDecimal.valueOf(count)).multiply(new BigDecimal("1.1"));
+                profile.seed(c, day, count, sum, sumSq);
+            }
+        }
+        scratch = new SpendingProfile.CategoryStats();
+    }
+
+    @Benchmark
+    public double readAndScore() {
+        category = category % CATEGORIES + 1;
+        if (!profile.read(category, scratch)) return 0;
+        return (42.0 - scratch.mean) / Math.max(scratch.standardDeviation(), 0.01);
+    }
+
+    // An add immediately undone, so the statistics stay put across invocations
+    @Benchmark
+    public void addAndRemove() {
+        category = category % CATEGORIES + 1;
+        profile.add(category, 3, 42.0);
+        profile.remove(category, 3, 42.0);
+    }
+}
@@ -0,0 +1,10 @@
+package com.expensetracker.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+// @Async listeners run on Boot's bounded applicationTaskExecutor (spring.task.execution.pool.*)
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,37 @@
+package com.expensetracker.config;
+
+import com.expensetracker.security.UserPrincipal;
+import com.expensetracker.service.UserDataVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Answers If-None-Match on the user's list endpoints from the in-memory data version, before the handler runs, so an
+// unchanged list costs neither a query nor serialization. No Last-Modified: it has whole-second resolution, so a
+// client holding it would get a 304 for a write later in the same second.
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final UserDataVersions dataVersions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) return true;
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof UserPrincipal principal)) return true;
+        long version = dataVersions.current(principal.getId());
+        // Stored by the browser but revalidated on every use; the user id keeps a shared browser from
+        // matching another account's tag
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        String etag = "\"" + principal.getId() + "-" + Long.toString(version, 36) + "\"";
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,33 @@
+package com.expensetracker.config;
+
+import com.expensetracker.entity.ExpenseIdGenerator;
+import com.expensetracker.repository.ExpenseIdAllocator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+// Expense id blocks are claimed over a one-connection pool to the primary, apart from the application's pool
+@Configuration
+public class ExpenseIdConfig {
+
+    // Not exposed as a DataSource bean, which would replace Boot's own pool
+    @Bean(destroyMethod = "close")
+    ExpenseIdAllocator expenseIdAllocator(DataSourceProperties dataSourceProperties, Environment environment) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("expense-ids");
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setMinimumIdle(0);
+        return new ExpenseIdAllocator(dataSource);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer expenseIdAllocatorCustomizer(ExpenseIdAllocator expenseIdAllocator) {
+        return properties -> properties.put(ExpenseIdGenerator.ALLOCATOR, expenseIdAllocator);
+    }
+}
@@ -0,0 +1,59 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Application meters on top of Boot's (http.server.requests, spring.data.repository.invocations, hikaricp.*,
+// hibernate.*): service method timers, statements per request and per-endpoint SLO buckets
+@Configuration
+@EnableConfigurationProperties(MetricsConfig.HttpSloProperties.class)
+public class MetricsConfig {
+
+    // metrics.http.slo.[/expenses]=100ms,250ms,500ms adds those SLO buckets to http.server.requests for that URI
+    // template only; management.metrics.distribution.slo.http.server.requests still applies to every endpoint
+    @ConfigurationProperties("metrics.http")
+    public record HttpSloProperties(Map<String, List<Duration>> slo) {
+        public HttpSloProperties {
+            slo = slo != null ? slo : Map.of();
+        }
+    }
+
+    @Bean
+    static ServiceMetricsPostProcessor serviceMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ServiceMetricsPostProcessor(meterRegistry);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer statementCountingCustomizer(StatementCountingFilter statementCountingFilter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCountingFilter);
+    }
+
+    @Bean
+    MeterFilter endpointSloMeterFilter(HttpSloProperties properties) {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!"http.server.requests".equals(id.getName())) return config;
+                List<Duration> slo = properties.slo().get(id.getTag("uri"));
+                if (slo == null || slo.isEmpty()) return config;
+                return DistributionStatisticConfig.builder()
+                        .serviceLevelObjectives(slo.stream().mapToDouble(Duration::toNanos).toArray())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// rate-limit.groups.<name>.{paths,capacity,period}: each caller (user id, or client IP when anonymous) gets
+// capacity requests per period in every group, refilled evenly over the period. A request counts against the
+// first group, in declaration order, whose path patterns match it.
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(boolean enabled, long maxKeys, Map<String, Group> groups) {
+
+    public RateLimitProperties {
+        groups = groups != null ? groups : Map.of();
+    }
+
+    public record Group(List<String> paths, int capacity, Duration period) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.expensetracker.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+// datasource.replica.urls=jdbc:...,jdbc:... turns on read-only routing (ReplicaRoutingConfig). Credentials and pool
+// size default to the primary's; a caller's reads stay on the primary for read-your-writes-window after it commits
+// a write, which should cover the usual replication lag.
+@ConfigurationProperties("datasource.replica")
+public record ReplicaProperties(List<String> urls,
+                                String username,
+                                String password,
+                                int maximumPoolSize,
+                                Duration connectionTimeout,
+                                Duration healthCheckInterval,
+                                Duration readYourWritesWindow,
+                                long maxTrackedUsers) {
+
+    public ReplicaProperties {
+        urls = urls != null ? urls : List.of();
+        connectionTimeout = connectionTimeout != null ? connectionTimeout : Duration.ofSeconds(2);
+        healthCheckInterval = healthCheckInterval != null ? healthCheckInterval : Duration.ofSeconds(10);
+        readYourWritesWindow = readYourWritesWindow != null ? readYourWritesWindow : Duration.ofSeconds(5);
+        maxTrackedUsers = maxTrackedUsers > 0 ? maxTrackedUsers : 100_000;
+    }
+}
@@ -0,0 +1,234 @@
+package com.expensetracker.config;
+
+import com.expensetracker.event.ExpensesArchivedEvent;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.security.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Picks the pool for each new connection. A read-only transaction on behalf of a signed-in user goes to the next
+// healthy replica (round-robin), unless that user committed a write within the read-your-writes window; everything
+// else uses the primary: writes, sign-in and signup, and background jobs that reconcile against committed state.
+// The window opens on the signed-in user's own commits and on every committed expense change for its owner, so rows
+// written by the recurring and archive jobs are read back from the primary too.
+// The per-user caches load inside their user's requests, so once the window covers replication lag they never load
+// a snapshot older than that user's own writes. A replica that fails a connection or a health check is skipped
+// until a later check passes.
+@Slf4j
+public class ReplicaRouter implements AutoCloseable {
+
+    private static final String ROUTES = "datasource.read.routes";
+
+    private static final class Replica {
+        final HikariDataSource pool;
+        volatile boolean up;
+        boolean checked;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    // Users with a write committed within the window; the value is unused
+    private final Cache<Long, Boolean> recentWriters;
+    private final int validationTimeoutSeconds;
+    private final ScheduledExecutorService healthChecks;
+    private final Counter replicaReads;
+    private final Counter recentWriteReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRouter(HikariDataSource primary, ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        for (int i = 0; i < properties.urls().size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(properties.urls().get(i));
+            pool.setUsername(properties.username() != null ? properties.username() : primary.getUsername());
+            pool.setPassword(properties.password() != null ? properties.password() : primary.getPassword());
+            // The primary's size is unset (-1) when spring.datasource.hikari.maximum-pool-size is; Hikari's default applies
+            int poolSize = properties.maximumPoolSize() > 0 ? properties.maximumPoolSize() : primary.getMaximumPoolSize();
+            if (poolSize > 0) pool.setMaximumPoolSize(poolSize);
+            pool.setConnectionTimeout(properties.connectionTimeout().toMillis());
+            // Start even when the replica is down; the health checks bring it in once it answers
+            pool.setInitializationFailTimeout(-1);
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            Replica replica = new Replica(pool);
+            replicas.add(replica);
+            Gauge.builder("datasource.replica.up", replica, r -> r.up ? 1 : 0)
+                    .description("1 while the replica passes health checks and takes reads")
+                    .tag("pool", pool.getPoolName())
+                    .register(meterRegistry);
+        }
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(properties.maxTrackedUsers())
+                .expireAfterWrite(properties.readYourWritesWindow())
+                .build();
+        this.validationTimeoutSeconds = (int) Math.max(1, properties.connectionTimeout().toSeconds());
+        this.replicaReads = routes(meterRegistry, "replica");
+        this.recentWriteReads = routes(meterRegistry, "recent-write");
+        this.fallbackReads = routes(meterRegistry, "fallback");
+
+        checkReplicas();
+        this.healthChecks = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-health-check");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = properties.healthCheckInterval().toMillis();
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public DataSource dataSource() {
+        return new RoutingDataSource();
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            String failure = null;
+            try (Connection connection = replica.pool.getConnection()) {
+                if (!connection.isValid(validationTimeoutSeconds)) failure = "connection is not valid";
+            } catch (SQLException ex) {
+                failure = ex.getMessage();
+            }
+            boolean up = failure == null;
+            if (up && !replica.up) {
+                log.info("Replica {} is up, routing reads to it", replica.pool.getPoolName());
+            } else if (!up && (replica.up || !replica.checked)) {
+                log.warn("Replica {} failed its health check, reading from the primary: {}", replica.pool.getPoolName(), failure);
+            }
+            replica.up = up;
+            replica.checked = true;
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecks.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    @TransactionalEventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        recentWriters.put(event.userId(), Boolean.TRUE);
+    }
+
+    @TransactionalEventListener
+    public void onExpensesArchived(ExpensesArchivedEvent event) {
+        recentWriters.put(event.userId(), Boolean.TRUE);
+    }
+
+    private Connection connection() throws SQLException {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) return primary.getConnection();
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(userId, Boolean.TRUE);
+                    }
+                });
+            }
+            return primary.getConnection();
+        }
+        if (userId == null) return primary.getConnection();
+        if (recentWriters.getIfPresent(userId) != null) {
+            recentWriteReads.increment();
+            return primary.getConnection();
+        }
+        Replica replica = nextReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.pool.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException ex) {
+                replica.up = false;
+                log.warn("Replica {} refused a connection, reading from the primary until it passes a health check",
+                        replica.pool.getPoolName(), ex);
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    private Replica nextReplica() {
+        int size = replicas.size();
+        if (size == 0) return null;
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.up) return replica;
+        }
+        return null;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+
+    private static Counter routes(MeterRegistry meterRegistry, String route) {
+        return Counter.builder(ROUTES)
+                .description("Read-only transactions by where they were sent")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    // Unwraps to the primary pool so Boot binds its hikaricp.* meters and health check as usual
+    private final class RoutingDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return connection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Credentials are configured on the primary and replica pools");
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return iface.isInstance(this) || primary.isWrapperFor(iface);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            if (iface.isInstance(this)) return (T) this;
+            return primary.unwrap(iface);
+        }
+    }
+}
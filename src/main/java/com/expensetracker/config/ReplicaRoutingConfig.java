@@ -0,0 +1,40 @@
+package com.expensetracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// Replaces Boot's single pool when datasource.replica.urls is set; the primary is still configured from
+// spring.datasource.* and spring.datasource.hikari.*
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "urls")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean
+    ReplicaRouter replicaRouter(DataSourceProperties dataSourceProperties,
+                                Environment environment,
+                                ReplicaProperties replicaProperties,
+                                MeterRegistry meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        return new ReplicaRouter(primary, replicaProperties, meterRegistry);
+    }
+
+    // The transaction manager asks for a connection before it marks the transaction read-only; the lazy proxy
+    // defers picking a pool to the first statement, when the flag is set
+    @Bean
+    DataSource dataSource(ReplicaRouter replicaRouter) {
+        return new LazyConnectionDataSourceProxy(replicaRouter.dataSource());
+    }
+}
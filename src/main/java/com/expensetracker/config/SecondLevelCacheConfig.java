@@ -0,0 +1,69 @@
+package com.expensetracker.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Hibernate second-level cache regions as in-process Caffeine caches behind JCache. Every region named by an entity
+// or query hint must be listed under second-level-cache.regions (Hibernate fails at startup otherwise), except the
+// update-timestamps region, which is created here without bounds because evicting it would let stale query results
+// through.
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheConfig.SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    // second-level-cache.regions.<region>.max-size and .ttl
+    @ConfigurationProperties("second-level-cache")
+    public record SecondLevelCacheProperties(Map<String, Region> regions) {
+        public SecondLevelCacheProperties {
+            regions = regions != null ? regions : Map.of();
+        }
+
+        public record Region(long maxSize, Duration ttl) {
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager(SecondLevelCacheProperties properties) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // One manager per application context; the provider would otherwise hand every context (tests start several)
+        // the same manager and regions
+        CacheManager cacheManager = provider.getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        properties.regions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> config = configuration();
+            if (region.maxSize() > 0) config.setMaximumSize(OptionalLong.of(region.maxSize()));
+            if (region.ttl() != null) config.setExpireAfterWrite(OptionalLong.of(region.ttl().toNanos()));
+            cacheManager.createCache(name, config);
+        });
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, configuration());
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    // Hibernate caches immutable disassembled state, so entries are stored by reference rather than copied
+    private static CaffeineConfiguration<Object, Object> configuration() {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setStoreByValue(false);
+        config.setStatisticsEnabled(true);
+        return config;
+    }
+}
@@ -0,0 +1,70 @@
+package com.expensetracker.config;
+
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.ExpenseService;
+import com.expensetracker.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Times every public method of the core services as service.invocations{service, method, exception}. The advisor
+// goes in front of the existing transactional proxy, so the timing includes the commit and its listeners.
+public class ServiceMetricsPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    static final String METRIC = "service.invocations";
+    private static final List<Class<?>> TIMED = List.of(ExpenseService.class, CategoryService.class, UserService.class);
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    // Successful calls are the hot path; their timers are looked up once per method
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        setBeforeExistingAdvisors(true);
+        setProxyTargetClass(true);
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+            }
+        };
+        pointcut.setClassFilter(clazz -> TIMED.stream().anyMatch(t -> t.isAssignableFrom(clazz)));
+        this.advisor = new DefaultPointcutAdvisor(pointcut, (MethodInterceptor) invocation -> {
+            long started = System.nanoTime();
+            String exception = null;
+            try {
+                return invocation.proceed();
+            } catch (Throwable ex) {
+                exception = ex.getClass().getSimpleName();
+                throw ex;
+            } finally {
+                timer(invocation.getMethod(), exception).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private Timer timer(Method method, String exception) {
+        if (exception == null) return successTimers.computeIfAbsent(method, m -> register(m, "none"));
+        return register(method, exception);
+    }
+
+    private Timer register(Method method, String exception) {
+        return Timer.builder(METRIC)
+                .description("Time spent in a service method, including its transaction")
+                .tag("service", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(meterRegistry.getObject());
+    }
+}
@@ -0,0 +1,60 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Counts the SQL statements Hibernate prepares while a request is handled, including the JWT principal lookup,
+// and records them as http.server.requests.statements{method, uri} with the same URI template as
+// http.server.requests. Registered with Hibernate as its StatementInspector (MetricsConfig); statements run
+// outside a request (jobs, listeners on other threads) are not counted.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementCountingFilter extends OncePerRequestFilter implements StatementInspector {
+
+    static final String METRIC = "http.server.requests.statements";
+
+    private final ThreadLocal<int[]> current = new ThreadLocal<>();
+    private final MeterRegistry meterRegistry;
+
+    public StatementCountingFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = current.get();
+        if (count != null) count[0]++;
+        return sql;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int[] count = new int[1];
+        current.set(count);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            current.remove();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder(METRIC)
+                    .description("SQL statements prepared while handling one request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(count[0]);
+        }
+    }
+}
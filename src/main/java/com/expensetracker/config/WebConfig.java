@@ -0,0 +1,19 @@
+package com.expensetracker.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Every response of these depends only on the user's expenses and categories
+        registry.addInterceptor(conditionalGetInterceptor).addPathPatterns("/expenses", "/categories");
+    }
+}
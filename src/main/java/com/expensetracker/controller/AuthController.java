@@ -1,14 +1,13 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.dto.*;
+import com.expensetracker.entity.User;
 import com.expensetracker.security.JwtTokenProvider;
+import com.expensetracker.security.UserPrincipal;
 import com.expensetracker.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -18,26 +17,19 @@ import jakarta.validation.Valid;
 @RequiredArgsConstructor
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtTokenProvider tokenProvider;
 
+    // One user query, the BCrypt check on the bounded hashing pool, and the response built from the same entity
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody UserLoginDto loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsernameOrEmail(),
-                        loginRequest.getPassword()
-                )
-        );
+        User user = userService.authenticate(loginRequest.getUsernameOrEmail(), loginRequest.getPassword());
+        UserPrincipal principal = UserPrincipal.create(user);
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+        String jwt = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
 
-        String jwt = tokenProvider.generateToken(authentication);
-
-        UserResponseDto userDto = userService.getUserByUsernameOrEmail(loginRequest.getUsernameOrEmail());
-
-        return ResponseEntity.ok(new JwtAuthenticationResponse(jwt, userDto));
+        return ResponseEntity.ok(new JwtAuthenticationResponse(jwt, userService.convertToDto(user)));
     }
 
     @PostMapping("/signup")
@@ -0,0 +1,50 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.BudgetAlertDto;
+import com.expensetracker.dto.BudgetDto;
+import com.expensetracker.security.UserPrincipal;
+import com.expensetracker.service.BudgetService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+
+@RestController
+@RequestMapping("/budgets")
+@RequiredArgsConstructor
+public class BudgetController {
+
+    private final BudgetService budgetService;
+
+    // Each budget with its current-month progress
+    @GetMapping
+    public List<BudgetDto> list(@AuthenticationPrincipal UserPrincipal principal) {
+        return budgetService.list(principal.getId());
+    }
+
+    @PostMapping
+    public ResponseEntity<BudgetDto> upsert(@AuthenticationPrincipal UserPrincipal principal,
+                                            @Valid @RequestBody BudgetDto dto) {
+        return ResponseEntity.ok(budgetService.upsert(principal.getId(), dto));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@AuthenticationPrincipal UserPrincipal principal,
+                                       @PathVariable Long id) {
+        budgetService.delete(principal.getId(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Thresholds crossed, newest first
+    @GetMapping("/alerts")
+    public Page<BudgetAlertDto> alerts(@AuthenticationPrincipal UserPrincipal principal,
+                                       @RequestParam(defaultValue = "0") int page,
+                                       @RequestParam(defaultValue = "20") int size) {
+        return budgetService.alerts(principal.getId(), page, size);
+    }
+}
@@ -1,13 +1,28 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.CategorySuggestionDto;
+import com.expensetracker.dto.CategorySuggestionRequestDto;
+import com.expensetracker.dto.CursorPageDto;
+import com.expensetracker.dto.ExpenseBatchOperationDto;
+import com.expensetracker.dto.ExpenseBatchResultDto;
 import com.expensetracker.dto.ExpenseDto;
+import com.expensetracker.dto.ExpenseImportResultDto;
+import com.expensetracker.dto.ExpenseSummaryDto;
 import com.expensetracker.security.UserPrincipal;
+import com.expensetracker.service.ExpenseBatchService;
+import com.expensetracker.service.ExpenseCategorizationService;
+import com.expensetracker.service.ExpenseExportService;
+import com.expensetracker.service.ExpenseImportService;
 import com.expensetracker.service.ExpenseService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 @RestController
@@ -16,6 +31,10 @@ import org.springframework.web.bind.annotation.*;
 public class ExpenseController {
 
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
+    private final ExpenseExportService expenseExportService;
+    private final ExpenseBatchService expenseBatchService;
+    private final ExpenseCategorizationService categorizationService;
 
     @GetMapping
     public org.springframework.data.domain.Page<ExpenseDto> list(
@@ -26,6 +45,8 @@ public class ExpenseController {
             @RequestParam(required = false) String type,
             @RequestParam(required = false) java.math.BigDecimal minAmount,
             @RequestParam(required = false) java.math.BigDecimal maxAmount,
+            // Full-text search over title, description and notes; results come back in relevance order
+            @RequestParam(required = false) String q,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "expenseDate,desc") String sort
@@ -36,7 +57,59 @@ public class ExpenseController {
             pageable = org.springframework.data.domain.PageRequest.of(page, size,
                     org.springframework.data.domain.Sort.by(sort.split(",")[0]).ascending());
         }
-        return expenseService.list(principal.getId(), startDate, endDate, categoryId, type, minAmount, maxAmount, pageable);
+        return expenseService.list(principal.getId(), startDate, endDate, categoryId, type, minAmount, maxAmount, q, pageable);
+    }
+
+    // Selected when ?cursor= is present (empty for the first slice); sorted by expenseDate then id
+    @GetMapping(params = "cursor")
+    public CursorPageDto<ExpenseDto> listByCursor(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) java.time.LocalDate startDate,
+            @RequestParam(required = false) java.time.LocalDate endDate,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) java.math.BigDecimal minAmount,
+            @RequestParam(required = false) java.math.BigDecimal maxAmount,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "expenseDate,desc") String sort
+    ) {
+        String[] parts = sort.split(",");
+        if (!parts[0].equals("expenseDate")) {
+            throw new RuntimeException("Cursor pagination only supports sorting by expenseDate");
+        }
+        boolean ascending = parts.length > 1 && parts[1].equalsIgnoreCase("asc");
+        return expenseService.listByCursor(principal.getId(), startDate, endDate, categoryId, type, minAmount, maxAmount,
+                cursor, size, ascending);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) java.time.LocalDate startDate,
+            @RequestParam(required = false) java.time.LocalDate endDate,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) java.math.BigDecimal minAmount,
+            @RequestParam(required = false) java.math.BigDecimal maxAmount,
+            @RequestParam(defaultValue = "csv") String format
+    ) {
+        ExpenseExportService.Format exportFormat = ExpenseExportService.Format.valueOf(format.toUpperCase());
+        Long userId = principal.getId();
+        StreamingResponseBody body = out -> expenseExportService.export(userId, startDate, endDate, categoryId, type,
+                minAmount, maxAmount, exportFormat, out);
+        boolean csv = exportFormat == ExpenseExportService.Format.CSV;
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/summary")
+    public ExpenseSummaryDto summary(@AuthenticationPrincipal UserPrincipal principal,
+                                     @RequestParam java.time.LocalDate startDate,
+                                     @RequestParam java.time.LocalDate endDate) {
+        return expenseService.summary(principal.getId(), startDate, endDate);
     }
 
     @PostMapping
@@ -45,6 +118,28 @@ public class ExpenseController {
         return ResponseEntity.ok(expenseService.create(principal.getId(), dto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<java.util.List<ExpenseBatchResultDto>> batch(@AuthenticationPrincipal UserPrincipal principal,
+                                                                      @RequestBody java.util.List<ExpenseBatchOperationDto> operations) {
+        return ResponseEntity.ok(expenseBatchService.execute(principal.getId(), operations));
+    }
+
+    @PostMapping("/suggest-category")
+    public ResponseEntity<java.util.List<CategorySuggestionDto>> suggestCategory(@AuthenticationPrincipal UserPrincipal principal,
+                                                                               @Valid @RequestBody CategorySuggestionRequestDto request) {
+        int limit = request.getLimit() != null ? request.getLimit() : 3;
+        return ResponseEntity.ok(categorizationService.suggest(principal.getId(), request.getTitle(), request.getDescription(), limit));
+    }
+
+    // Body is streamed; one row per line (CSV with a header row, or one JSON object per line)
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ExpenseImportResultDto> importExpenses(@AuthenticationPrincipal UserPrincipal principal,
+                                                                 HttpServletRequest request) throws java.io.IOException {
+        ExpenseImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? ExpenseImportService.Format.CSV : ExpenseImportService.Format.NDJSON;
+        return ResponseEntity.ok(expenseImportService.importExpenses(principal.getId(), request.getInputStream(), format));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ExpenseDto> update(@AuthenticationPrincipal UserPrincipal principal,
                                              @PathVariable Long id,
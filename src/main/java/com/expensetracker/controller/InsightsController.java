@@ -0,0 +1,64 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.dto.AnalyticsBucketDto;
+import com.expensetracker.dto.AnalyticsTopExpenseDto;
+import com.expensetracker.dto.ExpenseInsightDto;
+import com.expensetracker.dto.SpendingForecastDto;
+import com.expensetracker.security.UserPrincipal;
+import com.expensetracker.service.ExpenseAnalyticsService;
+import com.expensetracker.service.ExpenseAnomalyService;
+import com.expensetracker.service.ExpenseForecastService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+
+@RestController
+@RequestMapping("/insights")
+@RequiredArgsConstructor
+public class InsightsController {
+
+    private final ExpenseAnalyticsService analyticsService;
+    private final ExpenseForecastService forecastService;
+    private final ExpenseAnomalyService anomalyService;
+
+    // groupBy is CATEGORY, PAYMENT_METHOD or MONTH; limit keeps the top-N buckets by total (ignored for MONTH)
+    @GetMapping("/breakdown")
+    public List<AnalyticsBucketDto> breakdown(@AuthenticationPrincipal UserPrincipal principal,
+                                              @RequestParam(defaultValue = "CATEGORY") String groupBy,
+                                              @RequestParam(required = false) LocalDate startDate,
+                                              @RequestParam(required = false) LocalDate endDate,
+                                              @RequestParam(defaultValue = "EXPENSE") String type,
+                                              @RequestParam(required = false) Integer limit) {
+        return analyticsService.groupBy(principal.getId(), ExpenseAnalyticsService.GroupBy.valueOf(groupBy.toUpperCase()),
+                startDate, endDate, type, limit);
+    }
+
+    @GetMapping("/top-expenses")
+    public List<AnalyticsTopExpenseDto> topExpenses(@AuthenticationPrincipal UserPrincipal principal,
+                                                    @RequestParam(required = false) LocalDate startDate,
+                                                    @RequestParam(required = false) LocalDate endDate,
+                                                    @RequestParam(defaultValue = "EXPENSE") String type,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        return analyticsService.topExpenses(principal.getId(), startDate, endDate, type, limit);
+    }
+
+    // Expense spending per category for the next horizon months, fitted on complete months only
+    @GetMapping("/forecast")
+    public SpendingForecastDto forecast(@AuthenticationPrincipal UserPrincipal principal,
+                                        @RequestParam(defaultValue = "3") int horizon) {
+        return forecastService.forecast(principal.getId(), horizon);
+    }
+
+    // Expenses flagged as unusual when they were created, newest first
+    @GetMapping("/anomalies")
+    public Page<ExpenseInsightDto> anomalies(@AuthenticationPrincipal UserPrincipal principal,
+                                             @RequestParam(defaultValue = "0") int page,
+                                             @RequestParam(defaultValue = "20") int size) {
+        return anomalyService.list(principal.getId(), page, size);
+    }
+}
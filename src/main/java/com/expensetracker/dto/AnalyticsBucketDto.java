@@ -0,0 +1,22 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsBucketDto {
+
+    // Category id, payment method name or yyyy-MM, depending on the grouping
+    private String key;
+
+    private String label;
+
+    private BigDecimal total;
+
+    private long count;
+}
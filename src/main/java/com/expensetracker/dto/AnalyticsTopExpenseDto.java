@@ -0,0 +1,24 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsTopExpenseDto {
+
+    private Long id;
+
+    private BigDecimal amount;
+
+    private LocalDate expenseDate;
+
+    private Long categoryId;
+
+    private String categoryName;
+}
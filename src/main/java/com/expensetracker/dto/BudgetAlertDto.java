@@ -0,0 +1,32 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetAlertDto {
+
+    private Long id;
+
+    private Long budgetId;
+
+    private Long categoryId;
+
+    private String categoryName;
+
+    private String month;
+
+    private int thresholdPercent;
+
+    private BigDecimal spent;
+
+    private BigDecimal budgetAmount;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,42 @@
+package com.expensetracker.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetDto {
+
+    private Long id;
+
+    @NotNull(message = "Category is required")
+    private Long categoryId;
+
+    private String categoryName;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    // Early-warning threshold as a percentage of amount; defaults to 80
+    @Min(value = 1, message = "Alert percent must be between 1 and 100")
+    @Max(value = 100, message = "Alert percent must be between 1 and 100")
+    private Integer alertPercent;
+
+    // Progress for the current month (yyyy-MM), read-only
+    private String month;
+
+    private BigDecimal spent;
+
+    private BigDecimal remaining;
+
+    private double percentUsed;
+}
@@ -0,0 +1,18 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySuggestionDto {
+
+    private Long categoryId;
+
+    private String categoryName;
+
+    // Posterior over the user's active categories, 0..1
+    private double probability;
+}
@@ -0,0 +1,20 @@
+package com.expensetracker.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySuggestionRequestDto {
+
+    @Size(max = 255, message = "Title must not exceed 255 characters")
+    private String title;
+
+    @Size(max = 500, message = "Description must not exceed 500 characters")
+    private String description;
+
+    private Integer limit;
+}
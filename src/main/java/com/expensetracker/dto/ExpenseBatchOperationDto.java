@@ -0,0 +1,22 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBatchOperationDto {
+
+    @NotBlank(message = "Operation is required (CREATE, UPDATE or DELETE)")
+    private String op;
+
+    // Required for UPDATE and DELETE
+    private Long id;
+
+    // Required for CREATE and UPDATE
+    private ExpenseDto expense;
+}
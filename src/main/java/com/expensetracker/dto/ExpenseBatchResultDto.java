@@ -0,0 +1,24 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBatchResultDto {
+
+    private int index;
+
+    private String op;
+
+    private Long id;
+
+    // OK or ERROR
+    private String status;
+
+    private ExpenseDto expense;
+
+    private String error;
+}
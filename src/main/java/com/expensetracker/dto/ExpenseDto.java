@@ -45,7 +45,7 @@ public class ExpenseDto {
     
     private String recurringFrequency;
     
-    @NotNull(message = "Category is required")
+    // Optional on create: resolved from categoryName, else suggested from title/description
     private Long categoryId;
     
     private String categoryName;
@@ -0,0 +1,35 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseImportResultDto {
+
+    private long totalRows;
+
+    private long imported;
+
+    private long failed;
+
+    private long durationMs;
+
+    private double rowsPerSecond;
+
+    // Capped; failed still counts every rejected row
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,35 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseInsightDto {
+
+    private Long id;
+
+    private String kind;
+
+    private Long expenseId;
+
+    private Long categoryId;
+
+    private String categoryName;
+
+    private BigDecimal amount;
+
+    private LocalDate expenseDate;
+
+    private double score;
+
+    private String message;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,25 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseSummaryDto {
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private BigDecimal totalExpenses;
+
+    private BigDecimal totalIncome;
+
+    private Map<String, BigDecimal> expensesByCategory;
+}
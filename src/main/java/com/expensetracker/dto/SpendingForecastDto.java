@@ -0,0 +1,48 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendingForecastDto {
+
+    // Last complete month the models were fitted on (yyyy-MM); forecasts start the month after
+    private String fittedThrough;
+
+    private int historyMonths;
+
+    private List<Point> total;
+
+    private List<CategoryForecast> categories;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+
+        private String month;
+
+        private BigDecimal amount;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryForecast {
+
+        private Long categoryId;
+
+        private String categoryName;
+
+        // HOLT_WINTERS (level, trend and 12-month seasonality), HOLT (level and damped trend) or MEAN
+        private String method;
+
+        private List<Point> points;
+    }
+}
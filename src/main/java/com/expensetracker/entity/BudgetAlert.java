@@ -0,0 +1,50 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "budget_alerts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_budget_alerts_budget_month_threshold",
+                columnNames = {"budget_id", "month_key", "threshold_percent"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    // yyyyMM
+    @Column(name = "month_key", nullable = false)
+    private Integer monthKey;
+
+    @Column(name = "threshold_percent", nullable = false)
+    private Integer thresholdPercent;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal spent;
+
+    @Column(name = "budget_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal budgetAmount;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
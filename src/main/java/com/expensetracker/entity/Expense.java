@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -13,13 +15,17 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "expenses")
+// Updates write only the changed columns, so an edit cannot put back a recurrenceNextDate the recurring job advanced
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Expense {
     
+    // Blocks from the expense_seq table (ExpenseIdAllocator) so Hibernate can batch inserts; IDENTITY disables batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "expense_id")
+    @GenericGenerator(name = "expense_id", type = ExpenseIdGenerator.class)
     private Long id;
     
     @Column(nullable = false)
@@ -51,6 +57,14 @@ public class Expense {
     @Enumerated(EnumType.STRING)
     @Column(name = "recurring_frequency")
     private RecurringFrequency recurringFrequency;
+
+    // Set on occurrences generated from a recurring template
+    @Column(name = "recurrence_source_id")
+    private Long recurrenceSourceId;
+
+    // On templates: the next occurrence not yet generated; null until the recurring job first sees it
+    @Column(name = "recurrence_next_date")
+    private LocalDate recurrenceNextDate;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -0,0 +1,43 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "expense_archive_segments")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Relative to archive.directory
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    // Earliest and latest expense_date in the file, so readers skip segments outside the requested range
+    @Column(name = "first_date", nullable = false)
+    private LocalDate firstDate;
+
+    @Column(name = "last_date", nullable = false)
+    private LocalDate lastDate;
+
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Rows of one archive segment with the same type and category: their count and amount range
+@Entity
+@Table(name = "expense_archive_segment_groups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseArchiveSegmentGroup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "segment_id", nullable = false)
+    private Long segmentId;
+
+    @Enumerated(EnumType.STRING)
+    private Expense.ExpenseType type;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+
+    @Column(name = "amount_min", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amountMin;
+
+    @Column(name = "amount_max", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amountMax;
+}
@@ -0,0 +1,41 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "expense_category_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_category_stats_user_category_day",
+                columnNames = {"user_id", "category_id", "day_of_week"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseCategoryStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    // 1 = Sunday .. 7 = Saturday
+    @Column(name = "day_of_week", nullable = false)
+    private Integer dayOfWeek;
+
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount = 0L;
+
+    @Column(name = "amount_sum", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amountSum = BigDecimal.ZERO;
+
+    @Column(name = "amount_sum_sq", nullable = false, precision = 30, scale = 4)
+    private BigDecimal amountSumSq = BigDecimal.ZERO;
+}
@@ -0,0 +1,34 @@
+package com.expensetracker.entity;
+
+import com.expensetracker.repository.ExpenseIdAllocator;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+// Hibernate side of ExpenseIdAllocator, which ExpenseIdConfig hands over as the ALLOCATOR setting. Ids are known
+// before the insert, so inserts still batch.
+public class ExpenseIdGenerator implements IdentifierGenerator {
+
+    public static final String ALLOCATOR = "expense.id-allocator";
+
+    private ExpenseIdAllocator allocator;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Object setting = serviceRegistry.getService(ConfigurationService.class).getSettings().get(ALLOCATOR);
+        if (!(setting instanceof ExpenseIdAllocator expenseIdAllocator)) {
+            throw new MappingException("Hibernate setting " + ALLOCATOR + " must hold the ExpenseIdAllocator");
+        }
+        this.allocator = expenseIdAllocator;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return allocator.next();
+    }
+}
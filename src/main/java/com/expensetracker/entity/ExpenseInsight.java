@@ -0,0 +1,57 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "expense_insights")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseInsight {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expense_id", nullable = false)
+    private Long expenseId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    // z-score for AMOUNT_OUTLIER, the weekday's share of the category's history for UNUSUAL_DAY
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "expense_date", nullable = false)
+    private LocalDate expenseDate;
+
+    @Column(nullable = false)
+    private String message;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public enum Kind {
+        AMOUNT_OUTLIER, UNUSUAL_DAY
+    }
+}
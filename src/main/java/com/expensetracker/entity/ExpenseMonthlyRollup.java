@@ -0,0 +1,42 @@
+package com.expensetracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "expense_monthly_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_user_month_category_type",
+                columnNames = {"user_id", "month_key", "category_id", "type"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // yyyyMM, e.g. 202410
+    @Column(name = "month_key", nullable = false)
+    private Integer monthKey;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Expense.ExpenseType type;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount = 0L;
+}
@@ -0,0 +1,13 @@
+package com.expensetracker.event;
+
+import java.math.BigDecimal;
+
+// Published when a committed change moves a category's month-to-date spend across one of its budget's thresholds
+public record BudgetThresholdCrossedEvent(Long userId,
+                                          Long budgetId,
+                                          Long categoryId,
+                                          int monthKey,
+                                          int thresholdPercent,
+                                          BigDecimal spent,
+                                          BigDecimal budgetAmount) {
+}
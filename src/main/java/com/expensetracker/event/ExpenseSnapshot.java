@@ -0,0 +1,24 @@
+package com.expensetracker.event;
+
+import com.expensetracker.entity.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Immutable copy of the expense fields derived views care about, taken inside the writing transaction
+public record ExpenseSnapshot(Long id,
+                              Long userId,
+                              Long categoryId,
+                              Expense.ExpenseType type,
+                              Expense.PaymentMethod paymentMethod,
+                              BigDecimal amount,
+                              LocalDate expenseDate,
+                              String title,
+                              String description,
+                              String notes) {
+
+    public static ExpenseSnapshot of(Expense e) {
+        return new ExpenseSnapshot(e.getId(), e.getUser().getId(), e.getCategory().getId(), e.getType(),
+                e.getPaymentMethod(), e.getAmount(), e.getExpenseDate(), e.getTitle(), e.getDescription(), e.getNotes());
+    }
+}
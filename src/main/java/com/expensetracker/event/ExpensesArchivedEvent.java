@@ -0,0 +1,8 @@
+package com.expensetracker.event;
+
+import java.util.List;
+
+// Published inside an archive batch's transaction for the rows it moved out of the expenses table. Only views that
+// cover live rows alone consume it; everything else keeps counting archived rows.
+public record ExpensesArchivedEvent(Long userId, List<ExpenseSnapshot> rows) {
+}
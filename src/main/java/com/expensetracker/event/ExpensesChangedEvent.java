@@ -0,0 +1,15 @@
+package com.expensetracker.event;
+
+import java.util.List;
+
+// Published inside the writing transaction; in-memory views consume it after commit.
+// before is null for a create, after is null for a delete.
+public record ExpensesChangedEvent(Long userId, List<Change> changes) {
+
+    public record Change(ExpenseSnapshot before, ExpenseSnapshot after) {
+    }
+
+    public static ExpensesChangedEvent single(Long userId, ExpenseSnapshot before, ExpenseSnapshot after) {
+        return new ExpensesChangedEvent(userId, List.of(new Change(before, after)));
+    }
+}
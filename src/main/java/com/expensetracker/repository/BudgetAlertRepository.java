@@ -0,0 +1,34 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.BudgetAlert;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface BudgetAlertRepository extends JpaRepository<BudgetAlert, Long> {
+
+    Page<BudgetAlert> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    // Single statement: a (budget, month, threshold) row that already exists is skipped rather than failing the
+    // transaction, and returns 0
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "budget_alerts"))
+    @Query(value = "INSERT IGNORE INTO budget_alerts (user_id, budget_id, category_id, month_key, threshold_percent, spent, budget_amount, created_at) " +
+            "VALUES (:userId, :budgetId, :categoryId, :monthKey, :thresholdPercent, :spent, :budgetAmount, :createdAt)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("budgetId") Long budgetId, @Param("categoryId") Long categoryId,
+                       @Param("monthKey") Integer monthKey, @Param("thresholdPercent") Integer thresholdPercent,
+                       @Param("spent") BigDecimal spent, @Param("budgetAmount") BigDecimal budgetAmount,
+                       @Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,29 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.Budget;
+import com.expensetracker.entity.Expense;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    List<Budget> findByUserIdOrderByIdAsc(Long userId);
+
+    Optional<Budget> findByUserIdAndCategoryId(Long userId, Long categoryId);
+
+    Optional<Budget> findByIdAndUserId(Long id, Long userId);
+
+    // Every budget with its category's spend in monthKey from the rollups (null when nothing was spent);
+    // budgetId, userId, categoryId, amount, alertPercent, spent. Must be consumed inside a transaction.
+    @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id, b.userId, b.categoryId, b.amount, b.alertPercent, r.totalAmount FROM Budget b " +
+            "LEFT JOIN ExpenseMonthlyRollup r ON r.userId = b.userId AND r.monthKey = :monthKey " +
+            "AND r.categoryId = b.categoryId AND r.type = :type")
+    java.util.stream.Stream<Object[]> streamWithMonthSpend(@Param("monthKey") Integer monthKey, @Param("type") Expense.ExpenseType type);
+}
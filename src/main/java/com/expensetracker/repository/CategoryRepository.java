@@ -14,6 +14,9 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long>, org.springframework.data.jpa.repository.JpaSpecificationExecutor<Category> {
     
     List<Category> findByUserAndIsActiveTrue(User user);
+
+    @Query("SELECT c FROM Category c WHERE c.user.id = :userId")
+    List<Category> findAllByUserId(@Param("userId") Long userId);
     
     Optional<Category> findByIdAndUser(Long id, User user);
     
@@ -0,0 +1,14 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.ExpenseArchiveSegmentGroup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExpenseArchiveSegmentGroupRepository extends JpaRepository<ExpenseArchiveSegmentGroup, Long> {
+
+    List<ExpenseArchiveSegmentGroup> findBySegmentIdIn(Collection<Long> segmentIds);
+}
@@ -0,0 +1,17 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.ExpenseArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ExpenseArchiveSegmentRepository extends JpaRepository<ExpenseArchiveSegment, Long> {
+
+    @Query("SELECT s FROM ExpenseArchiveSegment s WHERE s.userId = :userId AND s.firstDate <= :to AND s.lastDate >= :from ORDER BY s.id")
+    List<ExpenseArchiveSegment> findOverlapping(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,35 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.ExpenseCategoryStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface ExpenseCategoryStatsRepository extends JpaRepository<ExpenseCategoryStats, Long> {
+
+    // Single-statement upsert, so concurrent first expenses on the same (category, weekday) cannot collide on the unique key
+    // The native-spaces hint names the only table touched; without it Hibernate clears every second-level cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "expense_category_stats"))
+    @Query(value = "INSERT INTO expense_category_stats (user_id, category_id, day_of_week, entry_count, amount_sum, amount_sum_sq) " +
+            "VALUES (:userId, :categoryId, :dayOfWeek, :count, :sum, :sumSq) " +
+            "ON DUPLICATE KEY UPDATE entry_count = entry_count + VALUES(entry_count), amount_sum = amount_sum + VALUES(amount_sum), " +
+            "amount_sum_sq = amount_sum_sq + VALUES(amount_sum_sq)",
+            nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId, @Param("categoryId") Long categoryId, @Param("dayOfWeek") Integer dayOfWeek,
+                   @Param("count") long count, @Param("sum") BigDecimal sum, @Param("sumSq") BigDecimal sumSq);
+
+    // categoryId, dayOfWeek, entryCount, amountSum, amountSumSq
+    @Query("SELECT s.categoryId, s.dayOfWeek, s.entryCount, s.amountSum, s.amountSumSq FROM ExpenseCategoryStats s " +
+            "WHERE s.userId = :userId AND s.entryCount > 0")
+    List<Object[]> findRowsByUserId(@Param("userId") Long userId);
+}
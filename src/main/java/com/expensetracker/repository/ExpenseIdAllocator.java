@@ -0,0 +1,63 @@
+package com.expensetracker.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Hands out Expense ids in blocks of BLOCK_SIZE from the expense_seq table: a block is [next_val, next_val + 49] and
+// next_val moves past it. Blocks are claimed on a connection of their own, never one from the application's pool, so a
+// refill cannot wait behind writers that hold every pooled connection while they wait for the refill. Other instances
+// claim blocks through the same row lock.
+public class ExpenseIdAllocator implements AutoCloseable {
+
+    public static final int BLOCK_SIZE = 50;
+
+    private final HikariDataSource dataSource;
+    private long next;
+    private long limit;
+
+    public ExpenseIdAllocator(HikariDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public synchronized long next() {
+        if (next >= limit) {
+            next = claimBlock();
+            limit = next + BLOCK_SIZE;
+        }
+        return next++;
+    }
+
+    private long claimBlock() {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long start;
+                try (PreparedStatement select = connection.prepareStatement("SELECT next_val FROM expense_seq FOR UPDATE");
+                     ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) throw new IllegalStateException("expense_seq has no row");
+                    start = rs.getLong(1);
+                }
+                try (PreparedStatement update = connection.prepareStatement("UPDATE expense_seq SET next_val = ?")) {
+                    update.setLong(1, start + BLOCK_SIZE);
+                    update.executeUpdate();
+                }
+                connection.commit();
+                return start;
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not claim a block of expense ids", ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
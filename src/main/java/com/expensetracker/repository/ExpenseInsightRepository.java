@@ -0,0 +1,22 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.ExpenseInsight;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ExpenseInsightRepository extends JpaRepository<ExpenseInsight, Long> {
+
+    Page<ExpenseInsight> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseInsight i WHERE i.expenseId IN :expenseIds")
+    int deleteByExpenseIdIn(@Param("expenseIds") Collection<Long> expenseIds);
+}
@@ -0,0 +1,52 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.ExpenseMonthlyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface ExpenseMonthlyRollupRepository extends JpaRepository<ExpenseMonthlyRollup, Long> {
+
+    // Single-statement upsert: two first writes to the same row no longer race an UPDATE-then-INSERT into the unique key
+    // The native-spaces hint names the only table touched; without it Hibernate clears every second-level cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "expense_monthly_rollups"))
+    @Query(value = "INSERT INTO expense_monthly_rollups (user_id, month_key, category_id, type, total_amount, entry_count) " +
+            "VALUES (:userId, :monthKey, :categoryId, :type, :amount, :count) " +
+            "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), entry_count = entry_count + VALUES(entry_count)",
+            nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId, @Param("monthKey") Integer monthKey, @Param("categoryId") Long categoryId,
+                   @Param("type") String type, @Param("amount") BigDecimal amount, @Param("count") long count);
+
+    @Query("SELECT SUM(r.totalAmount) FROM ExpenseMonthlyRollup r WHERE r.userId = :userId AND r.type = :type AND r.monthKey BETWEEN :fromMonth AND :toMonth")
+    BigDecimal sumByTypeAndMonthRange(@Param("userId") Long userId, @Param("type") Expense.ExpenseType type,
+                                      @Param("fromMonth") Integer fromMonth, @Param("toMonth") Integer toMonth);
+
+    @Query("SELECT c.name, SUM(r.totalAmount) FROM ExpenseMonthlyRollup r JOIN Category c ON c.id = r.categoryId " +
+            "WHERE r.userId = :userId AND r.type = :type AND r.monthKey BETWEEN :fromMonth AND :toMonth GROUP BY c.name")
+    List<Object[]> sumByCategoryAndMonthRange(@Param("userId") Long userId, @Param("type") Expense.ExpenseType type,
+                                              @Param("fromMonth") Integer fromMonth, @Param("toMonth") Integer toMonth);
+
+    @Query("SELECT r FROM ExpenseMonthlyRollup r WHERE r.userId = :userId AND r.type = :type AND r.monthKey BETWEEN :fromMonth AND :toMonth")
+    List<ExpenseMonthlyRollup> findByTypeAndMonthRange(@Param("userId") Long userId, @Param("type") Expense.ExpenseType type,
+                                                       @Param("fromMonth") Integer fromMonth, @Param("toMonth") Integer toMonth);
+
+    @Query("SELECT r.totalAmount FROM ExpenseMonthlyRollup r WHERE r.userId = :userId AND r.monthKey = :monthKey " +
+            "AND r.categoryId = :categoryId AND r.type = :type")
+    BigDecimal findTotal(@Param("userId") Long userId, @Param("monthKey") Integer monthKey,
+                         @Param("categoryId") Long categoryId, @Param("type") Expense.ExpenseType type);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseMonthlyRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
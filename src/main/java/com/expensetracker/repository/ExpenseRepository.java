@@ -16,11 +16,14 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long>, org.springframework.data.jpa.repository.JpaSpecificationExecutor<Expense> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, org.springframework.data.jpa.repository.JpaSpecificationExecutor<Expense>, ExpenseRepositoryCustom {
     
     Page<Expense> findByUserOrderByExpenseDateDesc(User user, Pageable pageable);
     
     Optional<Expense> findByIdAndUser(Long id, User user);
+
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId AND e.id IN :ids")
+    List<Expense> findAllByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") java.util.Collection<Long> ids);
     
     List<Expense> findByUserAndExpenseDateBetween(User user, LocalDate startDate, LocalDate endDate);
     
@@ -39,4 +42,55 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long>, org.spr
     Long countByUser(@Param("user") User user);
     
     List<Expense> findByUserAndIsRecurringTrue(User user);
-}
\ No newline at end of file
+
+    @Query("SELECT e.category.id, e.type, year(e.expenseDate), month(e.expenseDate), SUM(e.amount), COUNT(e) FROM Expense e " +
+            "WHERE e.user.id = :userId AND e.type IS NOT NULL GROUP BY e.category.id, e.type, year(e.expenseDate), month(e.expenseDate)")
+    List<Object[]> aggregateMonthlyByUser(@Param("userId") Long userId);
+
+    // Narrow projection for loading the in-memory analytics columns; must be consumed inside a transaction
+    @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.id, e.amount, e.expenseDate, e.category.id, e.type, e.paymentMethod FROM Expense e WHERE e.user.id = :userId ORDER BY e.id")
+    java.util.stream.Stream<Object[]> streamColumnsByUserId(@Param("userId") Long userId);
+
+    // Training data for the per-user category classifier; must be consumed inside a transaction
+    @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.category.id, e.title, e.description FROM Expense e WHERE e.user.id = :userId")
+    java.util.stream.Stream<Object[]> streamTextByUserId(@Param("userId") Long userId);
+
+    // Source rows for the per-user full-text index, in id order so postings append; consume inside a transaction
+    @org.springframework.data.jpa.repository.QueryHints(@jakarta.persistence.QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT e.id, e.title, e.description, e.notes FROM Expense e WHERE e.user.id = :userId ORDER BY e.id")
+    java.util.stream.Stream<Object[]> streamSearchTextByUserId(@Param("userId") Long userId);
+
+    // Keyset over users with a recurring template due by :today; a template whose next date is not known yet counts as due
+    @Query("SELECT DISTINCT e.user.id FROM Expense e WHERE e.isRecurring = true AND e.user.id > :afterUserId " +
+            "AND e.recurringFrequency IS NOT NULL AND (e.recurrenceNextDate IS NULL OR e.recurrenceNextDate <= :today) ORDER BY e.user.id")
+    List<Long> findUserIdsWithDueRecurring(@Param("afterUserId") Long afterUserId, @Param("today") LocalDate today, Pageable pageable);
+
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId AND e.isRecurring = true AND e.recurringFrequency IS NOT NULL " +
+            "AND (e.recurrenceNextDate IS NULL OR e.recurrenceNextDate <= :today)")
+    List<Expense> findDueRecurringTemplates(@Param("userId") Long userId, @Param("today") LocalDate today);
+
+    // Keyset over users with expenses the archive job moves: dated before :cutoff, recurring templates excluded
+    @Query("SELECT DISTINCT e.user.id FROM Expense e WHERE e.expenseDate < :cutoff AND e.user.id > :afterUserId " +
+            "AND (e.isRecurring IS NULL OR e.isRecurring = false) ORDER BY e.user.id")
+    List<Long> findUserIdsWithArchivable(@Param("cutoff") LocalDate cutoff, @Param("afterUserId") Long afterUserId, Pageable pageable);
+
+    // Locked, so an update or delete racing the archive job waits for it and then finds the row gone. Date order
+    // gives consecutive batches (segments) disjoint date ranges.
+    @org.springframework.data.jpa.repository.Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Expense e WHERE e.user.id = :userId AND e.expenseDate < :cutoff " +
+            "AND (e.isRecurring IS NULL OR e.isRecurring = false) ORDER BY e.expenseDate, e.id")
+    List<Expense> findArchivable(@Param("userId") Long userId, @Param("cutoff") LocalDate cutoff, Pageable pageable);
+
+    // Writes only the schedule column, and only while it still holds :expected: an edit that rescheduled the template
+    // in the meantime makes this match nothing instead of being overwritten
+    @org.springframework.data.jpa.repository.Modifying
+    @Query("UPDATE Expense e SET e.recurrenceNextDate = :next WHERE e.id = :id " +
+            "AND (e.recurrenceNextDate = :expected OR (e.recurrenceNextDate IS NULL AND :expected IS NULL))")
+    int advanceRecurrence(@Param("id") Long id, @Param("expected") LocalDate expected, @Param("next") LocalDate next);
+
+    // templateId, date of its latest generated occurrence
+    @Query("SELECT e.recurrenceSourceId, MAX(e.expenseDate) FROM Expense e WHERE e.recurrenceSourceId IN :templateIds GROUP BY e.recurrenceSourceId")
+    List<Object[]> findLastOccurrenceDates(@Param("templateIds") java.util.Collection<Long> templateIds);
+}
@@ -0,0 +1,22 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.ExpenseDto;
+import com.expensetracker.entity.Expense;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ExpenseRepositoryCustom {
+
+    // Forward-only stream with the category fetched in the same row; caller must close it inside a transaction
+    Stream<Expense> streamAll(Specification<Expense> spec, Sort sort, int fetchSize);
+
+    // DTO columns only, category joined once; no entity hydration or dirty tracking
+    Page<ExpenseDto> findDtos(Specification<Expense> spec, Pageable pageable);
+
+    List<ExpenseDto> findDtos(Specification<Expense> spec, Sort sort, int limit);
+}
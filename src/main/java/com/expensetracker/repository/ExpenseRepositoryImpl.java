@@ -0,0 +1,118 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.dto.ExpenseDto;
+import com.expensetracker.entity.Category;
+import com.expensetracker.entity.Expense;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ExpenseRepositoryImpl implements ExpenseRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Expense> streamAll(Specification<Expense> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Expense> query = cb.createQuery(Expense.class);
+        Root<Expense> root = query.from(Expense.class);
+        root.fetch("category");
+        query.select(root).where(spec.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Page<ExpenseDto> findDtos(Specification<Expense> spec, Pageable pageable) {
+        TypedQuery<Tuple> query = dtoQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<ExpenseDto> content = query.getResultList().stream().map(ExpenseRepositoryImpl::toDto).toList();
+        // Count only runs when the page size does not already tell us the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> countMatching(spec));
+    }
+
+    @Override
+    public List<ExpenseDto> findDtos(Specification<Expense> spec, Sort sort, int limit) {
+        return dtoQuery(spec, sort).setMaxResults(limit).getResultList().stream()
+                .map(ExpenseRepositoryImpl::toDto)
+                .toList();
+    }
+
+    private TypedQuery<Tuple> dtoQuery(Specification<Expense> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Expense> root = query.from(Expense.class);
+        Join<Expense, Category> category = root.join("category");
+        query.multiselect(
+                root.get("id"),
+                root.get("title"),
+                root.get("description"),
+                root.get("amount"),
+                root.get("expenseDate"),
+                root.get("type"),
+                root.get("paymentMethod"),
+                root.get("notes"),
+                root.get("receiptUrl"),
+                root.get("isRecurring"),
+                root.get("recurringFrequency"),
+                category.get("id"),
+                category.get("name"));
+        query.where(spec.toPredicate(root, query, cb));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long countMatching(Specification<Expense> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Expense> root = query.from(Expense.class);
+        query.select(cb.count(root)).where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static ExpenseDto toDto(Tuple t) {
+        Expense.ExpenseType type = t.get(5, Expense.ExpenseType.class);
+        Expense.PaymentMethod paymentMethod = t.get(6, Expense.PaymentMethod.class);
+        Expense.RecurringFrequency frequency = t.get(10, Expense.RecurringFrequency.class);
+        return new ExpenseDto(
+                t.get(0, Long.class),
+                t.get(1, String.class),
+                t.get(2, String.class),
+                t.get(3, BigDecimal.class),
+                t.get(4, LocalDate.class),
+                type != null ? type.name() : null,
+                paymentMethod != null ? paymentMethod.name() : null,
+                t.get(7, String.class),
+                t.get(8, String.class),
+                t.get(9, Boolean.class),
+                frequency != null ? frequency.name() : null,
+                t.get(11, Long.class),
+                t.get(12, String.class));
+    }
+}
@@ -1,18 +1,24 @@
 package com.expensetracker.repository;
 
 import com.expensetracker.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    
-    Optional<User> findByUsername(String username);
-    
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    // Emails are not the natural id (a User has one), so these results go to the query cache instead; any write to
+    // users invalidates it
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")})
     Optional<User> findByEmail(String email);
     
     Boolean existsByUsername(String username);
@@ -24,4 +30,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT u FROM User u WHERE u.email = :email AND u.isActive = true")
     Optional<User> findActiveUserByEmail(@Param("email") String email);
+
+    // One round trip for a login that may be either; both columns are unique, so at most two rows come back
+    @Query("SELECT u FROM User u WHERE u.username = :login OR u.email = :login")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")})
+    List<User> findAllByUsernameOrEmail(@Param("login") String login);
+
+    // A username match wins over another account's email, as with separate username-then-email lookups
+    default Optional<User> findByUsernameOrEmail(String login) {
+        List<User> users = findAllByUsernameOrEmail(login);
+        for (User user : users) {
+            if (user.getUsername().equals(login)) return Optional.of(user);
+        }
+        return users.stream().findFirst();
+    }
+
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
 }
\ No newline at end of file
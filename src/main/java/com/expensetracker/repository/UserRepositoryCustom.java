@@ -0,0 +1,11 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.entity.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    // Natural-id lookup: served from the second-level cache once the user has been loaded
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,129 @@
+package com.expensetracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Verified JWT -> principal, so steady-state requests skip both the second signature check and the users lookup.
+// tokensByUser indexes the cached tokens by user, so a change to one user evicts only that user's entries.
+@Component
+@Slf4j
+public class AuthenticatedPrincipalCache {
+
+    private final Cache<String, Entry> cache;
+    private final Map<Long, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public AuthenticatedPrincipalCache(@Value("${jwt.cache.max-size:10000}") long maxSize,
+                                       @Value("${jwt.cache.ttl:PT5M}") Duration ttl,
+                                       MeterRegistry meterRegistry) {
+        long ttlNanos = ttl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String token, Entry entry, long currentTime) {
+                        long untilTokenExpiry = Duration.ofMillis(entry.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                // Runs inside the cache's own removal of an expired or size-evicted entry
+                .evictionListener((String token, Entry entry, RemovalCause cause) -> unindex(entry.principal().getId(), token))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtPrincipals");
+    }
+
+    public UserPrincipal getIfPresent(String token) {
+        Entry entry = cache.getIfPresent(token);
+        return entry != null ? entry.principal() : null;
+    }
+
+    // Read before loading a principal and passed to put, which then knows whether an eviction raced the load
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public void put(String token, Date expiration, UserPrincipal principal, long evictionsBeforeLoad) {
+        tokensByUser.compute(principal.getId(), (userId, tokens) -> {
+            Set<String> indexed = tokens != null ? tokens : ConcurrentHashMap.newKeySet();
+            indexed.add(token);
+            return indexed;
+        });
+        cache.put(token, new Entry(principal, expiration != null ? expiration.getTime() : Long.MAX_VALUE));
+        // The principal may have been read before a change that has since evicted its user; drop it rather than serve it
+        if (evictions.get() != evictionsBeforeLoad) cache.invalidate(token);
+    }
+
+    // Called whenever a user row changes (deactivation, role change) so stale principals are not served. The entity
+    // listener runs at flush, before commit, and a request can re-cache the committed old row in between, so the
+    // user's entries are evicted again once the transaction commits.
+    public void evictUser(Long userId) {
+        if (userId == null) return;
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        evictions.incrementAndGet();
+        tokensByUser.clear();
+        cache.invalidateAll();
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    private void evict(Long userId) {
+        evictions.incrementAndGet();
+        Set<String> tokens = tokensByUser.remove(userId);
+        if (tokens != null) cache.invalidateAll(tokens);
+        log.debug("Evicted cached principals for user {}", userId);
+    }
+
+    private void unindex(Long userId, String token) {
+        tokensByUser.computeIfPresent(userId, (id, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+    }
+
+    private record Entry(UserPrincipal principal, long expiresAtMillis) {
+    }
+}
@@ -1,10 +1,11 @@
 package com.expensetracker.security;
 
-import lombok.RequiredArgsConstructor;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -15,25 +16,62 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String METRIC = "security.jwt.filter";
+
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final AuthenticatedPrincipalCache principalCache;
+    // Time to resolve the caller, by outcome: no token, cache hit, verified and loaded, or rejected
+    private final Timer anonymousTimer;
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
+                                   CustomUserDetailsService customUserDetailsService,
+                                   AuthenticatedPrincipalCache principalCache,
+                                   MeterRegistry meterRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.customUserDetailsService = customUserDetailsService;
+        this.principalCache = principalCache;
+        this.anonymousTimer = timer(meterRegistry, "anonymous");
+        this.cachedTimer = timer(meterRegistry, "cached");
+        this.verifiedTimer = timer(meterRegistry, "verified");
+        this.rejectedTimer = timer(meterRegistry, "rejected");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(METRIC)
+                .description("Time the JWT filter spends resolving the caller, excluding the rest of the chain")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
+        long started = System.nanoTime();
+        Timer outcome = rejectedTimer;
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromJWT(jwt);
+            UserPrincipal userDetails = null;
+            if (!StringUtils.hasText(jwt)) {
+                outcome = anonymousTimer;
+            } else if ((userDetails = principalCache.getIfPresent(jwt)) != null) {
+                // A cached entry was verified for this exact token string and never outlives its expiry
+                outcome = cachedTimer;
+            } else if ((userDetails = verifyAndLoad(jwt)) != null) {
+                outcome = verifiedTimer;
+            }
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+            if (userDetails != null && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -41,12 +79,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception ex) {
+            outcome = rejectedTimer;
             log.error("Could not set user authentication in security context", ex);
         }
+        outcome.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
 
         filterChain.doFilter(request, response);
     }
 
+    private UserPrincipal verifyAndLoad(String jwt) {
+        Claims claims = tokenProvider.parseToken(jwt);
+        if (claims == null) {
+            return null;
+        }
+        Long userId = Long.parseLong(claims.getSubject());
+        long evictions = principalCache.evictions();
+        UserPrincipal principal = (UserPrincipal) customUserDetailsService.loadUserById(userId);
+        principalCache.put(jwt, claims.getExpiration(), principal, evictions);
+        return principal;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -20,8 +20,26 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private int jwtExpirationInMs;
 
+    // Built lazily so a weak dev secret only fails when a token is actually issued or parsed
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser p = parser;
+        if (p == null) {
+            p = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+            parser = p;
+        }
+        return p;
     }
 
     public String generateToken(Authentication authentication) {
@@ -37,32 +55,31 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public Long getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return Long.parseLong(claims.getSubject());
-    }
-
-    public boolean validateToken(String authToken) {
+    // Verifies signature and expiry once; returns null when the token is not usable
+    public Claims parseToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
+            return getParser().parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
             log.error("Expired JWT token");
         } catch (UnsupportedJwtException ex) {
             log.error("Unsupported JWT token");
+        } catch (JwtException ex) {
+            log.error("Invalid JWT signature");
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty.");
         }
-        return false;
+        return null;
+    }
+
+    public Long getUserIdFromJWT(String token) {
+        Claims claims = getParser().parseClaimsJws(token).getBody();
+
+        return Long.parseLong(claims.getSubject());
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseToken(authToken) != null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.expensetracker.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// BCrypt hashes and checks run on a fixed pool sized to the CPUs with a short queue. A caller waits for its own
+// hash, so at most threads + queue-capacity request threads are ever tied up in hashing; beyond that new work is
+// rejected at once (503 via GlobalExceptionHandler) instead of piling up request threads during a login storm.
+@Component
+public class PasswordHashingExecutor {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    // Checked when the login is unknown, so a miss costs the same as a wrong password
+    private final String dummyHash;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   @Value("${auth.password-hashing.threads:0}") int threads,
+                                   @Value("${auth.password-hashing.queue-capacity:8}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "password-hashing-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing");
+        this.dummyHash = passwordEncoder.encode("dummy-password-for-unknown-logins");
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        String hash = encodedPassword != null ? encodedPassword : dummyHash;
+        boolean matches = run(() -> passwordEncoder.matches(rawPassword, hash));
+        return matches && encodedPassword != null;
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            throw new RejectedExecutionException("Too many sign-ins in progress, please retry shortly");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while checking the password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
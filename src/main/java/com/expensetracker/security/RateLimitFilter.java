@@ -0,0 +1,145 @@
+package com.expensetracker.security;
+
+import com.expensetracker.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket per (route group, caller), run right after JwtAuthenticationFilter so the caller is the user id when
+// the token is valid and the client IP otherwise. Each bucket is one AtomicLong holding its theoretical arrival
+// time (the GCRA form of a token bucket): a request is one compare-and-set, with no lock and no timer. Buckets
+// idle for a whole period are full again, so they simply expire from the bounded cache.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String METRIC = "rate.limit.rejected";
+
+    private record Rule(String name, List<PathPattern> patterns, long intervalNanos, long toleranceNanos, Counter rejected) {
+    }
+
+    private record Key(String group, Object caller) {
+    }
+
+    private final boolean enabled;
+    private final List<Rule> rules = new ArrayList<>();
+    private final Cache<Key, AtomicLong> buckets;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.objectMapper = objectMapper;
+        Duration longest = Duration.ofMinutes(1);
+        for (Map.Entry<String, RateLimitProperties.Group> entry : properties.groups().entrySet()) {
+            RateLimitProperties.Group group = entry.getValue();
+            if (group.capacity() < 1 || group.period() == null || group.period().isZero() || group.period().isNegative()) {
+                throw new IllegalStateException("rate-limit.groups." + entry.getKey() + " needs a capacity >= 1 and a positive period");
+            }
+            List<PathPattern> patterns = group.paths() == null ? List.of()
+                    : group.paths().stream().map(PathPatternParser.defaultInstance::parse).toList();
+            long interval = group.period().toNanos() / group.capacity();
+            rules.add(new Rule(entry.getKey(), patterns, interval, interval * (group.capacity() - 1),
+                    Counter.builder(METRIC)
+                            .description("Requests answered 429 by the rate limiter")
+                            .tag("group", entry.getKey())
+                            .register(meterRegistry)));
+            if (group.period().compareTo(longest) > 0) longest = group.period();
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxKeys() > 0 ? properties.maxKeys() : 100_000)
+                .expireAfterAccess(longest)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rateLimitBuckets");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || rules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Rule rule = match(request);
+        if (rule != null) {
+            AtomicLong bucket = buckets.get(new Key(rule.name(), caller(request)), k -> new AtomicLong(System.nanoTime()));
+            long waitNanos = acquire(bucket, rule.intervalNanos(), rule.toleranceNanos());
+            if (waitNanos > 0) {
+                rule.rejected().increment();
+                reject(response, rule, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    // 0 when the request may proceed, otherwise how long until the bucket holds a token again
+    static long acquire(AtomicLong tat, long intervalNanos, long toleranceNanos) {
+        long now = System.nanoTime();
+        while (true) {
+            long current = tat.get();
+            long start = current - now < 0 ? now : current;
+            long early = start - now - toleranceNanos;
+            if (early > 0) return early;
+            if (tat.compareAndSet(current, start + intervalNanos)) return 0;
+        }
+    }
+
+    private Rule match(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Rule rule : rules) {
+            for (PathPattern pattern : rule.patterns()) {
+                if (pattern.matches(path)) return rule;
+            }
+        }
+        return null;
+    }
+
+    private static Object caller(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, Rule rule, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", Instant.now().toString());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        body.put("message", "Rate limit exceeded for " + rule.name() + " requests, retry in " + retryAfter + "s");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
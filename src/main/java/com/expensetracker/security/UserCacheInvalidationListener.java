@@ -0,0 +1,21 @@
+package com.expensetracker.security;
+
+import com.expensetracker.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// JPA entity listener on User; Hibernate resolves it through Spring so the cache can be injected
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final AuthenticatedPrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        principalCache.evictUser(user.getId());
+    }
+}
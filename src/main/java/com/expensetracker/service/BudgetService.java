@@ -0,0 +1,126 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.BudgetAlertDto;
+import com.expensetracker.dto.BudgetDto;
+import com.expensetracker.entity.Budget;
+import com.expensetracker.event.BudgetThresholdCrossedEvent;
+import com.expensetracker.repository.BudgetAlertRepository;
+import com.expensetracker.repository.BudgetRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetService {
+
+    private static final int DEFAULT_ALERT_PERCENT = 80;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetAlertRepository alertRepository;
+    private final BudgetSpendTracker spendTracker;
+    private final CategoryCache categoryCache;
+    private final MeterRegistry meterRegistry;
+
+    // Progress comes from the in-memory counters, never from aggregating expenses
+    @Transactional(readOnly = true)
+    public List<BudgetDto> list(Long userId) {
+        CategoryCache.UserCategories categories = categoryCache.forUser(userId);
+        return budgetRepository.findByUserIdOrderByIdAsc(userId).stream()
+                .map(b -> toDto(b, categories))
+                .toList();
+    }
+
+    // One budget per category: posting for a category that already has one replaces its amount and threshold
+    @Transactional
+    public BudgetDto upsert(Long userId, BudgetDto dto) {
+        CategoryCache.UserCategories categories = categoryCache.forUser(userId);
+        categories.require(dto.getCategoryId());
+        Budget budget = budgetRepository.findByUserIdAndCategoryId(userId, dto.getCategoryId()).orElseGet(Budget::new);
+        budget.setUserId(userId);
+        budget.setCategoryId(dto.getCategoryId());
+        budget.setAmount(dto.getAmount());
+        budget.setAlertPercent(dto.getAlertPercent() != null ? dto.getAlertPercent() : DEFAULT_ALERT_PERCENT);
+        Budget saved = budgetRepository.save(budget);
+        afterCommit(() -> spendTracker.track(saved.getId(), userId, saved.getCategoryId(), saved.getAmount(), saved.getAlertPercent()));
+        return toDto(saved, categories);
+    }
+
+    @Transactional
+    public void delete(Long userId, Long id) {
+        Budget budget = budgetRepository.findByIdAndUserId(id, userId).orElseThrow(() -> new RuntimeException("Budget not found"));
+        budgetRepository.delete(budget);
+        afterCommit(() -> spendTracker.untrack(userId, budget.getCategoryId()));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<BudgetAlertDto> alerts(Long userId, int page, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) throw new RuntimeException("size must be between 1 and " + MAX_PAGE_SIZE);
+        CategoryCache.UserCategories categories = categoryCache.forUser(userId);
+        return alertRepository.findByUserIdOrderByIdDesc(userId, PageRequest.of(page, size)).map(a -> {
+            CategoryCache.CachedCategory category = categories.get(a.getCategoryId());
+            return new BudgetAlertDto(a.getId(), a.getBudgetId(), a.getCategoryId(), category != null ? category.name() : null,
+                    YearMonth.of(a.getMonthKey() / 100, a.getMonthKey() % 100).toString(), a.getThresholdPercent(),
+                    a.getSpent(), a.getBudgetAmount(), a.getCreatedAt());
+        });
+    }
+
+    // Off the request thread; the unique (budget, month, threshold) key keeps a re-crossing from alerting twice
+    @Async
+    @EventListener
+    @Transactional
+    public void onThresholdCrossed(BudgetThresholdCrossedEvent event) {
+        int inserted = alertRepository.insertIfAbsent(event.userId(), event.budgetId(), event.categoryId(), event.monthKey(),
+                event.thresholdPercent(), event.spent(), event.budgetAmount(), LocalDateTime.now());
+        if (inserted == 0) {
+            log.debug("Budget alert for budget {} at {}% already recorded", event.budgetId(), event.thresholdPercent());
+            return;
+        }
+        meterRegistry.counter("budget.alerts", "threshold", event.thresholdPercent() >= 100 ? "exceeded" : "warning").increment();
+        log.info("Budget {} of user {} reached {}% ({} of {})", event.budgetId(), event.userId(),
+                event.thresholdPercent(), event.spent(), event.budgetAmount());
+    }
+
+    private BudgetDto toDto(Budget b, CategoryCache.UserCategories categories) {
+        Long spentCents = spendTracker.spentCents(b.getUserId(), b.getCategoryId());
+        if (spentCents == null) {
+            // Not tracked yet on this instance, e.g. created elsewhere since the last reconciliation
+            spendTracker.track(b.getId(), b.getUserId(), b.getCategoryId(), b.getAmount(), b.getAlertPercent());
+            spentCents = spendTracker.spentCents(b.getUserId(), b.getCategoryId());
+        }
+        BigDecimal spent = ExpenseAnalyticsService.amount(spentCents != null ? spentCents : 0);
+        CategoryCache.CachedCategory category = categories.get(b.getCategoryId());
+        double percentUsed = spent.multiply(BigDecimal.valueOf(100)).divide(b.getAmount(), 1, RoundingMode.HALF_UP).doubleValue();
+        return new BudgetDto(b.getId(), b.getCategoryId(), category != null ? category.name() : null, b.getAmount(),
+                b.getAlertPercent(), YearMonth.now().toString(), spent, b.getAmount().subtract(spent), percentUsed);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,209 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Expense;
+import com.expensetracker.event.BudgetThresholdCrossedEvent;
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.ExpenseMonthlyRollupRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Month-to-date spend of every budgeted (user, category) as an atomic counter in cents, moved by each committed
+// expense change, so budget checks and progress never aggregate expenses. Counters are seeded from the monthly
+// rollups at startup, re-seeded lazily when the month rolls over, and reconciled periodically; reconciliation
+// is what corrects drift from a change that lands between reading the rollups and setting a counter, or from
+// writes served by another instance. About 100 bytes per budget.
+@Component
+@Slf4j
+public class BudgetSpendTracker {
+
+    private static final int EXCEEDED_PERCENT = 100;
+
+    record Key(Long userId, Long categoryId) {
+    }
+
+    // Limits are immutable; a budget edit swaps in a new Tracked that shares the spend counter
+    static final class Tracked {
+        final long budgetId;
+        final long limitCents;
+        final int alertPercent;
+        final AtomicLong spentCents;
+        volatile int monthKey;
+
+        Tracked(long budgetId, long limitCents, int alertPercent, AtomicLong spentCents, int monthKey) {
+            this.budgetId = budgetId;
+            this.limitCents = limitCents;
+            this.alertPercent = alertPercent;
+            this.spentCents = spentCents;
+            this.monthKey = monthKey;
+        }
+    }
+
+    // A counter as reconcile() found it before reading the rollups; spentCents is null if it was on an earlier month
+    private record Baseline(Tracked tracked, Long spentCents) {
+    }
+
+    private final BudgetRepository budgetRepository;
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readTransaction;
+    private final ConcurrentHashMap<Key, Tracked> counters = new ConcurrentHashMap<>();
+
+    public BudgetSpendTracker(BudgetRepository budgetRepository,
+                              ExpenseMonthlyRollupRepository rollupRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.budgetRepository = budgetRepository;
+        this.rollupRepository = rollupRepository;
+        this.eventPublisher = eventPublisher;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        Gauge.builder("budget.tracked", counters, Map::size).register(meterRegistry);
+    }
+
+    // Month-to-date spend in cents for a budgeted category, or null if no budget is tracked for it
+    Long spentCents(Long userId, Long categoryId) {
+        Tracked t = counters.get(new Key(userId, categoryId));
+        if (t == null) return null;
+        rollOver(userId, categoryId, t, currentMonth());
+        return t.spentCents.get();
+    }
+
+    // Called after the budget commits; keeps the running spend when only the limit changed
+    void track(Long budgetId, Long userId, Long categoryId, BigDecimal amount, int alertPercent) {
+        int month = currentMonth();
+        counters.compute(new Key(userId, categoryId), (k, existing) -> existing != null
+                ? new Tracked(budgetId, ExpenseAnalyticsService.cents(amount), alertPercent, existing.spentCents, existing.monthKey)
+                : new Tracked(budgetId, ExpenseAnalyticsService.cents(amount), alertPercent,
+                        new AtomicLong(seed(userId, categoryId, month)), month));
+    }
+
+    void untrack(Long userId, Long categoryId) {
+        counters.remove(new Key(userId, categoryId));
+    }
+
+    @TransactionalEventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        int month = currentMonth();
+        Map<Long, Long> deltas = null;
+        for (ExpensesChangedEvent.Change change : event.changes()) {
+            deltas = collect(deltas, change.before(), -1, month);
+            deltas = collect(deltas, change.after(), 1, month);
+        }
+        if (deltas == null) return;
+        for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            Tracked t = counters.get(new Key(event.userId(), entry.getKey()));
+            if (t == null || entry.getValue() == 0) continue;
+            // A counter re-seeded from the rollups already includes this committed change
+            if (rollOver(event.userId(), entry.getKey(), t, month)) continue;
+            long after = t.spentCents.addAndGet(entry.getValue());
+            long before = after - entry.getValue();
+            crossed(event.userId(), entry.getKey(), t, month, before, after, t.alertPercent);
+            crossed(event.userId(), entry.getKey(), t, month, before, after, EXCEEDED_PERCENT);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    // Corrections are relative to each counter's value just before the read, so deltas applied while it streams are
+    // kept; counters tracked or replaced meanwhile are left alone, and only those whose budget is gone are dropped
+    @Scheduled(fixedDelayString = "${budget.reconcile-interval:PT15M}", initialDelayString = "${budget.reconcile-interval:PT15M}")
+    public void reconcile() {
+        long started = System.currentTimeMillis();
+        int month = currentMonth();
+        Map<Key, Baseline> baselines = new HashMap<>();
+        counters.forEach((key, t) -> baselines.put(key, new Baseline(t, t.monthKey == month ? t.spentCents.get() : null)));
+        Set<Key> seen = new HashSet<>();
+        long[] corrected = new long[1];
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = budgetRepository.streamWithMonthSpend(month, Expense.ExpenseType.EXPENSE)) {
+                rows.forEach(row -> {
+                    Key key = new Key((Long) row[1], (Long) row[2]);
+                    long limit = ExpenseAnalyticsService.cents((BigDecimal) row[3]);
+                    long spent = row[5] != null ? ExpenseAnalyticsService.cents((BigDecimal) row[5]) : 0;
+                    seen.add(key);
+                    Baseline baseline = baselines.get(key);
+                    counters.compute(key, (k, existing) -> {
+                        // Untracked after the snapshot: the budget was deleted since
+                        if (existing == null && baseline != null) return null;
+                        if (existing == null) return new Tracked((Long) row[0], limit, (Integer) row[4], new AtomicLong(spent), month);
+                        if (baseline == null || baseline.tracked() != existing) return existing;
+                        // A counter still on an earlier month is re-seeded on its next touch
+                        if (baseline.spentCents() != null && spent != baseline.spentCents()) {
+                            existing.spentCents.addAndGet(spent - baseline.spentCents());
+                            corrected[0]++;
+                        }
+                        return new Tracked((Long) row[0], limit, (Integer) row[4], existing.spentCents, existing.monthKey);
+                    });
+                });
+            }
+        });
+        baselines.forEach((key, baseline) -> {
+            if (!seen.contains(key)) counters.remove(key, baseline.tracked());
+        });
+        log.info("Reconciled {} budget counters ({} corrected) in {} ms", seen.size(), corrected[0],
+                System.currentTimeMillis() - started);
+    }
+
+    private Map<Long, Long> collect(Map<Long, Long> deltas, ExpenseSnapshot s, int sign, int month) {
+        if (s == null || s.type() != Expense.ExpenseType.EXPENSE || s.amount() == null || s.expenseDate() == null
+                || ExpenseRollupService.monthKey(YearMonth.from(s.expenseDate())) != month) {
+            return deltas;
+        }
+        if (deltas == null) deltas = new HashMap<>();
+        deltas.merge(s.categoryId(), sign * ExpenseAnalyticsService.cents(s.amount()), Long::sum);
+        return deltas;
+    }
+
+    private void crossed(Long userId, Long categoryId, Tracked t, int month, long before, long after, int percent) {
+        long threshold = t.limitCents * percent / 100;
+        if (before < threshold && after >= threshold) {
+            eventPublisher.publishEvent(new BudgetThresholdCrossedEvent(userId, t.budgetId, categoryId, month, percent,
+                    ExpenseAnalyticsService.amount(after), ExpenseAnalyticsService.amount(t.limitCents)));
+        }
+    }
+
+    // First touch in a new month re-seeds from that month's rollup; true if this call did the re-seed
+    private boolean rollOver(Long userId, Long categoryId, Tracked t, int month) {
+        if (t.monthKey == month) return false;
+        synchronized (t) {
+            if (t.monthKey == month) return false;
+            t.spentCents.set(seed(userId, categoryId, month));
+            t.monthKey = month;
+            return true;
+        }
+    }
+
+    private long seed(Long userId, Long categoryId, int month) {
+        BigDecimal total = rollupRepository.findTotal(userId, month, categoryId, Expense.ExpenseType.EXPENSE);
+        return total != null ? ExpenseAnalyticsService.cents(total) : 0;
+    }
+
+    private static int currentMonth() {
+        return ExpenseRollupService.monthKey(YearMonth.now());
+    }
+}
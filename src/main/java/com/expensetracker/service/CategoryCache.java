@@ -0,0 +1,101 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Category;
+import com.expensetracker.repository.CategoryRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Per-user immutable snapshot of categories so expense writes validate ownership without a select
+@Component
+public class CategoryCache {
+
+    public record CachedCategory(Long id, String name, Category.CategoryType type, boolean active) {
+    }
+
+    public static final class UserCategories {
+        private final Map<Long, CachedCategory> byId;
+        private final Map<String, Long> idsByName;
+
+        UserCategories(List<Category> categories) {
+            Map<Long, CachedCategory> ids = new HashMap<>();
+            Map<String, Long> names = new HashMap<>();
+            for (Category c : categories) {
+                boolean active = Boolean.TRUE.equals(c.getIsActive());
+                ids.put(c.getId(), new CachedCategory(c.getId(), c.getName(), c.getType(), active));
+                // Active categories win when an inactive one shares the name
+                if (active || !names.containsKey(key(c.getName()))) {
+                    names.put(key(c.getName()), c.getId());
+                }
+            }
+            this.byId = Map.copyOf(ids);
+            this.idsByName = Map.copyOf(names);
+        }
+
+        public CachedCategory get(Long id) {
+            return id != null ? byId.get(id) : null;
+        }
+
+        public CachedCategory require(Long id) {
+            CachedCategory c = get(id);
+            if (c == null) throw new RuntimeException("Category not found");
+            return c;
+        }
+
+        public Long idByName(String name) {
+            Long id = idsByName.get(key(name));
+            if (id == null) throw new RuntimeException("Category not found: " + name);
+            return id;
+        }
+
+        private static String key(String name) {
+            return name.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final LoadingCache<Long, UserCategories> cache;
+
+    public CategoryCache(CategoryRepository categoryRepository,
+                         @Value("${category.cache.max-users:10000}") long maxUsers,
+                         @Value("${category.cache.idle-ttl:PT30M}") Duration idleTtl,
+                         MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build(userId -> new UserCategories(categoryRepository.findAllByUserId(userId)));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userCategories");
+    }
+
+    public UserCategories forUser(Long userId) {
+        return cache.get(userId);
+    }
+
+    public CachedCategory require(Long userId, Long categoryId) {
+        return forUser(userId).require(categoryId);
+    }
+
+    // Evicts now and again after commit, so a reader racing the transaction cannot re-cache pre-commit rows
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.expensetracker.service;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Multinomial naive Bayes over hashed title/description tokens for one user. Counts live in a single
+// open-addressing int->int map keyed by (feature, category code), capped at maxEntries so memory per user is
+// bounded (at most maxEntries * 16 bytes); once full, unseen (feature, category) pairs are simply not learned.
+// Callers hold lock: read for predict, write for train/untrain.
+final class CategoryClassifier {
+
+    static final int MAX_TOKENS = 64;
+    private static final int FEATURE_BITS = 20;
+    private static final int CATEGORY_BITS = 11;
+    private static final int MAX_CATEGORIES = 1 << CATEGORY_BITS;
+    private static final int EMPTY = -1;
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    boolean loaded;
+
+    private final int maxEntries;
+    private int[] keys;
+    private int[] counts;
+    private int entries;
+
+    private long[] categoryIds = new long[8];
+    private int[] documents = new int[8];
+    private long[] tokenTotals = new long[8];
+    private int categoryCount;
+    private long totalDocuments;
+
+    CategoryClassifier(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.keys = new int[64];
+        this.counts = new int[64];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    int categoryCount() {
+        return categoryCount;
+    }
+
+    long categoryIdOf(int code) {
+        return categoryIds[code];
+    }
+
+    long memoryBytes() {
+        return keys.length * 8L + categoryIds.length * 20L;
+    }
+
+    void train(long categoryId, String title, String description) {
+        update(categoryId, title, description, 1);
+    }
+
+    void untrain(long categoryId, String title, String description) {
+        update(categoryId, title, description, -1);
+    }
+
+    private void update(long categoryId, String title, String description, int delta) {
+        int code = code(categoryId, delta > 0);
+        if (code < 0) return;
+        int[] features = new int[MAX_TOKENS];
+        int n = tokenize(title, description, features);
+        documents[code] = Math.max(0, documents[code] + delta);
+        totalDocuments = Math.max(0, totalDocuments + delta);
+        for (int i = 0; i < n; i++) {
+            int key = (features[i] << CATEGORY_BITS) | code;
+            int slot = find(key);
+            if (keys[slot] == EMPTY) {
+                if (delta < 0 || entries >= maxEntries) continue;
+                if ((entries + 1) * 2 > keys.length) {
+                    rehash(keys.length * 2);
+                    slot = find(key);
+                }
+                keys[slot] = key;
+                entries++;
+            }
+            int before = counts[slot];
+            counts[slot] = Math.max(0, before + delta);
+            tokenTotals[code] += counts[slot] - before;
+        }
+    }
+
+    // Writes log-probability scores per category code into scores; returns false when nothing is learned yet
+    boolean score(String title, String description, int[] features, double[] scores) {
+        if (totalDocuments == 0) return false;
+        int n = tokenize(title, description, features);
+        double vocabulary = Math.max(1, entries);
+        for (int c = 0; c < categoryCount; c++) {
+            if (documents[c] == 0) {
+                scores[c] = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+            double score = Math.log((documents[c] + 1.0) / (totalDocuments + categoryCount));
+            double denominator = Math.log(tokenTotals[c] + vocabulary);
+            for (int i = 0; i < n; i++) {
+                int slot = find((features[i] << CATEGORY_BITS) | c);
+                int count = keys[slot] == EMPTY ? 0 : counts[slot];
+                score += Math.log(count + 1.0) - denominator;
+            }
+            scores[c] = score;
+        }
+        return true;
+    }
+
+    // Lower-cased runs of letters/digits of length >= 2, digit-only runs skipped, hashed without allocating
+    static int tokenize(String title, String description, int[] features) {
+        int n = tokenize(title, features, 0);
+        return tokenize(description, features, n);
+    }
+
+    private static int tokenize(String text, int[] features, int n) {
+        if (text == null) return n;
+        int hash = 0;
+        int length = 0;
+        boolean letters = false;
+        for (int i = 0; i <= text.length() && n < features.length; i++) {
+            char ch = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(ch)) {
+                hash = 31 * hash + Character.toLowerCase(ch);
+                length++;
+                letters |= Character.isLetter(ch);
+            } else {
+                if (length >= 2 && letters) features[n++] = mix(hash);
+                hash = 0;
+                length = 0;
+                letters = false;
+            }
+        }
+        return n;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h & ((1 << FEATURE_BITS) - 1);
+    }
+
+    private int code(long categoryId, boolean create) {
+        for (int i = 0; i < categoryCount; i++) {
+            if (categoryIds[i] == categoryId) return i;
+        }
+        if (!create || categoryCount == MAX_CATEGORIES) return -1;
+        if (categoryCount == categoryIds.length) {
+            int capacity = categoryCount * 2;
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            documents = Arrays.copyOf(documents, capacity);
+            tokenTotals = Arrays.copyOf(tokenTotals, capacity);
+        }
+        categoryIds[categoryCount] = categoryId;
+        return categoryCount++;
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = (key * 0x9E3779B9 >>> 7) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new int[capacity];
+        counts = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = find(oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            counts[slot] = oldCounts[i];
+        }
+    }
+}
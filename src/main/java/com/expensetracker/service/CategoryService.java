@@ -16,6 +16,8 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final CategoryCache categoryCache;
+    private final UserDataVersions dataVersions;
 
     @Transactional(readOnly = true)
     public org.springframework.data.domain.Page<CategoryDto> listCategories(Long userId, String type,
@@ -45,14 +47,14 @@ public class CategoryService {
             category.setType(Category.CategoryType.valueOf(dto.getType().toUpperCase()));
         }
         Category saved = categoryRepository.save(category);
+        categoryCache.invalidate(userId);
+        dataVersions.bump(userId);
         return toDto(saved);
     }
 
     @Transactional
     public CategoryDto updateCategory(Long userId, Long id, CategoryDto dto) {
-        User user = requireUser(userId);
-        Category category = categoryRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Category not found"));
+        Category category = requireOwnedCategory(userId, id);
         if (dto.getName() != null) category.setName(dto.getName());
         if (dto.getDescription() != null) category.setDescription(dto.getDescription());
         if (dto.getIconName() != null) category.setIconName(dto.getIconName());
@@ -60,16 +62,25 @@ public class CategoryService {
         if (dto.getIsActive() != null) category.setIsActive(dto.getIsActive());
         if (dto.getType() != null) category.setType(Category.CategoryType.valueOf(dto.getType().toUpperCase()));
         Category saved = categoryRepository.save(category);
+        categoryCache.invalidate(userId);
+        dataVersions.bump(userId);
         return toDto(saved);
     }
 
     @Transactional
     public void deleteCategory(Long userId, Long id) {
-        User user = requireUser(userId);
-        Category category = categoryRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Category not found"));
+        Category category = requireOwnedCategory(userId, id);
         category.setIsActive(false);
         categoryRepository.save(category);
+        categoryCache.invalidate(userId);
+        dataVersions.bump(userId);
+    }
+
+    // By id, so the second-level cache answers; the user reference is not initialized to check the owner
+    private Category requireOwnedCategory(Long userId, Long id) {
+        return categoryRepository.findById(id)
+                .filter(c -> c.getUser().getId().equals(userId))
+                .orElseThrow(() -> new RuntimeException("Category not found"));
     }
 
     private User requireUser(Long userId) {
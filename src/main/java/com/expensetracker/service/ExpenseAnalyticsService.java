@@ -0,0 +1,276 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.AnalyticsBucketDto;
+import com.expensetracker.dto.AnalyticsTopExpenseDto;
+import com.expensetracker.entity.Expense;
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.repository.ExpenseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Group-by/range/top-N over per-user primitive columns, loaded once from the database and then kept in step with
+// committed expense writes, so insight queries never re-read expenses through JPA
+@Service
+@Slf4j
+public class ExpenseAnalyticsService {
+
+    public enum GroupBy { CATEGORY, PAYMENT_METHOD, MONTH }
+
+    private static final int MAX_MONTHS = 1200;
+    private static final int MAX_LIMIT = 1000;
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseArchive archive;
+    private final CategoryCache categoryCache;
+    private final TransactionTemplate readTransaction;
+    private final Cache<Long, ExpenseColumns> cache;
+
+    public ExpenseAnalyticsService(ExpenseRepository expenseRepository,
+                                   ExpenseArchive archive,
+                                   CategoryCache categoryCache,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${analytics.cache.max-memory:64MB}") DataSize maxMemory,
+                                   @Value("${analytics.cache.idle-ttl:PT30M}") Duration idleTtl,
+                                   MeterRegistry meterRegistry) {
+        this.expenseRepository = expenseRepository;
+        this.archive = archive;
+        this.categoryCache = categoryCache;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // Weighed in KiB of column storage; re-weighed after loading and after each applied change
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(1, maxMemory.toKilobytes()))
+                .<Long, ExpenseColumns>weigher((userId, columns) -> (int) Math.min(Integer.MAX_VALUE, columns.memoryBytes() >> 10))
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "expenseColumns");
+        Gauge.builder("expense.analytics.memory", cache, c -> c.asMap().values().stream().mapToLong(ExpenseColumns::memoryBytes).sum())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("expense.analytics.rows", cache, c -> c.asMap().values().stream().mapToLong(ExpenseColumns::rows).sum())
+                .register(meterRegistry);
+    }
+
+    public List<AnalyticsBucketDto> groupBy(Long userId, GroupBy groupBy, LocalDate startDate, LocalDate endDate,
+                                            String type, Integer limit) {
+        int fromDay = fromDay(startDate);
+        int toDay = toDay(endDate);
+        byte typeCode = typeCode(type);
+        CategoryCache.UserCategories names = groupBy == GroupBy.CATEGORY ? categoryCache.forUser(userId) : null;
+        List<AnalyticsBucketDto> buckets = read(userId, columns -> switch (groupBy) {
+            case CATEGORY -> {
+                long[] sums = new long[columns.categoryCount()];
+                long[] counts = new long[sums.length];
+                columns.sumByCategory(fromDay, toDay, typeCode, sums, counts);
+                List<AnalyticsBucketDto> result = new ArrayList<>();
+                for (int c = 0; c < sums.length; c++) {
+                    if (counts[c] == 0) continue;
+                    Long categoryId = columns.categoryIdOf(c);
+                    CategoryCache.CachedCategory category = names.get(categoryId);
+                    result.add(new AnalyticsBucketDto(categoryId.toString(), category != null ? category.name() : null,
+                            amount(sums[c]), counts[c]));
+                }
+                yield result;
+            }
+            case PAYMENT_METHOD -> {
+                Expense.PaymentMethod[] methods = Expense.PaymentMethod.values();
+                long[] sums = new long[methods.length + 1];
+                long[] counts = new long[sums.length];
+                columns.sumByPaymentMethod(fromDay, toDay, typeCode, sums, counts);
+                List<AnalyticsBucketDto> result = new ArrayList<>();
+                for (int p = 0; p < sums.length; p++) {
+                    if (counts[p] == 0) continue;
+                    String key = p == 0 ? "NONE" : methods[p - 1].name();
+                    result.add(new AnalyticsBucketDto(key, key, amount(sums[p]), counts[p]));
+                }
+                yield result;
+            }
+            case MONTH -> {
+                if (startDate == null || endDate == null) throw new RuntimeException("startDate and endDate are required to group by month");
+                int months = ExpenseColumns.monthIndex(toDay) - ExpenseColumns.monthIndex(fromDay) + 1;
+                if (months > MAX_MONTHS) throw new RuntimeException("Date range may span at most " + MAX_MONTHS + " months");
+                long[] sums = new long[months];
+                long[] counts = new long[months];
+                columns.sumByMonth(fromDay, toDay, typeCode, sums, counts);
+                List<AnalyticsBucketDto> result = new ArrayList<>(months);
+                YearMonth first = YearMonth.from(startDate);
+                for (int m = 0; m < months; m++) {
+                    String key = first.plusMonths(m).toString();
+                    result.add(new AnalyticsBucketDto(key, key, amount(sums[m]), counts[m]));
+                }
+                yield result;
+            }
+        });
+        if (groupBy != GroupBy.MONTH) {
+            buckets.sort(Comparator.comparing(AnalyticsBucketDto::getTotal).reversed());
+            if (limit != null && limit > 0 && buckets.size() > limit) buckets = new ArrayList<>(buckets.subList(0, limit));
+        }
+        return buckets;
+    }
+
+    public List<AnalyticsTopExpenseDto> topExpenses(Long userId, LocalDate startDate, LocalDate endDate, String type, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) throw new RuntimeException("limit must be between 1 and " + MAX_LIMIT);
+        int fromDay = fromDay(startDate);
+        int toDay = toDay(endDate);
+        byte typeCode = typeCode(type);
+        CategoryCache.UserCategories names = categoryCache.forUser(userId);
+        return read(userId, columns -> {
+            int[] rows = new int[limit];
+            int found = columns.topByAmount(fromDay, toDay, typeCode, rows);
+            List<AnalyticsTopExpenseDto> result = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                int row = rows[i];
+                Long categoryId = columns.categoryIdOf(columns.categoryAt(row));
+                CategoryCache.CachedCategory category = names.get(categoryId);
+                result.add(new AnalyticsTopExpenseDto(columns.idAt(row), amount(columns.centsAt(row)),
+                        LocalDate.ofEpochDay(columns.dayAt(row)), categoryId, category != null ? category.name() : null));
+            }
+            return result;
+        });
+    }
+
+    // Only touches users that are already loaded; anyone else picks the change up when first loaded
+    @TransactionalEventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        ExpenseColumns columns = cache.getIfPresent(event.userId());
+        if (columns == null) return;
+        columns.lock.writeLock().lock();
+        try {
+            // A failed load already removed itself from the cache
+            if (!columns.loaded) return;
+            for (ExpensesChangedEvent.Change change : event.changes()) {
+                ExpenseSnapshot after = change.after();
+                if (after != null && after.expenseDate() != null && after.amount() != null) {
+                    columns.upsert(after.id(), cents(after.amount()), (int) after.expenseDate().toEpochDay(),
+                            after.categoryId(), code(after.type()), code(after.paymentMethod()));
+                } else if (change.before() != null) {
+                    columns.remove(change.before().id());
+                }
+            }
+        } finally {
+            columns.lock.writeLock().unlock();
+        }
+        cache.asMap().replace(event.userId(), columns, columns);
+    }
+
+    public void evict(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    private <T> T read(Long userId, Function<ExpenseColumns, T> query) {
+        while (true) {
+            ExpenseColumns columns = columns(userId);
+            columns.lock.readLock().lock();
+            try {
+                if (columns.loaded) return query.apply(columns);
+            } finally {
+                columns.lock.readLock().unlock();
+            }
+        }
+    }
+
+    // The creating thread holds the write lock from inside the cache's compute until the snapshot is loaded,
+    // so readers and change events for this user wait for it rather than seeing a partial column set.
+    // Changes committed while loading are re-applied afterwards; upsert/remove by id make that idempotent.
+    private ExpenseColumns columns(Long userId) {
+        ExpenseColumns[] created = new ExpenseColumns[1];
+        ExpenseColumns columns = cache.get(userId, id -> {
+            ExpenseColumns c = new ExpenseColumns(64);
+            c.lock.writeLock().lock();
+            created[0] = c;
+            return c;
+        });
+        if (created[0] == columns) {
+            load(userId, columns);
+        }
+        return columns;
+    }
+
+    private void load(Long userId, ExpenseColumns columns) {
+        long started = System.nanoTime();
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                // Archived and live rows are merged by id, so every upsert appends instead of shifting the columns
+                List<ExpenseArchive.ArchivedExpense> archived = new ArrayList<>(
+                        archive.read(userId, archive.segments(userId, null, null), null, null));
+                archived.sort(Comparator.comparing(ExpenseArchive.ArchivedExpense::id));
+                int[] next = {0};
+                try (Stream<Object[]> rows = expenseRepository.streamColumnsByUserId(userId)) {
+                    rows.forEach(row -> {
+                        Long id = (Long) row[0];
+                        while (next[0] < archived.size() && archived.get(next[0]).id() < id) {
+                            upsert(columns, archived.get(next[0]++));
+                        }
+                        if (row[1] == null || row[2] == null) return;
+                        columns.upsert(id, cents((BigDecimal) row[1]), (int) ((LocalDate) row[2]).toEpochDay(),
+                                (Long) row[3], code((Expense.ExpenseType) row[4]), code((Expense.PaymentMethod) row[5]));
+                    });
+                }
+                while (next[0] < archived.size()) {
+                    upsert(columns, archived.get(next[0]++));
+                }
+            });
+            columns.loaded = true;
+        } catch (RuntimeException ex) {
+            cache.asMap().remove(userId, columns);
+            throw ex;
+        } finally {
+            columns.lock.writeLock().unlock();
+        }
+        cache.asMap().replace(userId, columns, columns);
+        log.debug("Loaded {} expense rows for user {} into {} bytes of columns in {} ms", columns.rows(), userId,
+                columns.memoryBytes(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static void upsert(ExpenseColumns columns, ExpenseArchive.ArchivedExpense row) {
+        columns.upsert(row.id(), cents(row.amount()), (int) row.expenseDate().toEpochDay(), row.categoryId(),
+                code(row.type()), code(row.paymentMethod()));
+    }
+
+    private static byte typeCode(String type) {
+        return code(type != null ? Expense.ExpenseType.valueOf(type.toUpperCase()) : Expense.ExpenseType.EXPENSE);
+    }
+
+    private static byte code(Enum<?> value) {
+        return (byte) (value != null ? value.ordinal() + 1 : 0);
+    }
+
+    private static int fromDay(LocalDate startDate) {
+        return startDate != null ? (int) startDate.toEpochDay() : Integer.MIN_VALUE;
+    }
+
+    private static int toDay(LocalDate endDate) {
+        return endDate != null ? (int) endDate.toEpochDay() : Integer.MAX_VALUE;
+    }
+
+    static long cents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal amount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
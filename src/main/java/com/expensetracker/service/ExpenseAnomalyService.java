@@ -0,0 +1,230 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseInsightDto;
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.ExpenseInsight;
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.repository.ExpenseCategoryStatsRepository;
+import com.expensetracker.repository.ExpenseInsightRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Scores each new EXPENSE against its category's running statistics (amount mean/variance and day-of-week profile)
+// and records outliers in an insights feed. Statistics persist as exact power sums per category x weekday, written
+// in the same transaction as the expense; the in-memory profile is seeded from those few rows and then moved along
+// by committed changes, so neither scoring nor maintenance ever rescans a user's expenses.
+@Service
+public class ExpenseAnomalyService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    // Spread floor as a fraction of the mean, so a category of identical amounts does not flag every small change
+    private static final double MIN_RELATIVE_SPREAD = 0.1;
+
+    private final ExpenseCategoryStatsRepository statsRepository;
+    private final ExpenseInsightRepository insightRepository;
+    private final CategoryCache categoryCache;
+    private final Cache<Long, SpendingProfile> cache;
+    private final Timer scoreTimer;
+    private final double zThreshold;
+    private final long minSamples;
+    private final double weekdayMinShare;
+    private final long weekdayMinSamples;
+
+    public ExpenseAnomalyService(ExpenseCategoryStatsRepository statsRepository,
+                                 ExpenseInsightRepository insightRepository,
+                                 CategoryCache categoryCache,
+                                 @Value("${anomaly.z-threshold:3.0}") double zThreshold,
+                                 @Value("${anomaly.min-samples:5}") long minSamples,
+                                 @Value("${anomaly.weekday-min-share:0.02}") double weekdayMinShare,
+                                 @Value("${anomaly.weekday-min-samples:20}") long weekdayMinSamples,
+                                 @Value("${anomaly.cache.max-users:10000}") long maxUsers,
+                                 @Value("${anomaly.cache.idle-ttl:PT30M}") Duration idleTtl,
+                                 MeterRegistry meterRegistry) {
+        this.statsRepository = statsRepository;
+        this.insightRepository = insightRepository;
+        this.categoryCache = categoryCache;
+        this.zThreshold = zThreshold;
+        this.minSamples = minSamples;
+        this.weekdayMinShare = weekdayMinShare;
+        this.weekdayMinSamples = weekdayMinSamples;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "spendingProfiles");
+        this.scoreTimer = Timer.builder("expense.anomaly.score")
+                .description("Time to score one new expense against its category statistics")
+                .register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ExpenseInsightDto> list(Long userId, int page, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) throw new RuntimeException("size must be between 1 and " + MAX_PAGE_SIZE);
+        CategoryCache.UserCategories names = categoryCache.forUser(userId);
+        return insightRepository.findByUserIdOrderByIdDesc(userId, PageRequest.of(page, size)).map(i -> {
+            CategoryCache.CachedCategory category = names.get(i.getCategoryId());
+            return new ExpenseInsightDto(i.getId(), i.getKind().name(), i.getExpenseId(), i.getCategoryId(),
+                    category != null ? category.name() : null, i.getAmount(), i.getExpenseDate(), i.getScore(),
+                    i.getMessage(), i.getCreatedAt());
+        });
+    }
+
+    // Runs inside the writing transaction: new expenses are scored against the statistics as they were before
+    // it, then the statistics deltas and any insights commit or roll back together with the expenses
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void recordChanges(ExpensesChangedEvent event) {
+        Long userId = event.userId();
+        // Sorted so concurrent writers lock stats rows in the same order
+        Map<StatsKey, Delta> deltas = new TreeMap<>(Comparator.comparing(StatsKey::categoryId).thenComparing(StatsKey::dayOfWeek));
+        List<Long> stale = new ArrayList<>();
+        List<ExpenseInsight> flagged = new ArrayList<>();
+        SpendingProfile profile = null;
+        SpendingProfile.CategoryStats scratch = null;
+        for (ExpensesChangedEvent.Change change : event.changes()) {
+            ExpenseSnapshot before = tracked(change.before());
+            ExpenseSnapshot after = tracked(change.after());
+            if (change.before() != null && !sameStats(before, after)) stale.add(change.before().id());
+            if (sameStats(before, after)) continue;
+            if (before != null) deltas.computeIfAbsent(StatsKey.of(before), k -> new Delta()).add(before.amount(), -1);
+            if (after != null) deltas.computeIfAbsent(StatsKey.of(after), k -> new Delta()).add(after.amount(), 1);
+            if (change.before() == null && after != null) {
+                if (profile == null) {
+                    profile = cache.get(userId, this::load);
+                    scratch = new SpendingProfile.CategoryStats();
+                }
+                score(profile, scratch, after, flagged);
+            }
+        }
+        if (!stale.isEmpty()) insightRepository.deleteByExpenseIdIn(stale);
+        for (Map.Entry<StatsKey, Delta> entry : deltas.entrySet()) {
+            StatsKey key = entry.getKey();
+            Delta delta = entry.getValue();
+            if (delta.count == 0 && delta.sum.signum() == 0 && delta.sumSq.signum() == 0) continue;
+            statsRepository.applyDelta(userId, key.categoryId(), key.dayOfWeek(), delta.count, delta.sum, delta.sumSq);
+        }
+        if (!flagged.isEmpty()) insightRepository.saveAll(flagged);
+    }
+
+    // Only users with a loaded profile are touched; anyone else is seeded from the committed rows on first use
+    @TransactionalEventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        SpendingProfile profile = cache.getIfPresent(event.userId());
+        if (profile == null) return;
+        for (ExpensesChangedEvent.Change change : event.changes()) {
+            ExpenseSnapshot before = tracked(change.before());
+            ExpenseSnapshot after = tracked(change.after());
+            if (sameStats(before, after)) continue;
+            if (before != null) profile.remove(before.categoryId(), dayOfWeek(before.expenseDate()), before.amount().doubleValue());
+            if (after != null) profile.add(after.categoryId(), dayOfWeek(after.expenseDate()), after.amount().doubleValue());
+        }
+    }
+
+    private void score(SpendingProfile profile, SpendingProfile.CategoryStats stats, ExpenseSnapshot e,
+                       List<ExpenseInsight> flagged) {
+        long started = System.nanoTime();
+        ExpenseInsight amountOutlier = null;
+        ExpenseInsight unusualDay = null;
+        if (profile.read(e.categoryId(), stats)) {
+            double amount = e.amount().doubleValue();
+            if (stats.count >= minSamples) {
+                double spread = Math.max(stats.standardDeviation(), Math.max(Math.abs(stats.mean) * MIN_RELATIVE_SPREAD, 0.01));
+                double z = (amount - stats.mean) / spread;
+                if (z >= zThreshold) {
+                    amountOutlier = insight(e, ExpenseInsight.Kind.AMOUNT_OUTLIER, z, String.format(Locale.ROOT,
+                            "Amount is %.1f standard deviations above this category's average of %.2f over %d expenses",
+                            z, stats.mean, stats.count));
+                }
+            }
+            if (stats.count >= weekdayMinSamples) {
+                int day = dayOfWeek(e.expenseDate());
+                double share = (double) stats.weekdays[day - 1] / stats.count;
+                if (share < weekdayMinShare) {
+                    unusualDay = insight(e, ExpenseInsight.Kind.UNUSUAL_DAY, share, String.format(Locale.ROOT,
+                            "Only %.1f%% of %d expenses in this category fall on a %s", share * 100, stats.count,
+                            e.expenseDate().getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH)));
+                }
+            }
+        }
+        scoreTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (amountOutlier != null) flagged.add(amountOutlier);
+        if (unusualDay != null) flagged.add(unusualDay);
+    }
+
+    // Reads inside the caller's transaction, before its own deltas are applied. A change committed by another
+    // transaction while this loads may be missed or counted twice; the drift is small for scoring purposes and
+    // goes away when the profile is next evicted and reseeded.
+    private SpendingProfile load(Long userId) {
+        SpendingProfile profile = new SpendingProfile();
+        for (Object[] row : statsRepository.findRowsByUserId(userId)) {
+            profile.seed((Long) row[0], (Integer) row[1], (Long) row[2], (BigDecimal) row[3], (BigDecimal) row[4]);
+        }
+        return profile;
+    }
+
+    private static ExpenseInsight insight(ExpenseSnapshot e, ExpenseInsight.Kind kind, double score, String message) {
+        return new ExpenseInsight(null, e.userId(), e.id(), e.categoryId(), kind, score, e.amount(), e.expenseDate(),
+                message, null);
+    }
+
+    // Only EXPENSE rows with an amount and a date feed the statistics
+    private static ExpenseSnapshot tracked(ExpenseSnapshot s) {
+        return s != null && s.type() == Expense.ExpenseType.EXPENSE && s.amount() != null && s.expenseDate() != null
+                && s.categoryId() != null ? s : null;
+    }
+
+    private static boolean sameStats(ExpenseSnapshot before, ExpenseSnapshot after) {
+        if (before == null || after == null) return before == after;
+        return Objects.equals(before.categoryId(), after.categoryId())
+                && before.amount().compareTo(after.amount()) == 0
+                && dayOfWeek(before.expenseDate()) == dayOfWeek(after.expenseDate());
+    }
+
+    // 1 = Sunday .. 7 = Saturday, matching MySQL DAYOFWEEK used by the V4 backfill
+    static int dayOfWeek(LocalDate date) {
+        return date.getDayOfWeek().getValue() % 7 + 1;
+    }
+
+    private record StatsKey(Long categoryId, Integer dayOfWeek) {
+        static StatsKey of(ExpenseSnapshot s) {
+            return new StatsKey(s.categoryId(), ExpenseAnomalyService.dayOfWeek(s.expenseDate()));
+        }
+    }
+
+    private static final class Delta {
+        long count;
+        BigDecimal sum = BigDecimal.ZERO;
+        BigDecimal sumSq = BigDecimal.ZERO;
+
+        void add(BigDecimal amount, int sign) {
+            count += sign;
+            BigDecimal square = amount.multiply(amount);
+            sum = sign < 0 ? sum.subtract(amount) : sum.add(amount);
+            sumSq = sign < 0 ? sumSq.subtract(square) : sumSq.add(square);
+        }
+    }
+}
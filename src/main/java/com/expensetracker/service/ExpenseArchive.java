@@ -0,0 +1,621 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseDto;
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.ExpenseArchiveSegment;
+import com.expensetracker.entity.ExpenseArchiveSegmentGroup;
+import com.expensetracker.repository.ExpenseArchiveSegmentGroupRepository;
+import com.expensetracker.repository.ExpenseArchiveSegmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Cold store for expenses dated before the archive cutoff. Each segment is one gzip file of a user's rows, written
+// once and never changed; expense_archive_segments indexes the files by user and date range and is the only way a
+// file becomes visible. Nothing dated on or after cutoff(today) is ever archived, so reads that start there skip the
+// archive without a query. Rows inside a file are sorted by (expenseDate, id), so date-ordered readers can merge
+// segments as streams.
+@Service
+@Slf4j
+public class ExpenseArchive {
+
+    private static final int MAGIC = 0x45585041;
+    // 1: rows in table order; 2: rows sorted by (expenseDate, id)
+    private static final int VERSION = 2;
+    private static final int STREAM_BUFFER = 8 * 1024;
+    // Open range ends, inside MySQL's DATE range
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    public record ArchivedExpense(Long id, String title, String description, BigDecimal amount, LocalDate expenseDate,
+                                  Expense.ExpenseType type, Expense.PaymentMethod paymentMethod, String notes,
+                                  String receiptUrl, Boolean isRecurring, Expense.RecurringFrequency recurringFrequency,
+                                  Long recurrenceSourceId, Long categoryId, String categoryName) {
+
+        static ArchivedExpense of(Expense e, String categoryName) {
+            return new ArchivedExpense(e.getId(), e.getTitle(), e.getDescription(), e.getAmount(), e.getExpenseDate(),
+                    e.getType(), e.getPaymentMethod(), e.getNotes(), e.getReceiptUrl(), e.getIsRecurring(),
+                    e.getRecurringFrequency(), e.getRecurrenceSourceId(), e.getCategory().getId(), categoryName);
+        }
+
+        public ExpenseDto toDto() {
+            return new ExpenseDto(id, title, description, amount, expenseDate,
+                    type != null ? type.name() : null,
+                    paymentMethod != null ? paymentMethod.name() : null,
+                    notes, receiptUrl, isRecurring,
+                    recurringFrequency != null ? recurringFrequency.name() : null,
+                    categoryId, categoryName);
+        }
+    }
+
+    // The listing filters other than the date range, for archived rows and for segment summaries
+    public record Filter(Long categoryId, Expense.ExpenseType type, BigDecimal minAmount, BigDecimal maxAmount)
+            implements Predicate<ArchivedExpense> {
+
+        @Override
+        public boolean test(ArchivedExpense row) {
+            return matches(row.type(), row.categoryId())
+                    && (minAmount == null || row.amount().compareTo(minAmount) >= 0)
+                    && (maxAmount == null || row.amount().compareTo(maxAmount) <= 0);
+        }
+
+        boolean matches(Expense.ExpenseType rowType, Long rowCategoryId) {
+            return (categoryId == null || categoryId.equals(rowCategoryId)) && (type == null || type == rowType);
+        }
+
+        // Every amount in [min, max] passes
+        boolean covers(BigDecimal min, BigDecimal max) {
+            return (minAmount == null || min.compareTo(minAmount) >= 0) && (maxAmount == null || max.compareTo(maxAmount) <= 0);
+        }
+
+        // No amount in [min, max] passes
+        boolean excludes(BigDecimal min, BigDecimal max) {
+            return (minAmount != null && max.compareTo(minAmount) < 0) || (maxAmount != null && min.compareTo(maxAmount) > 0);
+        }
+    }
+
+    // What the segment index says about one segment's rows matching a listing: exact counts need no file read;
+    // otherwise rows is an upper bound. amountMin/amountMax bound the matching amounts when summaries were loaded.
+    public record Estimate(ExpenseArchiveSegment segment, long rows, boolean exact, BigDecimal amountMin, BigDecimal amountMax) {
+    }
+
+    // Archived rows merged into a listing's first rows; archivedTotal counts every archived row matching the listing
+    public record Merge(List<ExpenseDto> rows, long archivedTotal) {
+    }
+
+    static final Comparator<ArchivedExpense> ROW_ORDER = Comparator.comparing(ArchivedExpense::expenseDate)
+            .thenComparing(ArchivedExpense::id);
+
+    private final ExpenseArchiveSegmentRepository segmentRepository;
+    private final ExpenseArchiveSegmentGroupRepository groupRepository;
+    private final CategoryCache categoryCache;
+    private final Path directory;
+    private final Period horizon;
+    private final int maxSegmentReads;
+    private final int maxMergeWindow;
+    private final Counter segmentReads;
+
+    public ExpenseArchive(ExpenseArchiveSegmentRepository segmentRepository,
+                          ExpenseArchiveSegmentGroupRepository groupRepository,
+                          CategoryCache categoryCache,
+                          @Value("${archive.directory:data/expense-archive}") Path directory,
+                          @Value("${archive.horizon:P3Y}") Period horizon,
+                          @Value("${archive.max-segment-reads:64}") int maxSegmentReads,
+                          @Value("${archive.max-merge-window:10000}") int maxMergeWindow,
+                          MeterRegistry meterRegistry) {
+        this.segmentRepository = segmentRepository;
+        this.groupRepository = groupRepository;
+        this.categoryCache = categoryCache;
+        this.directory = directory;
+        this.horizon = horizon;
+        this.maxSegmentReads = maxSegmentReads;
+        this.maxMergeWindow = maxMergeWindow;
+        this.segmentReads = Counter.builder("expense.archive.segment.reads")
+                .description("Archive segment files read to answer a query")
+                .register(meterRegistry);
+    }
+
+    // First day that stays live: January 1st of the year of (today - horizon), so whole years (and their MySQL
+    // partitions) are archived together
+    public LocalDate cutoff(LocalDate today) {
+        return LocalDate.of(today.minus(horizon).getYear(), 1, 1);
+    }
+
+    public boolean reaches(LocalDate startDate) {
+        return startDate == null || startDate.isBefore(cutoff(LocalDate.now()));
+    }
+
+    // The user's segments overlapping [startDate, endDate], either end open when null
+    public List<ExpenseArchiveSegment> segments(Long userId, LocalDate startDate, LocalDate endDate) {
+        if (!reaches(startDate)) return List.of();
+        return segmentRepository.findOverlapping(userId, startDate != null ? startDate : MIN_DATE,
+                endDate != null ? endDate : MAX_DATE);
+    }
+
+    // Merging archived rows into a page needs the database's first offset + size rows in memory
+    public void requireMergeWindow(long window) {
+        if (window > maxMergeWindow) {
+            throw new RuntimeException("Pages past row " + maxMergeWindow + " of listings that include archived expenses "
+                    + "are not supported; use cursor pagination or a startDate after " + cutoff(LocalDate.now()).minusDays(1));
+        }
+    }
+
+    // Summaries of the segments that may hold rows matching filter (null: none) within [startDate, endDate]. Group
+    // summaries are loaded only when the filter or amountBounds needs them; otherwise a segment entirely inside the
+    // range counts exactly its row_count.
+    public List<Estimate> estimate(List<ExpenseArchiveSegment> segments, LocalDate startDate, LocalDate endDate,
+                                   Filter filter, boolean amountBounds) {
+        Map<Long, List<ExpenseArchiveSegmentGroup>> groups = filter == null && !amountBounds ? Map.of()
+                : groupRepository.findBySegmentIdIn(segments.stream().map(ExpenseArchiveSegment::getId).toList()).stream()
+                .collect(Collectors.groupingBy(ExpenseArchiveSegmentGroup::getSegmentId));
+        List<Estimate> estimates = new ArrayList<>(segments.size());
+        for (ExpenseArchiveSegment segment : segments) {
+            boolean within = within(segment, startDate, endDate);
+            List<ExpenseArchiveSegmentGroup> summary = groups.get(segment.getId());
+            if (summary == null) {
+                estimates.add(new Estimate(segment, segment.getRowCount(), within && filter == null, null, null));
+                continue;
+            }
+            long certain = 0;
+            long possible = 0;
+            boolean exact = within;
+            BigDecimal min = null;
+            BigDecimal max = null;
+            for (ExpenseArchiveSegmentGroup g : summary) {
+                if (filter != null && (!filter.matches(g.getType(), g.getCategoryId()) || filter.excludes(g.getAmountMin(), g.getAmountMax()))) {
+                    continue;
+                }
+                possible += g.getRowCount();
+                if (filter == null || filter.covers(g.getAmountMin(), g.getAmountMax())) certain += g.getRowCount();
+                else exact = false;
+                min = min == null || g.getAmountMin().compareTo(min) < 0 ? g.getAmountMin() : min;
+                max = max == null || g.getAmountMax().compareTo(max) > 0 ? g.getAmountMax() : max;
+            }
+            if (possible > 0) estimates.add(new Estimate(segment, exact ? certain : possible, exact, min, max));
+        }
+        return estimates;
+    }
+
+    // Merges archived rows into rows, the database's first `window` rows of a listing in `order` (led by `lead`).
+    // Segments whose matching count is inexact are read when needTotal asks for it. The others are visited best-first
+    // by the bound the index gives on the leading sort key (date range for expenseDate, amount range for amount),
+    // and reading stops once the window is full and the next segment cannot reach into it. Other sort keys give no
+    // bound, so every segment is read. More than archive.max-segment-reads reads fail the request.
+    public Merge merge(Long userId, List<Estimate> estimates, LocalDate startDate, LocalDate endDate,
+                       Predicate<ArchivedExpense> filter, List<ExpenseDto> rows, int window,
+                       Sort.Order lead, Comparator<ExpenseDto> order, boolean needTotal) {
+        Function<Estimate, Comparable<?>> bound = bound(lead);
+        Function<ExpenseDto, Comparable<?>> key = key(lead);
+        List<Estimate> always = new ArrayList<>();
+        List<Estimate> ranked = new ArrayList<>();
+        long total = 0;
+        for (Estimate e : estimates) {
+            if (e.exact()) total += e.rows();
+            if ((needTotal && !e.exact()) || bound.apply(e) == null) always.add(e);
+            else ranked.add(e);
+        }
+        Comparator<Estimate> best = Comparator.comparing(e -> comparable(bound.apply(e)));
+        if (!ranked.isEmpty()) ranked.sort(lead.isAscending() ? best : best.reversed());
+        if (ranked.isEmpty() && always.size() > maxSegmentReads) throw tooManyReads(always.size(), lead);
+
+        List<ExpenseDto> merged = new ArrayList<>(rows);
+        int reads = 0;
+        for (Estimate e : always) {
+            if (++reads > maxSegmentReads) throw tooManyReads(always.size() + ranked.size(), lead);
+            total += mergeSegment(userId, e, startDate, endDate, filter, merged, window, order);
+        }
+        for (Estimate e : ranked) {
+            if (merged.size() >= window && cannotReach(bound.apply(e), key.apply(merged.get(window - 1)), lead.isAscending())) {
+                break;
+            }
+            if (++reads > maxSegmentReads) throw tooManyReads(always.size() + ranked.size(), lead);
+            total += mergeSegment(userId, e, startDate, endDate, filter, merged, window, order);
+        }
+        return new Merge(merged, total);
+    }
+
+    // Adds the segment's matching rows and trims back to the window; returns the rows to add to an inexact total
+    private long mergeSegment(Long userId, Estimate e, LocalDate startDate, LocalDate endDate, Predicate<ArchivedExpense> filter,
+                              List<ExpenseDto> merged, int window, Comparator<ExpenseDto> order) {
+        long counted = 0;
+        for (ArchivedExpense row : read(userId, List.of(e.segment()), startDate, endDate)) {
+            if (filter != null && !filter.test(row)) continue;
+            merged.add(row.toDto());
+            if (!e.exact()) counted++;
+        }
+        merged.sort(order);
+        if (merged.size() > window) merged.subList(window, merged.size()).clear();
+        return counted;
+    }
+
+    private RuntimeException tooManyReads(int segments, Sort.Order lead) {
+        return new RuntimeException("This listing would read " + segments + " archive segments (limit " + maxSegmentReads
+                + ") to sort by " + (lead != null ? lead.getProperty() : "nothing")
+                + "; sort by expenseDate or amount, or narrow startDate/endDate");
+    }
+
+    // Best value of the leading sort key any row of the segment can have, or null when the index gives no bound
+    private static Function<Estimate, Comparable<?>> bound(Sort.Order lead) {
+        if (lead == null) return e -> null;
+        boolean asc = lead.isAscending();
+        return switch (lead.getProperty()) {
+            case "expenseDate" -> e -> asc ? e.segment().getFirstDate() : e.segment().getLastDate();
+            case "amount" -> e -> asc ? e.amountMin() : e.amountMax();
+            default -> e -> null;
+        };
+    }
+
+    private static Function<ExpenseDto, Comparable<?>> key(Sort.Order lead) {
+        if (lead == null) return dto -> null;
+        return switch (lead.getProperty()) {
+            case "expenseDate" -> ExpenseDto::getExpenseDate;
+            case "amount" -> ExpenseDto::getAmount;
+            default -> dto -> null;
+        };
+    }
+
+    // Strictly worse than the window's last row: ties are left to the later sort keys, so they are read
+    private static boolean cannotReach(Comparable<?> segmentBest, Comparable<?> last, boolean ascending) {
+        if (last == null) return false;
+        int c = comparable(segmentBest).compareTo(last);
+        return ascending ? c > 0 : c < 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Comparable<?> value) {
+        return (Comparable<Object>) value;
+    }
+
+    // Rows of the given segments dated within [startDate, endDate], in no particular order; category names are the
+    // current ones, falling back to the name at archive time
+    public List<ArchivedExpense> read(Long userId, List<ExpenseArchiveSegment> segments, LocalDate startDate, LocalDate endDate) {
+        if (segments.isEmpty()) return List.of();
+        CategoryCache.UserCategories categories = categoryCache.forUser(userId);
+        List<ArchivedExpense> rows = new ArrayList<>();
+        for (ExpenseArchiveSegment segment : segments) {
+            readSegment(segment, row -> {
+                if (startDate != null && row.expenseDate().isBefore(startDate)) return;
+                if (endDate != null && row.expenseDate().isAfter(endDate)) return;
+                rows.add(withCurrentName(row, categories));
+            });
+        }
+        return rows;
+    }
+
+    // Rows of the given segments dated within [startDate, endDate] and matching filter (null: all), in (expenseDate,
+    // id) order, without holding them: a k-way merge over the sorted files that opens a segment only once the merge
+    // reaches its first date, so at most the segments whose date ranges overlap are open at the same time
+    public SortedRows stream(Long userId, List<ExpenseArchiveSegment> segments, LocalDate startDate, LocalDate endDate,
+                             Predicate<ArchivedExpense> filter) {
+        List<ExpenseArchiveSegment> byFirstDate = new ArrayList<>(segments);
+        byFirstDate.sort(Comparator.comparing(ExpenseArchiveSegment::getFirstDate));
+        return new SortedRows(categoryCache.forUser(userId), byFirstDate, startDate, endDate, filter);
+    }
+
+    public final class SortedRows implements Iterator<ArchivedExpense>, Closeable {
+
+        private final CategoryCache.UserCategories categories;
+        private final Deque<ExpenseArchiveSegment> pending;
+        private final PriorityQueue<SegmentReader> open = new PriorityQueue<>(Comparator.comparing(r -> r.head, ROW_ORDER));
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final Predicate<ArchivedExpense> filter;
+
+        private SortedRows(CategoryCache.UserCategories categories, List<ExpenseArchiveSegment> byFirstDate,
+                           LocalDate startDate, LocalDate endDate, Predicate<ArchivedExpense> filter) {
+            this.categories = categories;
+            this.pending = new ArrayDeque<>(byFirstDate);
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            // A pending segment can only hold rows sorting before the current head if it starts on or before its date
+            while (!pending.isEmpty() && (open.isEmpty()
+                    || !pending.peekFirst().getFirstDate().isAfter(open.peek().head.expenseDate()))) {
+                SegmentReader reader = new SegmentReader(pending.pollFirst(), startDate, endDate, filter);
+                if (reader.advance()) open.add(reader);
+            }
+            return !open.isEmpty();
+        }
+
+        @Override
+        public ArchivedExpense next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            SegmentReader reader = open.poll();
+            ArchivedExpense row = reader.head;
+            if (reader.advance()) open.add(reader);
+            return withCurrentName(row, categories);
+        }
+
+        @Override
+        public void close() {
+            open.forEach(SegmentReader::close);
+            open.clear();
+            pending.clear();
+        }
+    }
+
+    // Forward-only cursor over one segment file; closes itself once exhausted or past endDate. Version 1 files are
+    // unsorted, so their rows (one archive batch at most) are read and sorted up front.
+    private final class SegmentReader {
+
+        private final ExpenseArchiveSegment segment;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final Predicate<ArchivedExpense> filter;
+        private final DataInputStream in;
+        private int remaining;
+        private Iterator<ArchivedExpense> sorted;
+        ArchivedExpense head;
+
+        SegmentReader(ExpenseArchiveSegment segment, LocalDate startDate, LocalDate endDate, Predicate<ArchivedExpense> filter) {
+            this.segment = segment;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.filter = filter;
+            this.in = openSegment(segment, STREAM_BUFFER);
+            try {
+                Header header = readHeader(in, segment);
+                this.remaining = header.rows();
+                if (header.version() == 1) {
+                    List<ArchivedExpense> rows = new ArrayList<>(remaining);
+                    for (; remaining > 0; remaining--) rows.add(read(in));
+                    rows.sort(ROW_ORDER);
+                    sorted = rows.iterator();
+                }
+            } catch (IOException ex) {
+                close();
+                throw failedRead(segment, ex);
+            } catch (RuntimeException ex) {
+                close();
+                throw ex;
+            }
+        }
+
+        boolean advance() {
+            try {
+                while (sorted != null ? sorted.hasNext() : remaining > 0) {
+                    ArchivedExpense row;
+                    if (sorted != null) {
+                        row = sorted.next();
+                    } else {
+                        remaining--;
+                        row = read(in);
+                    }
+                    if (endDate != null && row.expenseDate().isAfter(endDate)) break;
+                    if (startDate != null && row.expenseDate().isBefore(startDate)) continue;
+                    if (filter != null && !filter.test(row)) continue;
+                    head = row;
+                    return true;
+                }
+            } catch (IOException ex) {
+                close();
+                throw failedRead(segment, ex);
+            }
+            close();
+            return false;
+        }
+
+        void close() {
+            try {
+                in.close();
+            } catch (IOException ex) {
+                log.warn("Could not close archive segment {}", segment.getFileName(), ex);
+            }
+        }
+    }
+
+    private static ArchivedExpense withCurrentName(ArchivedExpense row, CategoryCache.UserCategories categories) {
+        CategoryCache.CachedCategory category = categories.get(row.categoryId());
+        return category == null || category.name().equals(row.categoryName()) ? row : new ArchivedExpense(
+                row.id(), row.title(), row.description(), row.amount(), row.expenseDate(), row.type(),
+                row.paymentMethod(), row.notes(), row.receiptUrl(), row.isRecurring(), row.recurringFrequency(),
+                row.recurrenceSourceId(), row.categoryId(), category.name());
+    }
+
+    // Latest archived occurrence per recurring template, for templates whose schedule is re-derived
+    public Map<Long, LocalDate> lastOccurrenceDates(Long userId, Collection<Long> templateIds) {
+        Map<Long, LocalDate> last = new HashMap<>();
+        for (ArchivedExpense row : read(userId, segments(userId, null, null), null, null)) {
+            if (row.recurrenceSourceId() != null && templateIds.contains(row.recurrenceSourceId())) {
+                last.merge(row.recurrenceSourceId(), row.expenseDate(), (a, b) -> a.isAfter(b) ? a : b);
+            }
+        }
+        return last;
+    }
+
+    // Whether every row of the segment falls within the range, so its counts need no file read
+    private static boolean within(ExpenseArchiveSegment segment, LocalDate startDate, LocalDate endDate) {
+        return (startDate == null || !segment.getFirstDate().isBefore(startDate))
+                && (endDate == null || !segment.getLastDate().isAfter(endDate));
+    }
+
+    // Writes one user's rows as a new segment and records it in the caller's transaction, which also deletes the
+    // rows; the file is synced before the rename, and removed again if that transaction does not commit
+    public ExpenseArchiveSegment append(Long userId, List<ArchivedExpense> rows) {
+        rows = new ArrayList<>(rows);
+        rows.sort(ROW_ORDER);
+        String fileName = userId + "/" + UUID.randomUUID() + ".seg.gz";
+        Path file = directory.resolve(fileName);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (FileOutputStream fos = new FileOutputStream(tmp.toFile())) {
+                GZIPOutputStream gzip = new GZIPOutputStream(fos, 64 * 1024);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, 64 * 1024));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(rows.size());
+                for (ArchivedExpense row : rows) {
+                    write(out, row);
+                }
+                out.flush();
+                gzip.finish();
+                fos.getFD().sync();
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            deleteQuietly(tmp);
+            throw new RuntimeException("Could not write archive segment " + fileName, ex);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) deleteQuietly(file);
+                }
+            });
+        }
+        ExpenseArchiveSegment segment = segmentRepository.save(new ExpenseArchiveSegment(null, userId, fileName,
+                rows.get(0).expenseDate(), rows.get(rows.size() - 1).expenseDate(), rows.size(), null));
+        Map<List<Object>, ExpenseArchiveSegmentGroup> groups = new HashMap<>();
+        for (ArchivedExpense row : rows) {
+            groups.merge(Arrays.asList(row.type(), row.categoryId()),
+                    new ExpenseArchiveSegmentGroup(null, segment.getId(), row.type(), row.categoryId(), 1, row.amount(), row.amount()),
+                    (g, one) -> {
+                        g.setRowCount(g.getRowCount() + 1);
+                        if (one.getAmountMin().compareTo(g.getAmountMin()) < 0) g.setAmountMin(one.getAmountMin());
+                        if (one.getAmountMax().compareTo(g.getAmountMax()) > 0) g.setAmountMax(one.getAmountMax());
+                        return g;
+                    });
+        }
+        groupRepository.saveAll(groups.values());
+        return segment;
+    }
+
+    private void readSegment(ExpenseArchiveSegment segment, Consumer<ArchivedExpense> consumer) {
+        try (DataInputStream in = openSegment(segment, 64 * 1024)) {
+            int rows = readHeader(in, segment).rows();
+            for (int i = 0; i < rows; i++) {
+                consumer.accept(read(in));
+            }
+        } catch (IOException ex) {
+            throw failedRead(segment, ex);
+        }
+    }
+
+    private DataInputStream openSegment(ExpenseArchiveSegment segment, int bufferSize) {
+        segmentReads.increment();
+        try {
+            return new DataInputStream(new BufferedInputStream(
+                    new GZIPInputStream(Files.newInputStream(directory.resolve(segment.getFileName())), bufferSize), bufferSize));
+        } catch (IOException ex) {
+            throw failedRead(segment, ex);
+        }
+    }
+
+    private record Header(int version, int rows) {
+    }
+
+    private static Header readHeader(DataInputStream in, ExpenseArchiveSegment segment) throws IOException {
+        if (in.readInt() != MAGIC) throw new RuntimeException("Not an archive segment: " + segment.getFileName());
+        int version = in.readInt();
+        if (version < 1 || version > VERSION) {
+            throw new RuntimeException("Unsupported archive segment version " + version + ": " + segment.getFileName());
+        }
+        return new Header(version, in.readInt());
+    }
+
+    private static RuntimeException failedRead(ExpenseArchiveSegment segment, IOException ex) {
+        return new RuntimeException("Could not read archive segment " + segment.getFileName(), ex);
+    }
+
+    // Fixed-width fields first, then the nullable strings; enums as ordinal + 1 (0 for null)
+    private static void write(DataOutputStream out, ArchivedExpense row) throws IOException {
+        out.writeLong(row.id());
+        out.writeInt((int) row.expenseDate().toEpochDay());
+        out.writeLong(ExpenseAnalyticsService.cents(row.amount()));
+        out.writeLong(row.categoryId());
+        out.writeLong(row.recurrenceSourceId() != null ? row.recurrenceSourceId() : 0);
+        out.writeByte(code(row.type()));
+        out.writeByte(code(row.paymentMethod()));
+        out.writeByte(code(row.recurringFrequency()));
+        out.writeByte(row.isRecurring() == null ? 0 : row.isRecurring() ? 2 : 1);
+        writeString(out, row.title());
+        writeString(out, row.description());
+        writeString(out, row.notes());
+        writeString(out, row.receiptUrl());
+        writeString(out, row.categoryName());
+    }
+
+    private static ArchivedExpense read(DataInputStream in) throws IOException {
+        long id = in.readLong();
+        LocalDate date = LocalDate.ofEpochDay(in.readInt());
+        BigDecimal amount = ExpenseAnalyticsService.amount(in.readLong());
+        long categoryId = in.readLong();
+        long sourceId = in.readLong();
+        Expense.ExpenseType type = decode(Expense.ExpenseType.values(), in.readByte());
+        Expense.PaymentMethod paymentMethod = decode(Expense.PaymentMethod.values(), in.readByte());
+        Expense.RecurringFrequency frequency = decode(Expense.RecurringFrequency.values(), in.readByte());
+        byte recurring = in.readByte();
+        return new ArchivedExpense(id, readString(in), readString(in), amount, date, type, paymentMethod,
+                readString(in), readString(in), recurring == 0 ? null : recurring == 2, frequency,
+                sourceId != 0 ? sourceId : null, categoryId, readString(in));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static byte code(Enum<?> value) {
+        return (byte) (value != null ? value.ordinal() + 1 : 0);
+    }
+
+    private static <E extends Enum<E>> E decode(E[] values, byte code) {
+        return code == 0 ? null : values[code - 1];
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete archive file {}", file, ex);
+        }
+    }
+}
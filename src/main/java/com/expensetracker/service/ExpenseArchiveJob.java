@@ -0,0 +1,136 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Expense;
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesArchivedEvent;
+import com.expensetracker.repository.ExpenseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Moves expenses dated before the archive cutoff (ExpenseArchive.cutoff) out of the expenses table into their
+// owner's cold segments. Users are walked in keyset chunks; each batch of a user's rows is one transaction that locks
+// the rows, writes and records a segment and deletes the rows, so a rerun simply continues with what is left.
+// Rollups, category statistics and insights keep counting archived rows and readers merge the segments back in, so
+// no change events are published; only the text index, which covers live rows alone, is told (ExpensesArchivedEvent).
+// Recurring templates stay live; their generated occurrences are archived.
+@Service
+@Slf4j
+public class ExpenseArchiveJob {
+
+    private static final int USER_CHUNK = 500;
+
+    public record Result(long users, long archived, long segments, long failedUsers, long durationMs) {
+    }
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseArchive archive;
+    private final CategoryCache categoryCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Timer durationTimer;
+    private final Counter archivedCounter;
+    private final Counter failedUsersCounter;
+
+    public ExpenseArchiveJob(ExpenseRepository expenseRepository,
+                             ExpenseArchive archive,
+                             CategoryCache categoryCache,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${archive.batch-size:5000}") int batchSize,
+                             MeterRegistry meterRegistry) {
+        this.expenseRepository = expenseRepository;
+        this.archive = archive;
+        this.categoryCache = categoryCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.durationTimer = Timer.builder("expense.archive.job.duration")
+                .description("Wall time of an expense archive run")
+                .register(meterRegistry);
+        this.archivedCounter = Counter.builder("expense.archive.rows")
+                .description("Expenses moved from the expenses table to archive segments")
+                .register(meterRegistry);
+        this.failedUsersCounter = Counter.builder("expense.archive.failed.users")
+                .description("Users whose archiving failed; retried on the next run")
+                .register(meterRegistry);
+    }
+
+    // archive.cron=- disables the schedule
+    @Scheduled(cron = "${archive.cron:0 0 3 * * *}")
+    public void runNightly() {
+        run(LocalDate.now());
+    }
+
+    public Result run(LocalDate today) {
+        if (!running.compareAndSet(false, true)) throw new RuntimeException("Expense archive job is already running");
+        LocalDate cutoff = archive.cutoff(today);
+        long started = System.nanoTime();
+        long users = 0;
+        long archived = 0;
+        long segments = 0;
+        long failed = 0;
+        try {
+            long afterUserId = 0;
+            while (true) {
+                List<Long> userIds = expenseRepository.findUserIdsWithArchivable(cutoff, afterUserId, PageRequest.of(0, USER_CHUNK));
+                if (userIds.isEmpty()) break;
+                for (Long userId : userIds) {
+                    try {
+                        int moved;
+                        do {
+                            moved = archiveBatch(userId, cutoff);
+                            archived += moved;
+                            if (moved > 0) segments++;
+                        } while (moved == batchSize);
+                        users++;
+                    } catch (RuntimeException ex) {
+                        failed++;
+                        log.warn("Archiving expenses of user {} failed", userId, ex);
+                    }
+                }
+                afterUserId = userIds.get(userIds.size() - 1);
+            }
+        } finally {
+            durationTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            archivedCounter.increment(archived);
+            failedUsersCounter.increment(failed);
+            running.set(false);
+        }
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Expense archive job moved {} expenses dated before {} of {} users into {} segments ({} failed) in {} ms",
+                archived, cutoff, users, segments, failed, durationMs);
+        return new Result(users, archived, segments, failed, durationMs);
+    }
+
+    private int archiveBatch(Long userId, LocalDate cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Expense> rows = expenseRepository.findArchivable(userId, cutoff, PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) return 0;
+            CategoryCache.UserCategories categories = categoryCache.forUser(userId);
+            archive.append(userId, rows.stream().map(e -> {
+                CategoryCache.CachedCategory category = categories.get(e.getCategory().getId());
+                return ExpenseArchive.ArchivedExpense.of(e, category != null ? category.name() : null);
+            }).toList());
+            expenseRepository.deleteAllByIdInBatch(rows.stream().map(Expense::getId).toList());
+            eventPublisher.publishEvent(new ExpensesArchivedEvent(userId, rows.stream().map(ExpenseSnapshot::of).toList()));
+            return rows.size();
+        });
+        return moved != null ? moved : 0;
+    }
+}
@@ -0,0 +1,192 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseBatchOperationDto;
+import com.expensetracker.dto.ExpenseBatchResultDto;
+import com.expensetracker.dto.ExpenseDto;
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.User;
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Applies many create/update/delete operations in one transaction with set-based loading and a single flush
+@Service
+public class ExpenseBatchService {
+
+    public enum Op { CREATE, UPDATE, DELETE }
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final ExpenseRollupService rollupService;
+    private final CategoryCache categoryCache;
+    private final ExpenseCategorizationService categorizationService;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxOperations;
+
+    public ExpenseBatchService(ExpenseRepository expenseRepository,
+                               CategoryRepository categoryRepository,
+                               UserRepository userRepository,
+                               ExpenseRollupService rollupService,
+                               CategoryCache categoryCache,
+                               ExpenseCategorizationService categorizationService,
+                               Validator validator,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${expense.batch.max-operations:1000}") int maxOperations) {
+        this.expenseRepository = expenseRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.rollupService = rollupService;
+        this.categoryCache = categoryCache;
+        this.categorizationService = categorizationService;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.maxOperations = maxOperations;
+    }
+
+    // Invalid operations are reported in place and skipped; the rest commit together
+    @Transactional
+    public List<ExpenseBatchResultDto> execute(Long userId, List<ExpenseBatchOperationDto> operations) {
+        if (operations == null || operations.isEmpty()) throw new RuntimeException("At least one operation is required");
+        if (operations.size() > maxOperations) throw new RuntimeException("A batch may contain at most " + maxOperations + " operations");
+        if (!userRepository.existsById(userId)) throw new RuntimeException("User not found");
+        User user = userRepository.getReferenceById(userId);
+        CategoryCache.UserCategories categories = categoryCache.forUser(userId);
+
+        Set<Long> expenseIds = new HashSet<>();
+        for (ExpenseBatchOperationDto op : operations) {
+            if (op != null && op.getId() != null) expenseIds.add(op.getId());
+        }
+        Map<Long, Expense> expenses = expenseIds.isEmpty() ? new HashMap<>()
+                : expenseRepository.findAllByUserIdAndIdIn(userId, expenseIds).stream()
+                        .collect(Collectors.toMap(Expense::getId, Function.identity()));
+
+        List<ExpenseBatchResultDto> results = new ArrayList<>(operations.size());
+        // Identity-based: Lombok equals/hashCode on entities depend on mutable fields and lazy associations
+        Set<Expense> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<Long, ExpenseRollupService.Contribution> original = new HashMap<>();
+        Map<Long, ExpenseSnapshot> originalSnapshots = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            ExpenseBatchOperationDto op = operations.get(i);
+            ExpenseBatchResultDto result = new ExpenseBatchResultDto(i, op != null ? op.getOp() : null,
+                    op != null ? op.getId() : null, "OK", null, null);
+            try {
+                if (op == null || op.getOp() == null) throw new RuntimeException("Operation is required");
+                switch (Op.valueOf(op.getOp().toUpperCase())) {
+                    case CREATE -> {
+                        ExpenseDto dto = requireExpense(op);
+                        validate(dto);
+                        ExpenseService.validateEnums(dto);
+                        Expense e = ExpenseService.newExpense(dto, user,
+                                categoryRepository.getReferenceById(categories.require(
+                                        categorizationService.resolveCategoryId(userId, categories, dto)).id()));
+                        expenseRepository.save(e);
+                        touched.add(e);
+                        result.setId(e.getId());
+                    }
+                    case UPDATE -> {
+                        ExpenseDto dto = requireExpense(op);
+                        validate(dto);
+                        ExpenseService.validateEnums(dto);
+                        Expense e = requireExpense(expenses, op.getId());
+                        CategoryCache.CachedCategory category = categories.require(
+                                dto.getCategoryId() != null ? dto.getCategoryId() : e.getCategory().getId());
+                        original.putIfAbsent(e.getId(), rollupService.contributionOf(e));
+                        originalSnapshots.putIfAbsent(e.getId(), ExpenseSnapshot.of(e));
+                        ExpenseService.applyUpdate(e, dto);
+                        if (!category.id().equals(e.getCategory().getId())) {
+                            e.setCategory(categoryRepository.getReferenceById(category.id()));
+                        }
+                        touched.add(e);
+                    }
+                    case DELETE -> {
+                        Expense e = requireExpense(expenses, op.getId());
+                        original.putIfAbsent(e.getId(), rollupService.contributionOf(e));
+                        originalSnapshots.putIfAbsent(e.getId(), ExpenseSnapshot.of(e));
+                        expenseRepository.delete(e);
+                        expenses.remove(op.getId());
+                        touched.remove(e);
+                    }
+                }
+            } catch (IllegalArgumentException ex) {
+                result.setStatus("ERROR");
+                result.setError("Invalid value: " + ex.getMessage());
+            } catch (RuntimeException ex) {
+                result.setStatus("ERROR");
+                result.setError(ex.getMessage());
+            }
+            results.add(result);
+        }
+
+        // One flush lets Hibernate send the inserts/updates/deletes as JDBC batches
+        expenseRepository.flush();
+        rollupService.applyChanges(new ArrayList<>(original.values()),
+                touched.stream().map(rollupService::contributionOf).toList());
+        publishChanges(userId, originalSnapshots, touched);
+
+        Map<Long, ExpenseDto> dtos = new HashMap<>();
+        for (Expense e : touched) {
+            dtos.put(e.getId(), ExpenseService.toDto(e, categories.require(e.getCategory().getId()).name()));
+        }
+        for (ExpenseBatchResultDto result : results) {
+            if ("OK".equals(result.getStatus()) && !"DELETE".equalsIgnoreCase(result.getOp())) {
+                result.setExpense(dtos.get(result.getId()));
+            }
+        }
+        return results;
+    }
+
+    private void publishChanges(Long userId, Map<Long, ExpenseSnapshot> originals, Set<Expense> touched) {
+        List<ExpensesChangedEvent.Change> changes = new ArrayList<>(touched.size() + originals.size());
+        Set<Long> live = new HashSet<>();
+        for (Expense e : touched) {
+            live.add(e.getId());
+            changes.add(new ExpensesChangedEvent.Change(originals.get(e.getId()), ExpenseSnapshot.of(e)));
+        }
+        for (ExpenseSnapshot before : originals.values()) {
+            if (!live.contains(before.id())) changes.add(new ExpensesChangedEvent.Change(before, null));
+        }
+        if (!changes.isEmpty()) eventPublisher.publishEvent(new ExpensesChangedEvent(userId, changes));
+    }
+
+    private void validate(ExpenseDto dto) {
+        Set<ConstraintViolation<ExpenseDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new RuntimeException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private static ExpenseDto requireExpense(ExpenseBatchOperationDto op) {
+        if (op.getExpense() == null) throw new RuntimeException("Expense payload is required");
+        return op.getExpense();
+    }
+
+    private static Expense requireExpense(Map<Long, Expense> expenses, Long id) {
+        Expense e = id != null ? expenses.get(id) : null;
+        if (e == null) throw new RuntimeException("Expense not found");
+        return e;
+    }
+}
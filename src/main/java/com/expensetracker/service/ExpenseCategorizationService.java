@@ -0,0 +1,184 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.CategorySuggestionDto;
+import com.expensetracker.dto.ExpenseDto;
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.repository.ExpenseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Suggests a category from title/description with a per-user naive Bayes model that is trained once from the
+// user's history and then learns from every committed create/update/delete
+@Service
+@Slf4j
+public class ExpenseCategorizationService {
+
+    private static final int MAX_SUGGESTIONS = 10;
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryCache categoryCache;
+    private final TransactionTemplate readTransaction;
+    private final Cache<Long, CategoryClassifier> cache;
+    private final int maxFeatures;
+
+    public ExpenseCategorizationService(ExpenseRepository expenseRepository,
+                                        CategoryCache categoryCache,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${classifier.max-features-per-user:32768}") int maxFeatures,
+                                        @Value("${classifier.cache.max-users:10000}") long maxUsers,
+                                        @Value("${classifier.cache.idle-ttl:PT30M}") Duration idleTtl,
+                                        MeterRegistry meterRegistry) {
+        this.expenseRepository = expenseRepository;
+        this.categoryCache = categoryCache;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.maxFeatures = maxFeatures;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "categoryClassifiers");
+    }
+
+    // Most likely active categories first; empty until the user has categorised at least one expense
+    public List<CategorySuggestionDto> suggest(Long userId, String title, String description, int limit) {
+        if ((title == null || title.isBlank()) && (description == null || description.isBlank())) {
+            throw new RuntimeException("A title or description is required");
+        }
+        int max = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        CategoryCache.UserCategories categories = categoryCache.forUser(userId);
+        List<CategorySuggestionDto> result = new ArrayList<>(max);
+        read(userId, classifier -> {
+            double[] scores = new double[classifier.categoryCount()];
+            if (!classifier.score(title, description, new int[CategoryClassifier.MAX_TOKENS], scores)) return;
+            // Normalise over active categories only, so probabilities are over what the user can pick
+            double best = Double.NEGATIVE_INFINITY;
+            for (int c = 0; c < scores.length; c++) {
+                CategoryCache.CachedCategory category = categories.get(classifier.categoryIdOf(c));
+                if (category == null || !category.active()) scores[c] = Double.NEGATIVE_INFINITY;
+                best = Math.max(best, scores[c]);
+            }
+            if (best == Double.NEGATIVE_INFINITY) return;
+            double sum = 0;
+            for (int c = 0; c < scores.length; c++) {
+                scores[c] = Math.exp(scores[c] - best);
+                sum += scores[c];
+            }
+            for (int k = 0; k < max; k++) {
+                int top = -1;
+                for (int c = 0; c < scores.length; c++) {
+                    if (scores[c] > 0 && (top < 0 || scores[c] > scores[top])) top = c;
+                }
+                if (top < 0) break;
+                CategoryCache.CachedCategory category = categories.get(classifier.categoryIdOf(top));
+                result.add(new CategorySuggestionDto(category.id(), category.name(), scores[top] / sum));
+                scores[top] = 0;
+            }
+        });
+        return result;
+    }
+
+    // categoryId if given, else categoryName, else the top suggestion for title/description
+    public Long resolveCategoryId(Long userId, CategoryCache.UserCategories categories, ExpenseDto dto) {
+        if (dto.getCategoryId() != null) return dto.getCategoryId();
+        if (dto.getCategoryName() != null && !dto.getCategoryName().isBlank()) return categories.idByName(dto.getCategoryName());
+        List<CategorySuggestionDto> suggestions = dto.getTitle() != null || dto.getDescription() != null
+                ? suggest(userId, dto.getTitle(), dto.getDescription(), 1) : List.of();
+        if (suggestions.isEmpty()) throw new RuntimeException("Category is required");
+        return suggestions.get(0).getCategoryId();
+    }
+
+    @TransactionalEventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        CategoryClassifier classifier = cache.getIfPresent(event.userId());
+        if (classifier == null) return;
+        classifier.lock.writeLock().lock();
+        try {
+            if (!classifier.loaded) return;
+            for (ExpensesChangedEvent.Change change : event.changes()) {
+                ExpenseSnapshot before = change.before();
+                ExpenseSnapshot after = change.after();
+                if (before != null && after != null && Objects.equals(before.categoryId(), after.categoryId())
+                        && Objects.equals(before.title(), after.title()) && Objects.equals(before.description(), after.description())) {
+                    continue;
+                }
+                if (before != null) classifier.untrain(before.categoryId(), before.title(), before.description());
+                if (after != null) classifier.train(after.categoryId(), after.title(), after.description());
+            }
+        } finally {
+            classifier.lock.writeLock().unlock();
+        }
+    }
+
+    private void read(Long userId, Consumer<CategoryClassifier> query) {
+        while (true) {
+            CategoryClassifier classifier = classifier(userId);
+            classifier.lock.readLock().lock();
+            try {
+                if (classifier.loaded) {
+                    query.accept(classifier);
+                    return;
+                }
+            } finally {
+                classifier.lock.readLock().unlock();
+            }
+        }
+    }
+
+    // Same load protocol as the analytics columns: the creator trains under the write lock taken inside the
+    // cache's compute. Unlike upserts, training is not idempotent, so a change committed while the history
+    // is streamed can be counted twice; for a classifier that skew is harmless.
+    private CategoryClassifier classifier(Long userId) {
+        CategoryClassifier[] created = new CategoryClassifier[1];
+        CategoryClassifier classifier = cache.get(userId, id -> {
+            CategoryClassifier c = new CategoryClassifier(maxFeatures);
+            c.lock.writeLock().lock();
+            created[0] = c;
+            return c;
+        });
+        if (created[0] == classifier) {
+            load(userId, classifier);
+        }
+        return classifier;
+    }
+
+    private void load(Long userId, CategoryClassifier classifier) {
+        long started = System.nanoTime();
+        long[] rows = new long[1];
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> stream = expenseRepository.streamTextByUserId(userId)) {
+                    stream.forEach(row -> {
+                        classifier.train((Long) row[0], (String) row[1], (String) row[2]);
+                        rows[0]++;
+                    });
+                }
+            });
+            classifier.loaded = true;
+        } catch (RuntimeException ex) {
+            cache.asMap().remove(userId, classifier);
+            throw ex;
+        } finally {
+            classifier.lock.writeLock().unlock();
+        }
+        log.debug("Trained category classifier for user {} on {} expenses ({} bytes) in {} ms", userId, rows[0],
+                classifier.memoryBytes(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
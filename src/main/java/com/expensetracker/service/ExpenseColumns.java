@@ -0,0 +1,244 @@
+package com.expensetracker.service;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Struct-of-arrays copy of one user's expenses (26 bytes per row). Rows are kept sorted by id so lookups are a
+// binary search and new ids append; deletes leave a tombstone that no type filter matches until compaction.
+// Callers hold lock: read for the scan methods, write for upsert/remove.
+final class ExpenseColumns {
+
+    static final byte TOMBSTONE = -1;
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Set by the loader once the initial snapshot is in; an unloaded instance is never queried
+    boolean loaded;
+
+    private long[] ids;
+    private long[] cents;
+    private int[] days;
+    private int[] categories;
+    // Enum ordinal + 1, 0 for null
+    private byte[] types;
+    private byte[] paymentMethods;
+    private int size;
+    private int tombstones;
+
+    // Dense category codes so group-by can index a plain array
+    private long[] categoryIds = new long[16];
+    private int categoryCount;
+
+    ExpenseColumns(int capacity) {
+        capacity = Math.max(capacity, 16);
+        ids = new long[capacity];
+        cents = new long[capacity];
+        days = new int[capacity];
+        categories = new int[capacity];
+        types = new byte[capacity];
+        paymentMethods = new byte[capacity];
+    }
+
+    int rows() {
+        return size - tombstones;
+    }
+
+    int categoryCount() {
+        return categoryCount;
+    }
+
+    long categoryIdOf(int code) {
+        return categoryIds[code];
+    }
+
+    long idAt(int row) {
+        return ids[row];
+    }
+
+    long centsAt(int row) {
+        return cents[row];
+    }
+
+    int dayAt(int row) {
+        return days[row];
+    }
+
+    int categoryAt(int row) {
+        return categories[row];
+    }
+
+    long memoryBytes() {
+        return (long) ids.length * 26 + categoryIds.length * 8L;
+    }
+
+    void upsert(long id, long amountCents, int epochDay, long categoryId, byte type, byte paymentMethod) {
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        if (row < 0) {
+            row = -row - 1;
+            grow();
+            if (row < size) shift(row, row + 1, size - row);
+            size++;
+            ids[row] = id;
+        } else if (types[row] == TOMBSTONE) {
+            tombstones--;
+        }
+        cents[row] = amountCents;
+        days[row] = epochDay;
+        categories[row] = categoryCode(categoryId);
+        types[row] = type;
+        paymentMethods[row] = paymentMethod;
+    }
+
+    boolean remove(long id) {
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        if (row < 0 || types[row] == TOMBSTONE) return false;
+        types[row] = TOMBSTONE;
+        if (++tombstones > 1024 && tombstones > size / 4) compact();
+        return true;
+    }
+
+    // Sums and counts per category code for rows of the given type with day in [fromDay, toDay]
+    void sumByCategory(int fromDay, int toDay, byte type, long[] sums, long[] counts) {
+        for (int i = 0; i < size; i++) {
+            int d = days[i];
+            if (types[i] == type && d >= fromDay && d <= toDay) {
+                int c = categories[i];
+                sums[c] += cents[i];
+                counts[c]++;
+            }
+        }
+    }
+
+    // Slot is the payment method ordinal + 1, slot 0 collects rows without one
+    void sumByPaymentMethod(int fromDay, int toDay, byte type, long[] sums, long[] counts) {
+        for (int i = 0; i < size; i++) {
+            int d = days[i];
+            if (types[i] == type && d >= fromDay && d <= toDay) {
+                int p = paymentMethods[i];
+                sums[p] += cents[i];
+                counts[p]++;
+            }
+        }
+    }
+
+    // Slot is the month offset from fromDay's month
+    void sumByMonth(int fromDay, int toDay, byte type, long[] sums, long[] counts) {
+        int firstMonth = monthIndex(fromDay);
+        for (int i = 0; i < size; i++) {
+            int d = days[i];
+            if (types[i] == type && d >= fromDay && d <= toDay) {
+                int m = monthIndex(d) - firstMonth;
+                sums[m] += cents[i];
+                counts[m]++;
+            }
+        }
+    }
+
+    // Fills rows with the indexes of the n largest amounts, largest first; returns how many were found
+    int topByAmount(int fromDay, int toDay, byte type, int[] rows) {
+        int n = rows.length;
+        int found = 0;
+        // Min-heap on cents: the root is the smallest of the current top n
+        for (int i = 0; i < size; i++) {
+            int d = days[i];
+            if (types[i] != type || d < fromDay || d > toDay) continue;
+            if (found < n) {
+                rows[found] = i;
+                siftUp(rows, found++);
+            } else if (cents[i] > cents[rows[0]]) {
+                rows[0] = i;
+                siftDown(rows, 0, n);
+            }
+        }
+        for (int end = found - 1; end > 0; end--) {
+            int top = rows[0];
+            rows[0] = rows[end];
+            rows[end] = top;
+            siftDown(rows, 0, end);
+        }
+        return found;
+    }
+
+    private void siftUp(int[] heap, int k) {
+        int row = heap[k];
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (cents[heap[parent]] <= cents[row]) break;
+            heap[k] = heap[parent];
+            k = parent;
+        }
+        heap[k] = row;
+    }
+
+    private void siftDown(int[] heap, int k, int length) {
+        int row = heap[k];
+        int half = length >>> 1;
+        while (k < half) {
+            int child = 2 * k + 1;
+            if (child + 1 < length && cents[heap[child + 1]] < cents[heap[child]]) child++;
+            if (cents[row] <= cents[heap[child]]) break;
+            heap[k] = heap[child];
+            k = child;
+        }
+        heap[k] = row;
+    }
+
+    // year * 12 + (month - 1) from an epoch day, without allocating a LocalDate (civil-from-days)
+    static int monthIndex(int epochDay) {
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    private int categoryCode(long categoryId) {
+        for (int i = 0; i < categoryCount; i++) {
+            if (categoryIds[i] == categoryId) return i;
+        }
+        if (categoryCount == categoryIds.length) categoryIds = Arrays.copyOf(categoryIds, categoryCount * 2);
+        categoryIds[categoryCount] = categoryId;
+        return categoryCount++;
+    }
+
+    private void grow() {
+        if (size < ids.length) return;
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        cents = Arrays.copyOf(cents, capacity);
+        days = Arrays.copyOf(days, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        types = Arrays.copyOf(types, capacity);
+        paymentMethods = Arrays.copyOf(paymentMethods, capacity);
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(cents, from, cents, to, length);
+        System.arraycopy(days, from, days, to, length);
+        System.arraycopy(categories, from, categories, to, length);
+        System.arraycopy(types, from, types, to, length);
+        System.arraycopy(paymentMethods, from, paymentMethods, to, length);
+    }
+
+    private void compact() {
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if (types[i] == TOMBSTONE) continue;
+            if (live != i) {
+                ids[live] = ids[i];
+                cents[live] = cents[i];
+                days[live] = days[i];
+                categories[live] = categories[i];
+                types[live] = types[i];
+                paymentMethods[live] = paymentMethods[i];
+            }
+            live++;
+        }
+        size = live;
+        tombstones = 0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.expensetracker.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Keyset position (expenseDate, id) of the last row of a slice, encoded as an opaque URL-safe token
+public record ExpenseCursor(LocalDate expenseDate, Long id) {
+
+    public String encode() {
+        String raw = expenseDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ExpenseCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new ExpenseCursor(LocalDate.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException ex) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseDto;
+import com.expensetracker.entity.Expense;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes a user's expenses straight from a JDBC cursor to the response, merged with a streamed read of their archive
+// segments; heap stays flat regardless of row count
+@Service
+@Slf4j
+public class ExpenseExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String CSV_HEADER = "id,title,description,amount,expenseDate,type,paymentMethod,notes,receiptUrl,"
+            + "isRecurring,recurringFrequency,categoryId,categoryName";
+
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final ExpenseArchive archive;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+    private final int clearInterval;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ExpenseExportService(ExpenseRepository expenseRepository,
+                                UserRepository userRepository,
+                                ExpenseArchive archive,
+                                ObjectMapper objectMapper,
+                                @Value("${expense.export.fetch-size:1000}") int fetchSize,
+                                @Value("${expense.export.clear-interval:1000}") int clearInterval) {
+        this.expenseRepository = expenseRepository;
+        this.userRepository = userRepository;
+        this.archive = archive;
+        this.jsonWriter = objectMapper.writerFor(ExpenseDto.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.fetchSize = fetchSize;
+        this.clearInterval = clearInterval;
+    }
+
+    @Transactional(readOnly = true)
+    public long export(Long userId,
+                       LocalDate startDate,
+                       LocalDate endDate,
+                       Long categoryId,
+                       String type,
+                       BigDecimal minAmount,
+                       BigDecimal maxAmount,
+                       Format format,
+                       OutputStream out) throws IOException {
+        if (!userRepository.existsById(userId)) throw new RuntimeException("User not found");
+        Specification<Expense> spec = ExpenseService.filterSpec(userId, startDate, endDate, categoryId, type, minAmount, maxAmount);
+        Sort sort = Sort.by(Sort.Direction.ASC, "expenseDate", "id");
+        // Archived rows in range arrive as a stream in the same (expenseDate, id) order and are interleaved
+        Comparator<ExpenseDto> order = Comparator.comparing(ExpenseDto::getExpenseDate).thenComparing(ExpenseDto::getId);
+
+        long rows = 0;
+        long streamed = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<Expense> stream = expenseRepository.streamAll(spec, sort, fetchSize);
+             ExpenseArchive.SortedRows archived = archive.stream(userId, archive.segments(userId, startDate, endDate),
+                     startDate, endDate, ExpenseService.archiveFilter(categoryId, type, minAmount, maxAmount))) {
+            if (format == Format.CSV) writer.write(CSV_HEADER + "\n");
+            ExpenseDto nextArchived = archived.hasNext() ? archived.next().toDto() : null;
+            Iterator<Expense> it = stream.iterator();
+            while (it.hasNext()) {
+                ExpenseDto dto = ExpenseService.toDto(it.next());
+                while (nextArchived != null && order.compare(nextArchived, dto) < 0) {
+                    write(writer, nextArchived, format);
+                    rows++;
+                    nextArchived = archived.hasNext() ? archived.next().toDto() : null;
+                }
+                write(writer, dto, format);
+                rows++;
+                // Drop already-written entities so the persistence context does not grow with the export
+                if (++streamed % clearInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+            while (nextArchived != null) {
+                write(writer, nextArchived, format);
+                rows++;
+                nextArchived = archived.hasNext() ? archived.next().toDto() : null;
+            }
+        }
+        writer.flush();
+        log.debug("Exported {} expenses for user {}", rows, userId);
+        return rows;
+    }
+
+    private void write(Writer writer, ExpenseDto dto, Format format) throws IOException {
+        if (format == Format.CSV) {
+            writeCsvRow(writer, dto);
+        } else {
+            jsonWriter.writeValue(writer, dto);
+            writer.write('\n');
+        }
+    }
+
+    private void writeCsvRow(Writer w, ExpenseDto d) throws IOException {
+        w.write(String.valueOf(d.getId()));
+        w.write(',');
+        w.write(csv(d.getTitle()));
+        w.write(',');
+        w.write(csv(d.getDescription()));
+        w.write(',');
+        w.write(d.getAmount() != null ? d.getAmount().toPlainString() : "");
+        w.write(',');
+        w.write(d.getExpenseDate() != null ? d.getExpenseDate().toString() : "");
+        w.write(',');
+        w.write(csv(d.getType()));
+        w.write(',');
+        w.write(csv(d.getPaymentMethod()));
+        w.write(',');
+        w.write(csv(d.getNotes()));
+        w.write(',');
+        w.write(csv(d.getReceiptUrl()));
+        w.write(',');
+        w.write(d.getIsRecurring() != null ? d.getIsRecurring().toString() : "");
+        w.write(',');
+        w.write(csv(d.getRecurringFrequency()));
+        w.write(',');
+        w.write(d.getCategoryId() != null ? d.getCategoryId().toString() : "");
+        w.write(',');
+        w.write(csv(d.getCategoryName()));
+        w.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,209 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.SpendingForecastDto;
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.ExpenseMonthlyRollup;
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.repository.ExpenseMonthlyRollupRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-category exponential smoothing over the monthly rollups. The rollups are the incrementally maintained
+// time series (O(1) per write), so a fit reads at most categories x history-months rows however long the
+// user's history is; fitted models are cached per user until a change lands in an already-fitted month.
+@Service
+public class ExpenseForecastService {
+
+    private static final int SEASON = 12;
+    private static final double ALPHA = 0.4;
+    private static final double BETA = 0.1;
+    private static final double GAMMA = 0.3;
+    private static final double PHI = 0.9;
+
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final CategoryCache categoryCache;
+    private final int historyMonths;
+    private final int maxHorizon;
+    private final Cache<Long, FittedModels> cache;
+
+    public ExpenseForecastService(ExpenseMonthlyRollupRepository rollupRepository,
+                                  CategoryCache categoryCache,
+                                  @Value("${forecast.history-months:24}") int historyMonths,
+                                  @Value("${forecast.max-horizon:12}") int maxHorizon,
+                                  @Value("${forecast.cache.max-users:10000}") long maxUsers,
+                                  @Value("${forecast.cache.idle-ttl:PT1H}") Duration idleTtl,
+                                  MeterRegistry meterRegistry) {
+        this.rollupRepository = rollupRepository;
+        this.categoryCache = categoryCache;
+        this.historyMonths = historyMonths;
+        this.maxHorizon = maxHorizon;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "spendingForecasts");
+    }
+
+    public SpendingForecastDto forecast(Long userId, int horizon) {
+        if (horizon < 1 || horizon > maxHorizon) throw new RuntimeException("horizon must be between 1 and " + maxHorizon);
+        YearMonth fittedThrough = YearMonth.now().minusMonths(1);
+        FittedModels models = cache.get(userId, id -> fit(id, fittedThrough));
+        if (!models.fittedThrough().equals(fittedThrough)) {
+            // Month rolled over since the fit
+            cache.asMap().remove(userId, models);
+            models = cache.get(userId, id -> fit(id, fittedThrough));
+        }
+
+        CategoryCache.UserCategories names = categoryCache.forUser(userId);
+        double[] totals = new double[horizon];
+        List<SpendingForecastDto.CategoryForecast> categories = new ArrayList<>();
+        for (Map.Entry<Long, Model> entry : models.byCategory().entrySet()) {
+            Model model = entry.getValue();
+            List<SpendingForecastDto.Point> points = new ArrayList<>(horizon);
+            for (int h = 1; h <= horizon; h++) {
+                double value = model.forecast(h);
+                totals[h - 1] += value;
+                points.add(point(fittedThrough.plusMonths(h), value));
+            }
+            CategoryCache.CachedCategory category = names.get(entry.getKey());
+            categories.add(new SpendingForecastDto.CategoryForecast(entry.getKey(),
+                    category != null ? category.name() : null, model.method, points));
+        }
+        List<SpendingForecastDto.Point> total = new ArrayList<>(horizon);
+        for (int h = 1; h <= horizon; h++) {
+            total.add(point(fittedThrough.plusMonths(h), totals[h - 1]));
+        }
+        return new SpendingForecastDto(fittedThrough.toString(), historyMonths, total, categories);
+    }
+
+    // Current-month writes are the common case and do not touch any fitted month, so they keep the cache
+    @TransactionalEventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        YearMonth fittedThrough = YearMonth.now().minusMonths(1);
+        for (ExpensesChangedEvent.Change change : event.changes()) {
+            if (affectsFit(change.before(), fittedThrough) || affectsFit(change.after(), fittedThrough)) {
+                cache.invalidate(event.userId());
+                return;
+            }
+        }
+    }
+
+    private static boolean affectsFit(ExpenseSnapshot s, YearMonth fittedThrough) {
+        return s != null && s.type() == Expense.ExpenseType.EXPENSE && s.expenseDate() != null
+                && !YearMonth.from(s.expenseDate()).isAfter(fittedThrough);
+    }
+
+    private FittedModels fit(Long userId, YearMonth fittedThrough) {
+        YearMonth first = fittedThrough.minusMonths(historyMonths - 1);
+        Map<Long, double[]> series = new HashMap<>();
+        for (ExpenseMonthlyRollup r : rollupRepository.findByTypeAndMonthRange(userId, Expense.ExpenseType.EXPENSE,
+                ExpenseRollupService.monthKey(first), ExpenseRollupService.monthKey(fittedThrough))) {
+            YearMonth month = YearMonth.of(r.getMonthKey() / 100, r.getMonthKey() % 100);
+            int index = (int) first.until(month, ChronoUnit.MONTHS);
+            series.computeIfAbsent(r.getCategoryId(), k -> new double[historyMonths])[index] += r.getTotalAmount().doubleValue();
+        }
+        Map<Long, Model> models = new HashMap<>();
+        for (Map.Entry<Long, double[]> entry : series.entrySet()) {
+            double[] y = entry.getValue();
+            // Months before the category's first spend are not zeros, they are history it does not have
+            int start = 0;
+            while (start < y.length && y[start] == 0) start++;
+            if (start < y.length) models.put(entry.getKey(), Model.fit(Arrays.copyOfRange(y, start, y.length)));
+        }
+        return new FittedModels(fittedThrough, models);
+    }
+
+    private static SpendingForecastDto.Point point(YearMonth month, double value) {
+        return new SpendingForecastDto.Point(month.toString(), BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private record FittedModels(YearMonth fittedThrough, Map<Long, Model> byCategory) {
+    }
+
+    // Smoothed state after the last observed month; forecast(h) is O(1) apart from the damping sum
+    static final class Model {
+        final String method;
+        final double level;
+        final double trend;
+        final double[] season;
+        // Season slot of the first forecast month
+        final int nextSeason;
+
+        private Model(String method, double level, double trend, double[] season, int nextSeason) {
+            this.method = method;
+            this.level = level;
+            this.trend = trend;
+            this.season = season;
+            this.nextSeason = nextSeason;
+        }
+
+        static Model fit(double[] y) {
+            int n = y.length;
+            if (n < 3) {
+                double sum = 0;
+                for (double v : y) sum += v;
+                return new Model("MEAN", sum / n, 0, null, 0);
+            }
+            if (n < 2 * SEASON) {
+                // Holt's linear method with a damped trend
+                double level = y[0];
+                double trend = y[1] - y[0];
+                for (int t = 1; t < n; t++) {
+                    double previous = level;
+                    level = ALPHA * y[t] + (1 - ALPHA) * (level + PHI * trend);
+                    trend = BETA * (level - previous) + (1 - BETA) * PHI * trend;
+                }
+                return new Model("HOLT", level, trend, null, 0);
+            }
+            // Additive Holt-Winters, initialised from the first two seasons
+            double firstMean = 0;
+            double secondMean = 0;
+            for (int i = 0; i < SEASON; i++) {
+                firstMean += y[i] / SEASON;
+                secondMean += y[SEASON + i] / SEASON;
+            }
+            double level = firstMean;
+            double trend = (secondMean - firstMean) / SEASON;
+            double[] season = new double[SEASON];
+            for (int i = 0; i < SEASON; i++) season[i] = y[i] - firstMean;
+            for (int t = SEASON; t < n; t++) {
+                int slot = t % SEASON;
+                double previous = level;
+                level = ALPHA * (y[t] - season[slot]) + (1 - ALPHA) * (level + PHI * trend);
+                trend = BETA * (level - previous) + (1 - BETA) * PHI * trend;
+                season[slot] = GAMMA * (y[t] - level) + (1 - GAMMA) * season[slot];
+            }
+            return new Model("HOLT_WINTERS", level, trend, season, n % SEASON);
+        }
+
+        double forecast(int h) {
+            double damping = 0;
+            double factor = 1;
+            for (int k = 1; k <= h; k++) {
+                factor *= PHI;
+                damping += factor;
+            }
+            double value = level + damping * trend;
+            if (season != null) value += season[(nextSeason + h - 1) % SEASON];
+            return Math.max(0, value);
+        }
+    }
+}
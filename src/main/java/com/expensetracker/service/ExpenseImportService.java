@@ -0,0 +1,230 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.ExpenseDto;
+import com.expensetracker.dto.ExpenseImportResultDto;
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.User;
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Streams CSV/NDJSON bodies line by line and persists valid rows in batched transactions
+@Service
+@Slf4j
+public class ExpenseImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final ExpenseRollupService rollupService;
+    private final CategoryCache categoryCache;
+    private final ExpenseCategorizationService categorizationService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ExpenseImportService(ExpenseRepository expenseRepository,
+                                CategoryRepository categoryRepository,
+                                UserRepository userRepository,
+                                ExpenseRollupService rollupService,
+                                CategoryCache categoryCache,
+                                ExpenseCategorizationService categorizationService,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${expense.import.batch-size:500}") int batchSize) {
+        this.expenseRepository = expenseRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.rollupService = rollupService;
+        this.categoryCache = categoryCache;
+        this.categorizationService = categorizationService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public ExpenseImportResultDto importExpenses(Long userId, InputStream body, Format format) throws IOException {
+        long started = System.nanoTime();
+        if (!userRepository.existsById(userId)) throw new RuntimeException("User not found");
+        // One snapshot for the whole import, so per-row category resolution never goes to the database
+        CategoryCache.UserCategories categories = categoryCache.forUser(userId);
+
+        ExpenseImportResultDto result = new ExpenseImportResultDto();
+        List<ExpenseDto> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            String line;
+            long lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                if (format == Format.CSV && header == null) {
+                    header = parseCsvLine(line);
+                    for (int i = 0; i < header.length; i++) header[i] = header[i].trim();
+                    continue;
+                }
+                result.setTotalRows(result.getTotalRows() + 1);
+                try {
+                    ExpenseDto dto = format == Format.CSV ? fromCsv(header, parseCsvLine(line)) : objectMapper.readValue(line, ExpenseDto.class);
+                    validate(userId, dto, categories);
+                    batch.add(dto);
+                    batchLines.add(lineNo);
+                } catch (Exception ex) {
+                    reject(result, lineNo, ex);
+                }
+                if (batch.size() >= batchSize) {
+                    writeBatch(userId, batch, batchLines, result);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(userId, batch, batchLines, result);
+        }
+
+        long elapsedNanos = System.nanoTime() - started;
+        result.setDurationMs(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos > 0 ? result.getImported() * 1_000_000_000.0 / elapsedNanos : 0);
+        log.info("Imported {} of {} expense rows for user {} in {} ms ({} rows/s)", result.getImported(),
+                result.getTotalRows(), userId, result.getDurationMs(), Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    private void writeBatch(Long userId, List<ExpenseDto> batch, List<Long> batchLines, ExpenseImportResultDto result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // References only: no user/category selects on the write path
+                User userRef = userRepository.getReferenceById(userId);
+                List<Expense> entities = new ArrayList<>(batch.size());
+                for (ExpenseDto dto : batch) {
+                    entities.add(ExpenseService.newExpense(dto, userRef, categoryRepository.getReferenceById(dto.getCategoryId())));
+                }
+                expenseRepository.saveAll(entities);
+                expenseRepository.flush();
+                rollupService.addAll(entities.stream().map(rollupService::contributionOf).toList());
+                eventPublisher.publishEvent(new ExpensesChangedEvent(userId, entities.stream()
+                        .map(e -> new ExpensesChangedEvent.Change(null, ExpenseSnapshot.of(e))).toList()));
+            });
+            result.setImported(result.getImported() + batch.size());
+        } catch (RuntimeException ex) {
+            log.warn("Expense import batch of {} rows failed", batch.size(), ex);
+            for (Long lineNo : batchLines) {
+                reject(result, lineNo, ex);
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private void validate(Long userId, ExpenseDto dto, CategoryCache.UserCategories categories) {
+        Set<ConstraintViolation<ExpenseDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new RuntimeException(violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        dto.setCategoryId(categorizationService.resolveCategoryId(userId, categories, dto));
+        categories.require(dto.getCategoryId());
+        // Fail enum values here rather than inside the batch transaction
+        ExpenseService.validateEnums(dto);
+    }
+
+    private void reject(ExpenseImportResultDto result, long lineNo, Exception ex) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            String message = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+            result.getErrors().add(new ExpenseImportResultDto.RowError(lineNo, message));
+        }
+    }
+
+    private ExpenseDto fromCsv(String[] header, String[] values) {
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            String v = values[i].trim();
+            if (!v.isEmpty()) row.put(header[i].toLowerCase(Locale.ROOT), v);
+        }
+        ExpenseDto dto = new ExpenseDto();
+        dto.setTitle(row.get("title"));
+        dto.setDescription(row.get("description"));
+        dto.setAmount(row.containsKey("amount") ? new BigDecimal(row.get("amount")) : null);
+        dto.setExpenseDate(row.containsKey("expensedate") ? LocalDate.parse(row.get("expensedate")) : null);
+        dto.setType(row.get("type"));
+        dto.setPaymentMethod(row.get("paymentmethod"));
+        dto.setNotes(row.get("notes"));
+        dto.setReceiptUrl(row.get("receipturl"));
+        dto.setIsRecurring(row.containsKey("isrecurring") ? Boolean.valueOf(row.get("isrecurring")) : null);
+        dto.setRecurringFrequency(row.get("recurringfrequency"));
+        dto.setCategoryId(row.containsKey("categoryid") ? Long.valueOf(row.get("categoryid")) : null);
+        dto.setCategoryName(row.get("categoryname"));
+        return dto;
+    }
+
+    // RFC 4180 style: comma separated, double quotes around fields, "" for a literal quote; no embedded newlines
+    static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields.toArray(new String[0]);
+    }
+}
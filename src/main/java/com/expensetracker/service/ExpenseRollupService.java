@@ -0,0 +1,243 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.ExpenseMonthlyRollup;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.ExpenseMonthlyRollupRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Maintains user x month x category x type sums so range totals read O(months) rollup rows instead of raw expenses
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExpenseRollupService {
+
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final UserRepository userRepository;
+    private final ExpenseArchive archive;
+    private final PlatformTransactionManager transactionManager;
+
+    public record Contribution(Long userId, Integer monthKey, Long categoryId, Expense.ExpenseType type, BigDecimal amount) {
+    }
+
+    // Rows are always locked in this order, so two writers moving amounts between the same rows cannot deadlock
+    private static final Comparator<Contribution> ROW_ORDER = Comparator.comparing(Contribution::userId)
+            .thenComparing(Contribution::monthKey)
+            .thenComparing(Contribution::categoryId)
+            .thenComparing(Contribution::type);
+
+    public Contribution contributionOf(Expense e) {
+        if (e.getType() == null || e.getAmount() == null || e.getExpenseDate() == null) return null;
+        return new Contribution(e.getUser().getId(), monthKey(YearMonth.from(e.getExpenseDate())),
+                e.getCategory().getId(), e.getType(), e.getAmount());
+    }
+
+    // Must run inside the caller's write transaction so rollups commit or roll back with the expense
+    @Transactional
+    public void add(Contribution c) {
+        apply(c, 1);
+    }
+
+    @Transactional
+    public void remove(Contribution c) {
+        apply(c, -1);
+    }
+
+    @Transactional
+    public void replace(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) return;
+        if (before != null && after != null && ROW_ORDER.compare(before, after) > 0) {
+            apply(after, 1);
+            apply(before, -1);
+        } else {
+            apply(before, -1);
+            apply(after, 1);
+        }
+    }
+
+    // Collapses a batch to one delta per rollup row, e.g. for bulk imports
+    @Transactional
+    public void addAll(List<Contribution> contributions) {
+        applyChanges(List.of(), contributions);
+    }
+
+    @Transactional
+    public void applyChanges(List<Contribution> removed, List<Contribution> added) {
+        Map<Contribution, long[]> counts = new TreeMap<>(ROW_ORDER);
+        Map<Contribution, BigDecimal> sums = new HashMap<>();
+        collect(removed, -1, counts, sums);
+        collect(added, 1, counts, sums);
+        for (Map.Entry<Contribution, long[]> entry : counts.entrySet()) {
+            BigDecimal sum = sums.get(entry.getKey());
+            if (entry.getValue()[0] == 0 && sum.signum() == 0) continue;
+            applyDelta(entry.getKey(), sum, entry.getValue()[0]);
+        }
+    }
+
+    private static void collect(List<Contribution> contributions, int sign, Map<Contribution, long[]> counts,
+                                Map<Contribution, BigDecimal> sums) {
+        for (Contribution c : contributions) {
+            if (c == null) continue;
+            Contribution key = new Contribution(c.userId(), c.monthKey(), c.categoryId(), c.type(), null);
+            counts.computeIfAbsent(key, k -> new long[1])[0] += sign;
+            sums.merge(key, sign < 0 ? c.amount().negate() : c.amount(), BigDecimal::add);
+        }
+    }
+
+    private void apply(Contribution c, int sign) {
+        if (c == null) return;
+        applyDelta(c, sign < 0 ? c.amount().negate() : c.amount(), sign);
+    }
+
+    private void applyDelta(Contribution c, BigDecimal amount, long count) {
+        rollupRepository.applyDelta(c.userId(), c.monthKey(), c.categoryId(), c.type().name(), amount, count);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal totalExpenses(Long userId, LocalDate startDate, LocalDate endDate) {
+        return total(userId, Expense.ExpenseType.EXPENSE, startDate, endDate);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal totalIncome(Long userId, LocalDate startDate, LocalDate endDate) {
+        return total(userId, Expense.ExpenseType.INCOME, startDate, endDate);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> expensesByCategory(Long userId, LocalDate startDate, LocalDate endDate) {
+        Map<String, BigDecimal> result = new HashMap<>();
+        MonthSplit split = MonthSplit.of(startDate, endDate);
+        User user = userRepository.getReferenceById(userId);
+        if (split.hasFullMonths()) {
+            mergeInto(result, rollupRepository.sumByCategoryAndMonthRange(userId, Expense.ExpenseType.EXPENSE,
+                    split.fromMonth(), split.toMonth()));
+        }
+        for (LocalDate[] edge : split.edges()) {
+            mergeInto(result, expenseRepository.getExpensesByCategoryAndDateRange(user, edge[0], edge[1]));
+            for (ExpenseArchive.ArchivedExpense row : archived(userId, Expense.ExpenseType.EXPENSE, edge)) {
+                result.merge(row.categoryName(), row.amount(), BigDecimal::add);
+            }
+        }
+        return result;
+    }
+
+    private BigDecimal total(Long userId, Expense.ExpenseType type, LocalDate startDate, LocalDate endDate) {
+        MonthSplit split = MonthSplit.of(startDate, endDate);
+        User user = userRepository.getReferenceById(userId);
+        BigDecimal total = BigDecimal.ZERO;
+        if (split.hasFullMonths()) {
+            total = total.add(nz(rollupRepository.sumByTypeAndMonthRange(userId, type, split.fromMonth(), split.toMonth())));
+        }
+        for (LocalDate[] edge : split.edges()) {
+            BigDecimal part = type == Expense.ExpenseType.INCOME
+                    ? expenseRepository.getTotalIncomeByUserAndDateRange(user, edge[0], edge[1])
+                    : expenseRepository.getTotalExpensesByUserAndDateRange(user, edge[0], edge[1]);
+            total = total.add(nz(part));
+            for (ExpenseArchive.ArchivedExpense row : archived(userId, type, edge)) {
+                total = total.add(row.amount());
+            }
+        }
+        return total;
+    }
+
+    // Rollups keep counting archived expenses, so only the partial edge months read the archive
+    private List<ExpenseArchive.ArchivedExpense> archived(Long userId, Expense.ExpenseType type, LocalDate[] edge) {
+        return archive.read(userId, archive.segments(userId, edge[0], edge[1]), edge[0], edge[1]).stream()
+                .filter(row -> row.type() == type)
+                .toList();
+    }
+
+    public void rebuildAll() {
+        List<Long> userIds = userRepository.findAllIds();
+        long started = System.currentTimeMillis();
+        for (Long userId : userIds) {
+            rebuild(userId);
+        }
+        log.info("Rebuilt expense rollups for {} users in {} ms", userIds.size(), System.currentTimeMillis() - started);
+    }
+
+    // Each user is rebuilt in its own transaction so a backfill never holds one long transaction; archived
+    // expenses are added to the live aggregates
+    public void rebuild(Long userId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            rollupRepository.deleteByUserId(userId);
+            Map<Contribution, ExpenseMonthlyRollup> rollups = new TreeMap<>(ROW_ORDER);
+            for (Object[] row : expenseRepository.aggregateMonthlyByUser(userId)) {
+                int monthKey = ((Number) row[2]).intValue() * 100 + ((Number) row[3]).intValue();
+                rollups.put(new Contribution(userId, monthKey, (Long) row[0], (Expense.ExpenseType) row[1], null),
+                        new ExpenseMonthlyRollup(null, userId, monthKey, (Long) row[0], (Expense.ExpenseType) row[1],
+                                (BigDecimal) row[4], ((Number) row[5]).longValue()));
+            }
+            for (ExpenseArchive.ArchivedExpense row : archive.read(userId, archive.segments(userId, null, null), null, null)) {
+                if (row.type() == null) continue;
+                int monthKey = monthKey(YearMonth.from(row.expenseDate()));
+                ExpenseMonthlyRollup rollup = rollups.computeIfAbsent(
+                        new Contribution(userId, monthKey, row.categoryId(), row.type(), null),
+                        k -> new ExpenseMonthlyRollup(null, userId, monthKey, row.categoryId(), row.type(), BigDecimal.ZERO, 0L));
+                rollup.setTotalAmount(rollup.getTotalAmount().add(row.amount()));
+                rollup.setEntryCount(rollup.getEntryCount() + 1);
+            }
+            rollupRepository.saveAll(rollups.values());
+        });
+    }
+
+    static int monthKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    private static BigDecimal nz(BigDecimal v) {
+        return v != null ? v : BigDecimal.ZERO;
+    }
+
+    private static void mergeInto(Map<String, BigDecimal> target, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            target.merge((String) row[0], nz((BigDecimal) row[1]), BigDecimal::add);
+        }
+    }
+
+    // Splits [start, end] into whole months answered from rollups and partial edge ranges scanned from expenses
+    record MonthSplit(Integer fromMonth, Integer toMonth, List<LocalDate[]> edges) {
+
+        boolean hasFullMonths() {
+            return fromMonth != null;
+        }
+
+        static MonthSplit of(LocalDate start, LocalDate end) {
+            if (start == null || end == null || end.isBefore(start)) {
+                throw new RuntimeException("A valid startDate and endDate are required");
+            }
+            YearMonth firstFull = start.getDayOfMonth() == 1 ? YearMonth.from(start) : YearMonth.from(start).plusMonths(1);
+            YearMonth lastFull = end.equals(YearMonth.from(end).atEndOfMonth()) ? YearMonth.from(end) : YearMonth.from(end).minusMonths(1);
+            if (firstFull.isAfter(lastFull)) {
+                return new MonthSplit(null, null, List.<LocalDate[]>of(new LocalDate[]{start, end}));
+            }
+            List<LocalDate[]> edges = new ArrayList<>(2);
+            if (start.isBefore(firstFull.atDay(1))) {
+                edges.add(new LocalDate[]{start, firstFull.atDay(1).minusDays(1)});
+            }
+            if (end.isAfter(lastFull.atEndOfMonth())) {
+                edges.add(new LocalDate[]{lastFull.plusMonths(1).atDay(1), end});
+            }
+            return new MonthSplit(monthKey(firstFull), monthKey(lastFull), edges);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.expensetracker.service;
+
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesArchivedEvent;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.repository.ExpenseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+// Text search over title/description/notes from a per-user in-memory inverted index, built from the database
+// on the user's first search and then kept in step with committed writes, so a search never scans expenses
+@Service
+@Slf4j
+public class ExpenseSearchService {
+
+    private final ExpenseRepository expenseRepository;
+    private final TransactionTemplate readTransaction;
+    private final Cache<Long, ExpenseTextIndex> cache;
+    private final int maxResults;
+
+    public ExpenseSearchService(ExpenseRepository expenseRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${search.max-results:1000}") int maxResults,
+                                @Value("${search.cache.max-memory:128MB}") DataSize maxMemory,
+                                @Value("${search.cache.idle-ttl:PT30M}") Duration idleTtl,
+                                MeterRegistry meterRegistry) {
+        this.expenseRepository = expenseRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.maxResults = maxResults;
+        // Weighed in KiB of estimated index size; re-weighed after loading and after each applied change
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(1, maxMemory.toKilobytes()))
+                .<Long, ExpenseTextIndex>weigher((userId, index) -> (int) Math.min(Integer.MAX_VALUE, index.memoryBytes() >> 10))
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "expenseTextIndexes");
+        Gauge.builder("expense.search.memory", cache, c -> c.asMap().values().stream().mapToLong(ExpenseTextIndex::memoryBytes).sum())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // Ranked ids of the user's expenses matching every word of q (each word also matches as a prefix)
+    public long[] search(Long userId, String q) {
+        List<String> words = ExpenseTextIndex.tokenize(q).stream().distinct().toList();
+        if (words.isEmpty()) {
+            throw new RuntimeException("Search text needs at least one word of " + ExpenseTextIndex.MIN_TOKEN_LENGTH + " or more characters");
+        }
+        while (true) {
+            ExpenseTextIndex index = index(userId);
+            index.lock.readLock().lock();
+            try {
+                if (index.loaded) return index.search(words, maxResults);
+            } finally {
+                index.lock.readLock().unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        ExpenseTextIndex index = cache.getIfPresent(event.userId());
+        if (index == null) return;
+        index.lock.writeLock().lock();
+        try {
+            if (!index.loaded) return;
+            for (ExpensesChangedEvent.Change change : event.changes()) {
+                ExpenseSnapshot before = change.before();
+                ExpenseSnapshot after = change.after();
+                if (before != null && after != null && Objects.equals(before.title(), after.title())
+                        && Objects.equals(before.description(), after.description()) && Objects.equals(before.notes(), after.notes())) {
+                    continue;
+                }
+                if (before != null) index.remove(before.id(), before.title(), before.description(), before.notes());
+                if (after != null) index.add(after.id(), after.title(), after.description(), after.notes());
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        cache.asMap().replace(event.userId(), index, index);
+    }
+
+    // Archived rows are no longer live, so they leave the index like deletes; otherwise they would take result slots
+    // that the live-table filter in ExpenseService.search then drops
+    @TransactionalEventListener
+    public void onExpensesArchived(ExpensesArchivedEvent event) {
+        ExpenseTextIndex index = cache.getIfPresent(event.userId());
+        if (index == null) return;
+        index.lock.writeLock().lock();
+        try {
+            if (!index.loaded) return;
+            for (ExpenseSnapshot row : event.rows()) index.remove(row.id(), row.title(), row.description(), row.notes());
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        cache.asMap().replace(event.userId(), index, index);
+    }
+
+    // Same load protocol as the analytics columns; add() by id is idempotent for changes re-applied after loading
+    private ExpenseTextIndex index(Long userId) {
+        ExpenseTextIndex[] created = new ExpenseTextIndex[1];
+        ExpenseTextIndex index = cache.get(userId, id -> {
+            ExpenseTextIndex i = new ExpenseTextIndex();
+            i.lock.writeLock().lock();
+            created[0] = i;
+            return i;
+        });
+        if (created[0] == index) {
+            load(userId, index);
+        }
+        return index;
+    }
+
+    private void load(Long userId, ExpenseTextIndex index) {
+        long started = System.nanoTime();
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = expenseRepository.streamSearchTextByUserId(userId)) {
+                    rows.forEach(row -> index.add((Long) row[0], (String) row[1], (String) row[2], (String) row[3]));
+                }
+            });
+            index.loaded = true;
+        } catch (RuntimeException ex) {
+            cache.asMap().remove(userId, index);
+            throw ex;
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        cache.asMap().replace(userId, index, index);
+        log.debug("Indexed {} expenses for user {} into ~{} bytes in {} ms", index.documents(), userId,
+                index.memoryBytes(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -1,13 +1,18 @@
 package com.expensetracker.service;
 
+import com.expensetracker.dto.CursorPageDto;
 import com.expensetracker.dto.ExpenseDto;
+import com.expensetracker.dto.ExpenseSummaryDto;
 import com.expensetracker.entity.Category;
 import com.expensetracker.entity.Expense;
 import com.expensetracker.entity.User;
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesChangedEvent;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.ExpenseRepository;
 import com.expensetracker.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,9 +23,17 @@ import java.math.BigDecimal;
 @RequiredArgsConstructor
 public class ExpenseService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ExpenseRepository expenseRepository;
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final ExpenseRollupService rollupService;
+    private final CategoryCache categoryCache;
+    private final ExpenseCategorizationService categorizationService;
+    private final ExpenseSearchService searchService;
+    private final ExpenseArchive archive;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public org.springframework.data.domain.Page<ExpenseDto> list(Long userId,
@@ -30,8 +43,160 @@ public class ExpenseService {
                                                                  String type,
                                                                  java.math.BigDecimal minAmount,
                                                                  java.math.BigDecimal maxAmount,
+                                                                 String text,
                                                                  org.springframework.data.domain.Pageable pageable) {
         requireUser(userId);
+        org.springframework.data.jpa.domain.Specification<Expense> spec = filterSpec(userId, startDate, endDate, categoryId, type, minAmount, maxAmount);
+        if (text != null && !text.isBlank()) {
+            return search(userId, spec, text, pageable);
+        }
+        java.util.List<com.expensetracker.entity.ExpenseArchiveSegment> segments = archive.segments(userId, startDate, endDate);
+        if (segments.isEmpty()) {
+            return expenseRepository.findDtos(spec, pageable);
+        }
+        return listWithArchive(userId, spec, segments, startDate, endDate,
+                archiveFilter(categoryId, type, minAmount, maxAmount), pageable);
+    }
+
+    // The database supplies its first offset + size rows in the requested order and archived rows are merged in.
+    // Totals come from the segment index where it is exact; files are read only for segments that may hold matching
+    // rows and either have an inexact count or could sort into the page (ExpenseArchive.merge). Deep pages and
+    // listings that would read too many segments are rejected rather than loading the cold store.
+    private org.springframework.data.domain.Page<ExpenseDto> listWithArchive(Long userId,
+                                                                            org.springframework.data.jpa.domain.Specification<Expense> spec,
+                                                                            java.util.List<com.expensetracker.entity.ExpenseArchiveSegment> segments,
+                                                                            java.time.LocalDate startDate,
+                                                                            java.time.LocalDate endDate,
+                                                                            ExpenseArchive.Filter filter,
+                                                                            org.springframework.data.domain.Pageable pageable) {
+        org.springframework.data.domain.Sort sort = pageable.getSort();
+        java.util.Comparator<ExpenseDto> order = dtoOrder(sort);
+        long window = pageable.getOffset() + pageable.getPageSize();
+        archive.requireMergeWindow(window);
+        java.util.List<ExpenseDto> rows = expenseRepository.findDtos(spec, sort, (int) window);
+        long total = rows.size() < window ? rows.size() : expenseRepository.count(spec);
+        org.springframework.data.domain.Sort.Order lead = sort.stream().findFirst().orElse(null);
+        boolean amountBounds = lead != null && lead.getProperty().equals("amount");
+        ExpenseArchive.Merge merge = archive.merge(userId, archive.estimate(segments, startDate, endDate, filter, amountBounds),
+                startDate, endDate, filter, rows, (int) window, lead, order, true);
+        java.util.List<ExpenseDto> merged = merge.rows();
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        return new org.springframework.data.domain.PageImpl<>(merged.subList(from, merged.size()), pageable, total + merge.archivedTotal());
+    }
+
+    // Archived rows are filtered in memory with the same non-date filters as filterSpec; null when there are none
+    static ExpenseArchive.Filter archiveFilter(Long categoryId, String type, java.math.BigDecimal minAmount, java.math.BigDecimal maxAmount) {
+        if (categoryId == null && type == null && minAmount == null && maxAmount == null) return null;
+        return new ExpenseArchive.Filter(categoryId, type != null ? Expense.ExpenseType.valueOf(type.toUpperCase()) : null,
+                minAmount, maxAmount);
+    }
+
+    // In-memory equivalent of the sort the listing passes to the database, nulls first as MySQL orders them
+    static java.util.Comparator<ExpenseDto> dtoOrder(org.springframework.data.domain.Sort sort) {
+        java.util.Comparator<ExpenseDto> order = null;
+        for (org.springframework.data.domain.Sort.Order o : sort) {
+            java.util.Comparator<ExpenseDto> next = switch (o.getProperty()) {
+                case "id" -> java.util.Comparator.comparing(ExpenseDto::getId, java.util.Comparator.nullsFirst(java.util.Comparator.naturalOrder()));
+                case "title" -> java.util.Comparator.comparing(ExpenseDto::getTitle, java.util.Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                case "description" -> java.util.Comparator.comparing(ExpenseDto::getDescription, java.util.Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+                case "amount" -> java.util.Comparator.comparing(ExpenseDto::getAmount, java.util.Comparator.nullsFirst(java.util.Comparator.naturalOrder()));
+                case "expenseDate" -> java.util.Comparator.comparing(ExpenseDto::getExpenseDate, java.util.Comparator.nullsFirst(java.util.Comparator.naturalOrder()));
+                case "type" -> java.util.Comparator.comparing(ExpenseDto::getType, java.util.Comparator.nullsFirst(java.util.Comparator.naturalOrder()));
+                case "paymentMethod" -> java.util.Comparator.comparing(ExpenseDto::getPaymentMethod, java.util.Comparator.nullsFirst(java.util.Comparator.naturalOrder()));
+                default -> throw new RuntimeException("Cannot sort by " + o.getProperty());
+            };
+            if (o.isDescending()) next = next.reversed();
+            order = order == null ? next : order.thenComparing(next);
+        }
+        return order != null ? order : (a, b) -> 0;
+    }
+
+    // Ranked ids come from the in-memory text index; the other filters are applied to just those ids, and the
+    // page is cut from the relevance order (the requested sort does not apply)
+    private org.springframework.data.domain.Page<ExpenseDto> search(Long userId,
+                                                                   org.springframework.data.jpa.domain.Specification<Expense> spec,
+                                                                   String text,
+                                                                   org.springframework.data.domain.Pageable pageable) {
+        long[] ranked = searchService.search(userId, text);
+        if (ranked.length == 0) return org.springframework.data.domain.Page.empty(pageable);
+        java.util.List<Long> ids = java.util.Arrays.stream(ranked).boxed().toList();
+        java.util.Map<Long, Integer> rank = new java.util.HashMap<>();
+        for (int i = 0; i < ranked.length; i++) rank.put(ranked[i], i);
+        spec = spec.and((root, query, cb) -> root.get("id").in(ids));
+        java.util.List<ExpenseDto> rows = new java.util.ArrayList<>(expenseRepository.findDtos(spec,
+                org.springframework.data.domain.Sort.unsorted(), ids.size()));
+        rows.sort(java.util.Comparator.comparing(dto -> rank.get(dto.getId())));
+        int from = (int) Math.min(pageable.getOffset(), rows.size());
+        int to = Math.min(from + pageable.getPageSize(), rows.size());
+        return new org.springframework.data.domain.PageImpl<>(rows.subList(from, to), pageable, rows.size());
+    }
+
+    // Keyset pagination over (expenseDate, id): no count query and constant cost regardless of depth
+    @Transactional(readOnly = true)
+    public CursorPageDto<ExpenseDto> listByCursor(Long userId,
+                                                  java.time.LocalDate startDate,
+                                                  java.time.LocalDate endDate,
+                                                  Long categoryId,
+                                                  String type,
+                                                  java.math.BigDecimal minAmount,
+                                                  java.math.BigDecimal maxAmount,
+                                                  String cursor,
+                                                  int size,
+                                                  boolean ascending) {
+        if (size < 1 || size > MAX_PAGE_SIZE) throw new RuntimeException("size must be between 1 and " + MAX_PAGE_SIZE);
+        requireUser(userId);
+        org.springframework.data.jpa.domain.Specification<Expense> spec = filterSpec(userId, startDate, endDate, categoryId, type, minAmount, maxAmount);
+        ExpenseCursor after = cursor != null && !cursor.isBlank() ? ExpenseCursor.decode(cursor) : null;
+        if (after != null) {
+            // (expenseDate, id) past the cursor, spelled out as date > d OR (date = d AND id > i) since Criteria has no row-value comparison
+            spec = spec.and((root, q, cb) -> ascending
+                    ? cb.or(cb.greaterThan(root.get("expenseDate"), after.expenseDate()),
+                            cb.and(cb.equal(root.get("expenseDate"), after.expenseDate()), cb.greaterThan(root.get("id"), after.id())))
+                    : cb.or(cb.lessThan(root.get("expenseDate"), after.expenseDate()),
+                            cb.and(cb.equal(root.get("expenseDate"), after.expenseDate()), cb.lessThan(root.get("id"), after.id()))));
+        }
+        org.springframework.data.domain.Sort.Direction direction = ascending
+                ? org.springframework.data.domain.Sort.Direction.ASC : org.springframework.data.domain.Sort.Direction.DESC;
+        org.springframework.data.domain.Sort sort = org.springframework.data.domain.Sort.by(direction, "expenseDate", "id");
+
+        // Fetch one extra row to learn whether another slice exists
+        java.util.List<ExpenseDto> rows = expenseRepository.findDtos(spec, sort, size + 1);
+        // Only segments on the far side of the cursor can hold rows of this slice
+        java.time.LocalDate from = startDate;
+        java.time.LocalDate to = endDate;
+        if (after != null && ascending && (from == null || from.isBefore(after.expenseDate()))) from = after.expenseDate();
+        if (after != null && !ascending && (to == null || to.isAfter(after.expenseDate()))) to = after.expenseDate();
+        java.util.List<com.expensetracker.entity.ExpenseArchiveSegment> segments = archive.segments(userId, from, to);
+        if (!segments.isEmpty()) {
+            ExpenseArchive.Filter filter = archiveFilter(categoryId, type, minAmount, maxAmount);
+            java.util.function.Predicate<ExpenseArchive.ArchivedExpense> slice = row -> {
+                if (filter != null && !filter.test(row)) return false;
+                if (after == null) return true;
+                int c = row.expenseDate().compareTo(after.expenseDate());
+                if (c == 0) c = row.id().compareTo(after.id());
+                return ascending ? c > 0 : c < 0;
+            };
+            java.util.Comparator<ExpenseDto> order = java.util.Comparator.comparing(ExpenseDto::getExpenseDate).thenComparing(ExpenseDto::getId);
+            rows = archive.merge(userId, archive.estimate(segments, from, to, filter, false), from, to, slice, rows, size + 1,
+                    new org.springframework.data.domain.Sort.Order(direction, "expenseDate"), ascending ? order : order.reversed(), false).rows();
+        }
+        boolean hasNext = rows.size() > size;
+        if (hasNext) rows = rows.subList(0, size);
+        String nextCursor = null;
+        if (hasNext) {
+            ExpenseDto last = rows.get(rows.size() - 1);
+            nextCursor = new ExpenseCursor(last.getExpenseDate(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(rows, rows.size(), hasNext, nextCursor);
+    }
+
+    static org.springframework.data.jpa.domain.Specification<Expense> filterSpec(Long userId,
+                                                                                 java.time.LocalDate startDate,
+                                                                                 java.time.LocalDate endDate,
+                                                                                 Long categoryId,
+                                                                                 String type,
+                                                                                 java.math.BigDecimal minAmount,
+                                                                                 java.math.BigDecimal maxAmount) {
         org.springframework.data.jpa.domain.Specification<Expense> spec = (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
         if (startDate != null) spec = spec.and((root, q, cb) -> cb.greaterThanOrEqualTo(root.get("expenseDate"), startDate));
         if (endDate != null) spec = spec.and((root, q, cb) -> cb.lessThanOrEqualTo(root.get("expenseDate"), endDate));
@@ -39,19 +204,59 @@ public class ExpenseService {
         if (type != null) spec = spec.and((root, q, cb) -> cb.equal(root.get("type"), Expense.ExpenseType.valueOf(type.toUpperCase())));
         if (minAmount != null) spec = spec.and((root, q, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), minAmount));
         if (maxAmount != null) spec = spec.and((root, q, cb) -> cb.lessThanOrEqualTo(root.get("amount"), maxAmount));
+        return spec;
+    }
 
-        return expenseRepository.findAll(spec, pageable).map(this::toDto);
+    @Transactional(readOnly = true)
+    public ExpenseSummaryDto summary(Long userId, java.time.LocalDate startDate, java.time.LocalDate endDate) {
+        requireUser(userId);
+        return new ExpenseSummaryDto(startDate, endDate,
+                rollupService.totalExpenses(userId, startDate, endDate),
+                rollupService.totalIncome(userId, startDate, endDate),
+                rollupService.expensesByCategory(userId, startDate, endDate));
     }
 
     @Transactional
     public ExpenseDto create(Long userId, ExpenseDto dto) {
         validateAmount(dto.getAmount());
-        User user = requireUser(userId);
-        Category category = categoryRepository.findById(dto.getCategoryId())
-                .orElseThrow(() -> new RuntimeException("Category not found"));
-        if (!category.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Category does not belong to current user");
+        // Ownership comes from the category cache; user and category are bound as references, so no selects
+        CategoryCache.UserCategories categories = categoryCache.forUser(userId);
+        CategoryCache.CachedCategory category = categories.require(categorizationService.resolveCategoryId(userId, categories, dto));
+        Expense e = newExpense(dto, userRepository.getReferenceById(userId), categoryRepository.getReferenceById(category.id()));
+        Expense saved = expenseRepository.save(e);
+        rollupService.add(rollupService.contributionOf(saved));
+        eventPublisher.publishEvent(ExpensesChangedEvent.single(userId, null, ExpenseSnapshot.of(saved)));
+        return toDto(saved, category.name());
+    }
+
+    @Transactional
+    public ExpenseDto update(Long userId, Long id, ExpenseDto dto) {
+        Expense e = expenseRepository.findByIdAndUser(id, userRepository.getReferenceById(userId))
+                .orElseThrow(() -> new RuntimeException("Expense not found"));
+        ExpenseRollupService.Contribution before = rollupService.contributionOf(e);
+        ExpenseSnapshot snapshot = ExpenseSnapshot.of(e);
+        CategoryCache.CachedCategory category = categoryCache.require(userId,
+                dto.getCategoryId() != null ? dto.getCategoryId() : e.getCategory().getId());
+        applyUpdate(e, dto);
+        if (!category.id().equals(e.getCategory().getId())) {
+            e.setCategory(categoryRepository.getReferenceById(category.id()));
         }
+        Expense saved = expenseRepository.save(e);
+        rollupService.replace(before, rollupService.contributionOf(saved));
+        eventPublisher.publishEvent(ExpensesChangedEvent.single(userId, snapshot, ExpenseSnapshot.of(saved)));
+        return toDto(saved, category.name());
+    }
+
+    @Transactional
+    public void delete(Long userId, Long id) {
+        Expense e = expenseRepository.findByIdAndUser(id, userRepository.getReferenceById(userId))
+                .orElseThrow(() -> new RuntimeException("Expense not found"));
+        rollupService.remove(rollupService.contributionOf(e));
+        expenseRepository.delete(e);
+        eventPublisher.publishEvent(ExpensesChangedEvent.single(userId, ExpenseSnapshot.of(e), null));
+    }
+
+    static Expense newExpense(ExpenseDto dto, User user, Category category) {
         Expense e = new Expense();
         e.setTitle(dto.getTitle());
         e.setDescription(dto.getDescription());
@@ -65,15 +270,13 @@ public class ExpenseService {
         if (dto.getRecurringFrequency() != null) e.setRecurringFrequency(Expense.RecurringFrequency.valueOf(dto.getRecurringFrequency().toUpperCase()));
         e.setUser(user);
         e.setCategory(category);
-        Expense saved = expenseRepository.save(e);
-        return toDto(saved);
+        return e;
     }
 
-    @Transactional
-    public ExpenseDto update(Long userId, Long id, ExpenseDto dto) {
-        User user = requireUser(userId);
-        Expense e = expenseRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Expense not found"));
+    // Partial update of scalar fields; category changes are resolved by the caller
+    static void applyUpdate(Expense e, ExpenseDto dto) {
+        java.time.LocalDate scheduledFrom = e.getExpenseDate();
+        Expense.RecurringFrequency scheduledEvery = e.getRecurringFrequency();
         if (dto.getTitle() != null) e.setTitle(dto.getTitle());
         if (dto.getDescription() != null) e.setDescription(dto.getDescription());
         if (dto.getAmount() != null) { validateAmount(dto.getAmount()); e.setAmount(dto.getAmount()); }
@@ -84,24 +287,23 @@ public class ExpenseService {
         if (dto.getReceiptUrl() != null) e.setReceiptUrl(dto.getReceiptUrl());
         if (dto.getIsRecurring() != null) e.setIsRecurring(dto.getIsRecurring());
         if (dto.getRecurringFrequency() != null) e.setRecurringFrequency(Expense.RecurringFrequency.valueOf(dto.getRecurringFrequency().toUpperCase()));
-        if (dto.getCategoryId() != null) {
-            Category cat = categoryRepository.findById(dto.getCategoryId()).orElseThrow(() -> new RuntimeException("Category not found"));
-            if (!cat.getUser().getId().equals(userId)) throw new RuntimeException("Category does not belong to current user");
-            e.setCategory(cat);
+        // A changed schedule is re-derived by the recurring job from the template date and the occurrences so far.
+        // Clients resend every field on edit, so compare values: resetting on an unchanged schedule would make the job
+        // regenerate occurrences the user has deleted.
+        if (!java.util.Objects.equals(scheduledFrom, e.getExpenseDate())
+                || !java.util.Objects.equals(scheduledEvery, e.getRecurringFrequency())) {
+            e.setRecurrenceNextDate(null);
         }
-        Expense saved = expenseRepository.save(e);
-        return toDto(saved);
     }
 
-    @Transactional
-    public void delete(Long userId, Long id) {
-        User user = requireUser(userId);
-        Expense e = expenseRepository.findByIdAndUser(id, user)
-                .orElseThrow(() -> new RuntimeException("Expense not found"));
-        expenseRepository.delete(e);
+    // Lets callers reject bad enum values before touching an entity
+    static void validateEnums(ExpenseDto dto) {
+        if (dto.getType() != null) Expense.ExpenseType.valueOf(dto.getType().toUpperCase());
+        if (dto.getPaymentMethod() != null) Expense.PaymentMethod.valueOf(dto.getPaymentMethod().toUpperCase());
+        if (dto.getRecurringFrequency() != null) Expense.RecurringFrequency.valueOf(dto.getRecurringFrequency().toUpperCase());
     }
 
-    private void validateAmount(BigDecimal amount) {
+    static void validateAmount(BigDecimal amount) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Amount must be greater than 0");
         }
@@ -111,7 +313,11 @@ public class ExpenseService {
         return userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
     }
 
-    private ExpenseDto toDto(Expense e) {
+    static ExpenseDto toDto(Expense e) {
+        return toDto(e, e.getCategory().getName());
+    }
+
+    static ExpenseDto toDto(Expense e, String categoryName) {
         ExpenseDto dto = new ExpenseDto();
         dto.setId(e.getId());
         dto.setTitle(e.getTitle());
@@ -125,7 +331,7 @@ public class ExpenseService {
         dto.setIsRecurring(e.getIsRecurring());
         dto.setRecurringFrequency(e.getRecurringFrequency() != null ? e.getRecurringFrequency().name() : null);
         dto.setCategoryId(e.getCategory().getId());
-        dto.setCategoryName(e.getCategory().getName());
+        dto.setCategoryName(categoryName);
         return dto;
     }
 }
@@ -0,0 +1,171 @@
+package com.expensetracker.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index over one user's expense title/description/notes. Terms live in a sorted map so a query word
+// matches every term it prefixes; each term's postings are expense ids kept sorted (new ids append) with a
+// per-document weight (title occurrences count triple). Removal re-tokenizes the old text, so no forward index
+// is kept. Callers hold lock: read for search, write for add/remove.
+final class ExpenseTextIndex {
+
+    static final int MIN_TOKEN_LENGTH = 2;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int MAX_WEIGHT = 127;
+    // Rough heap cost of a term entry: TreeMap node, String and Postings headers
+    private static final long TERM_OVERHEAD_BYTES = 120;
+    // Prefix matches rank below the exact word
+    private static final double PREFIX_FACTOR = 0.7;
+    // Bounds the work of very short prefixes
+    private static final int MAX_EXPANSIONS = 512;
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    boolean loaded;
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private int documents;
+    private long postingBytes;
+
+    private static final class Postings {
+        long[] ids = new long[2];
+        byte[] weights = new byte[2];
+        int size;
+    }
+
+    int documents() {
+        return documents;
+    }
+
+    long memoryBytes() {
+        return postingBytes + terms.size() * TERM_OVERHEAD_BYTES;
+    }
+
+    void add(long id, String title, String description, String notes) {
+        Map<String, Integer> weights = weigh(title, description, notes);
+        if (weights.isEmpty()) return;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            Postings p = terms.get(entry.getKey());
+            if (p == null) {
+                p = new Postings();
+                terms.put(entry.getKey(), p);
+                postingBytes += p.ids.length * 9L;
+            }
+            insert(p, id, (byte) Math.min(MAX_WEIGHT, entry.getValue()));
+        }
+        documents++;
+    }
+
+    void remove(long id, String title, String description, String notes) {
+        Map<String, Integer> weights = weigh(title, description, notes);
+        if (weights.isEmpty()) return;
+        boolean removed = false;
+        for (String term : weights.keySet()) {
+            Postings p = terms.get(term);
+            if (p == null) continue;
+            int i = Arrays.binarySearch(p.ids, 0, p.size, id);
+            if (i < 0) continue;
+            System.arraycopy(p.ids, i + 1, p.ids, i, p.size - i - 1);
+            System.arraycopy(p.weights, i + 1, p.weights, i, p.size - i - 1);
+            p.size--;
+            removed = true;
+            if (p.size == 0) {
+                terms.remove(term);
+                postingBytes -= p.ids.length * 9L;
+            }
+        }
+        if (removed) documents--;
+    }
+
+    // Ids of documents matching every query word (each as a prefix), best score first, newest first on ties
+    long[] search(List<String> words, int limit) {
+        List<Map<Long, Double>> perWord = new ArrayList<>(words.size());
+        for (String word : words) {
+            Map<Long, Double> scores = new HashMap<>();
+            NavigableMap<String, Postings> matches = terms.subMap(word, true, word + Character.MAX_VALUE, false);
+            int expansions = 0;
+            for (Map.Entry<String, Postings> match : matches.entrySet()) {
+                if (expansions++ == MAX_EXPANSIONS) break;
+                Postings p = match.getValue();
+                double idf = Math.log(1 + (double) documents / p.size);
+                if (!match.getKey().equals(word)) idf *= PREFIX_FACTOR;
+                for (int i = 0; i < p.size; i++) {
+                    double score = p.weights[i] * idf;
+                    scores.merge(p.ids[i], score, Math::max);
+                }
+            }
+            if (scores.isEmpty()) return new long[0];
+            perWord.add(scores);
+        }
+        // Intersect starting from the most selective word
+        perWord.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        Map<Long, Double> result = perWord.get(0);
+        for (int w = 1; w < perWord.size() && !result.isEmpty(); w++) {
+            Map<Long, Double> other = perWord.get(w);
+            Map<Long, Double> next = new HashMap<>();
+            for (Map.Entry<Long, Double> entry : result.entrySet()) {
+                Double score = other.get(entry.getKey());
+                if (score != null) next.put(entry.getKey(), entry.getValue() + score);
+            }
+            result = next;
+        }
+        return result.entrySet().stream()
+                .sorted((a, b) -> {
+                    int c = Double.compare(b.getValue(), a.getValue());
+                    return c != 0 ? c : Long.compare(b.getKey(), a.getKey());
+                })
+                .limit(limit)
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+    }
+
+    private void insert(Postings p, long id, byte weight) {
+        int i = p.size > 0 && p.ids[p.size - 1] < id ? -(p.size + 1) : Arrays.binarySearch(p.ids, 0, p.size, id);
+        if (i >= 0) {
+            p.weights[i] = weight;
+            return;
+        }
+        i = -i - 1;
+        if (p.size == p.ids.length) {
+            int capacity = p.ids.length * 2;
+            postingBytes += (capacity - p.ids.length) * 9L;
+            p.ids = Arrays.copyOf(p.ids, capacity);
+            p.weights = Arrays.copyOf(p.weights, capacity);
+        }
+        System.arraycopy(p.ids, i, p.ids, i + 1, p.size - i);
+        System.arraycopy(p.weights, i, p.weights, i + 1, p.size - i);
+        p.ids[i] = id;
+        p.weights[i] = weight;
+        p.size++;
+    }
+
+    private static Map<String, Integer> weigh(String title, String description, String notes) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String t : tokenize(title)) weights.merge(t, TITLE_WEIGHT, Integer::sum);
+        for (String t : tokenize(description)) weights.merge(t, 1, Integer::sum);
+        for (String t : tokenize(notes)) weights.merge(t, 1, Integer::sum);
+        return weights;
+    }
+
+    // Lower-cased runs of letters/digits of at least MIN_TOKEN_LENGTH characters
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) return List.of();
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char ch = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(ch)) {
+                current.append(Character.toLowerCase(ch));
+            } else {
+                if (current.length() >= MIN_TOKEN_LENGTH) tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,265 @@
+package com.expensetracker.service;
+
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.JobCheckpoint;
+import com.expensetracker.event.ExpenseSnapshot;
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.JobCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Materialises due occurrences of recurring templates (isRecurring + recurringFrequency) as ordinary expenses.
+// Users with due templates are walked in keyset chunks; each chunk's users run in parallel on a bounded pool,
+// one transaction per user, and the chunk's last user id is checkpointed so an interrupted run resumes there.
+// Each template carries its next ungenerated date, and (source, date) is unique, so reruns never duplicate.
+@Service
+@Slf4j
+public class RecurringExpenseJob {
+
+    static final String JOB_NAME = "recurring-expenses";
+
+    public record Result(long users, long generated, long failedUsers, long durationMs) {
+    }
+
+    private record Advance(Long templateId, LocalDate expected, LocalDate next) {
+    }
+
+    private final ExpenseRepository expenseRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final ExpenseRollupService rollupService;
+    private final ExpenseArchive archive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int maxOccurrences;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Timer durationTimer;
+    private final Counter generatedCounter;
+    private final Counter failedUsersCounter;
+
+    public RecurringExpenseJob(ExpenseRepository expenseRepository,
+                               JobCheckpointRepository checkpointRepository,
+                               ExpenseRollupService rollupService,
+                               ExpenseArchive archive,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${recurring.chunk-size:500}") int chunkSize,
+                               @Value("${recurring.parallelism:4}") int parallelism,
+                               @Value("${recurring.max-occurrences-per-template:366}") int maxOccurrences,
+                               MeterRegistry meterRegistry) {
+        this.expenseRepository = expenseRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.rollupService = rollupService;
+        this.archive = archive;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxOccurrences = maxOccurrences;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "recurring-job-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.durationTimer = Timer.builder("recurring.job.duration")
+                .description("Wall time of a recurring expense materialisation run")
+                .register(meterRegistry);
+        this.generatedCounter = Counter.builder("recurring.job.generated")
+                .description("Expenses generated from recurring templates")
+                .register(meterRegistry);
+        this.failedUsersCounter = Counter.builder("recurring.job.failed.users")
+                .description("Users whose templates failed to materialise; retried on the next run")
+                .register(meterRegistry);
+    }
+
+    // recurring.cron=- disables the schedule
+    @Scheduled(cron = "${recurring.cron:0 30 1 * * *}")
+    public void runNightly() {
+        run(LocalDate.now());
+    }
+
+    public Result run(LocalDate today) {
+        if (!running.compareAndSet(false, true)) throw new RuntimeException("Recurring expense job is already running");
+        long started = System.nanoTime();
+        long users = 0;
+        long generated = 0;
+        long failed = 0;
+        try {
+            long afterUserId = checkpointRepository.findById(JOB_NAME)
+                    .filter(c -> c.getRunDate().equals(today) && c.getCompletedAt() == null)
+                    .map(JobCheckpoint::getLastUserId)
+                    .orElse(0L);
+            if (afterUserId > 0) log.info("Resuming recurring expense job for {} after user {}", today, afterUserId);
+            while (true) {
+                long after = afterUserId;
+                List<Long> userIds = expenseRepository.findUserIdsWithDueRecurring(after, today, PageRequest.of(0, chunkSize));
+                if (userIds.isEmpty()) break;
+                List<Future<Integer>> futures = new ArrayList<>(userIds.size());
+                for (Long userId : userIds) {
+                    futures.add(executor.submit(() -> materialize(userId, today)));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        generated += futures.get(i).get();
+                        users++;
+                    } catch (ExecutionException ex) {
+                        failed++;
+                        log.warn("Recurring expenses for user {} failed", userIds.get(i), ex.getCause());
+                    }
+                }
+                afterUserId = userIds.get(userIds.size() - 1);
+                checkpoint(today, afterUserId, false);
+            }
+            checkpoint(today, afterUserId, true);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Recurring expense job interrupted", ex);
+        } finally {
+            durationTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            generatedCounter.increment(generated);
+            failedUsersCounter.increment(failed);
+            running.set(false);
+        }
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Recurring expense job for {} generated {} expenses for {} users ({} failed) in {} ms",
+                today, generated, users, failed, durationMs);
+        return new Result(users, generated, failed, durationMs);
+    }
+
+    // One transaction per user: occurrences, template next dates, rollups and the change event commit together
+    private int materialize(Long userId, LocalDate today) {
+        Integer count = transactionTemplate.execute(status -> {
+            List<Expense> templates = expenseRepository.findDueRecurringTemplates(userId, today);
+            if (templates.isEmpty()) return 0;
+            // Templates seen for the first time (or rescheduled) continue after their latest occurrence, if any
+            List<Long> unknown = new ArrayList<>();
+            boolean mayHaveArchived = false;
+            LocalDate archiveCutoff = archive.cutoff(today);
+            for (Expense t : templates) {
+                if (t.getRecurrenceNextDate() == null) {
+                    unknown.add(t.getId());
+                    mayHaveArchived |= t.getExpenseDate().isBefore(archiveCutoff);
+                }
+            }
+            Map<Long, LocalDate> lastOccurrence = new HashMap<>();
+            if (!unknown.isEmpty()) {
+                for (Object[] row : expenseRepository.findLastOccurrenceDates(unknown)) {
+                    lastOccurrence.put((Long) row[0], (LocalDate) row[1]);
+                }
+            }
+            // Only templates dated before the archive cutoff can have occurrences in the archive
+            if (mayHaveArchived) {
+                archive.lastOccurrenceDates(userId, unknown).forEach((id, date) ->
+                        lastOccurrence.merge(id, date, (a, b) -> a.isAfter(b) ? a : b));
+            }
+            List<Expense> occurrences = new ArrayList<>();
+            List<Advance> advanced = new ArrayList<>();
+            for (Expense t : templates) {
+                LocalDate anchor = t.getExpenseDate();
+                Expense.RecurringFrequency frequency = t.getRecurringFrequency();
+                LocalDate next = t.getRecurrenceNextDate();
+                if (next == null) {
+                    LocalDate last = lastOccurrence.get(t.getId());
+                    next = following(anchor, frequency, last != null && last.isAfter(anchor) ? last : anchor);
+                }
+                for (int n = 0; n < maxOccurrences && !next.isAfter(today); n++) {
+                    occurrences.add(occurrence(t, next));
+                    next = following(anchor, frequency, next);
+                }
+                if (!next.equals(t.getRecurrenceNextDate())) advanced.add(new Advance(t.getId(), t.getRecurrenceNextDate(), next));
+            }
+            if (!occurrences.isEmpty()) {
+                expenseRepository.saveAll(occurrences);
+                expenseRepository.flush();
+            }
+            // Templates stay untouched in the persistence context, since a full-row flush would overwrite a concurrent
+            // edit. If an edit rescheduled one meanwhile, the user's whole transaction is retried on the next run.
+            for (Advance a : advanced) {
+                if (expenseRepository.advanceRecurrence(a.templateId(), a.expected(), a.next()) == 0) {
+                    throw new RuntimeException("Recurring template " + a.templateId() + " was rescheduled during the run");
+                }
+            }
+            if (occurrences.isEmpty()) return 0;
+            rollupService.addAll(occurrences.stream().map(rollupService::contributionOf).toList());
+            eventPublisher.publishEvent(new ExpensesChangedEvent(userId, occurrences.stream()
+                    .map(e -> new ExpensesChangedEvent.Change(null, ExpenseSnapshot.of(e))).toList()));
+            return occurrences.size();
+        });
+        return count != null ? count : 0;
+    }
+
+    private void checkpoint(LocalDate today, long lastUserId, boolean completed) {
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.save(
+                new JobCheckpoint(JOB_NAME, today, lastUserId, completed ? LocalDateTime.now() : null, null)));
+    }
+
+    private static Expense occurrence(Expense template, LocalDate date) {
+        Expense e = new Expense();
+        e.setTitle(template.getTitle());
+        e.setDescription(template.getDescription());
+        e.setAmount(template.getAmount());
+        e.setExpenseDate(date);
+        e.setType(template.getType());
+        e.setPaymentMethod(template.getPaymentMethod());
+        e.setNotes(template.getNotes());
+        e.setIsRecurring(false);
+        e.setRecurrenceSourceId(template.getId());
+        e.setUser(template.getUser());
+        e.setCategory(template.getCategory());
+        return e;
+    }
+
+    // First anchor + k periods strictly after date. Counting from the anchor keeps month-end templates on the
+    // month end (Jan 31 -> Feb 29 -> Mar 31) instead of drifting to the shortest month's day.
+    static LocalDate following(LocalDate anchor, Expense.RecurringFrequency frequency, LocalDate date) {
+        switch (frequency) {
+            case DAILY:
+                return date.plusDays(1);
+            case WEEKLY:
+                return anchor.plusWeeks(Math.max(0, ChronoUnit.DAYS.between(anchor, date)) / 7 + 1);
+            case MONTHLY: {
+                long k = Math.max(0, ChronoUnit.MONTHS.between(YearMonth.from(anchor), YearMonth.from(date)));
+                LocalDate candidate = anchor.plusMonths(k);
+                return candidate.isAfter(date) ? candidate : anchor.plusMonths(k + 1);
+            }
+            default: {
+                long k = Math.max(0, date.getYear() - anchor.getYear());
+                LocalDate candidate = anchor.plusYears(k);
+                return candidate.isAfter(date) ? candidate : anchor.plusYears(k + 1);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,21 @@
+package com.expensetracker.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Enable with rollup.backfill-on-startup=true once after deploying rollups onto an existing database
+@Component
+@ConditionalOnProperty(name = "rollup.backfill-on-startup", havingValue = "true")
+@RequiredArgsConstructor
+public class RollupBackfillRunner implements ApplicationRunner {
+
+    private final ExpenseRollupService rollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rollupService.rebuildAll();
+    }
+}
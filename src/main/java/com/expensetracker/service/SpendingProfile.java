@@ -0,0 +1,75 @@
+package com.expensetracker.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.HashMap;
+import java.util.Map;
+
+// One user's per-category amount statistics (Welford count/mean/M2) and day-of-week counts, seeded from the
+// persisted power sums and then moved along one committed change at a time. All access is synchronized on the
+// instance; a category costs ~100 bytes however many expenses it has.
+final class SpendingProfile {
+
+    private final Map<Long, CategoryStats> categories = new HashMap<>();
+
+    static final class CategoryStats {
+        long count;
+        double mean;
+        double m2;
+        // Index 0 = Sunday .. 6 = Saturday
+        final long[] weekdays = new long[7];
+
+        double standardDeviation() {
+            return count > 1 ? Math.sqrt(m2 / (count - 1)) : 0;
+        }
+    }
+
+    // Adds one persisted (category, weekday) row: count, sum and sum of squares, merged exactly
+    synchronized void seed(long categoryId, int dayOfWeek, long count, BigDecimal sum, BigDecimal sumSq) {
+        if (count <= 0) return;
+        CategoryStats s = categories.computeIfAbsent(categoryId, k -> new CategoryStats());
+        // Chan et al. merge of (count, mean, M2) with the row's own statistics
+        double rowMean = sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL64).doubleValue();
+        double rowM2 = Math.max(0, sumSq.subtract(sum.multiply(sum).divide(BigDecimal.valueOf(count), MathContext.DECIMAL128)).doubleValue());
+        long total = s.count + count;
+        double delta = rowMean - s.mean;
+        s.mean += delta * count / total;
+        s.m2 += rowM2 + delta * delta * s.count * count / total;
+        s.count = total;
+        s.weekdays[dayOfWeek - 1] += count;
+    }
+
+    synchronized void add(long categoryId, int dayOfWeek, double amount) {
+        CategoryStats s = categories.computeIfAbsent(categoryId, k -> new CategoryStats());
+        s.count++;
+        double delta = amount - s.mean;
+        s.mean += delta / s.count;
+        s.m2 += delta * (amount - s.mean);
+        s.weekdays[dayOfWeek - 1]++;
+    }
+
+    synchronized void remove(long categoryId, int dayOfWeek, double amount) {
+        CategoryStats s = categories.get(categoryId);
+        if (s == null) return;
+        if (s.count <= 1) {
+            categories.remove(categoryId);
+            return;
+        }
+        double previousMean = s.mean;
+        s.mean = (s.count * s.mean - amount) / (s.count - 1);
+        s.m2 = Math.max(0, s.m2 - (amount - s.mean) * (amount - previousMean));
+        s.count--;
+        s.weekdays[dayOfWeek - 1] = Math.max(0, s.weekdays[dayOfWeek - 1] - 1);
+    }
+
+    // Copies the category's statistics into target; false when the category has no history
+    synchronized boolean read(long categoryId, CategoryStats target) {
+        CategoryStats s = categories.get(categoryId);
+        if (s == null) return false;
+        target.count = s.count;
+        target.mean = s.mean;
+        target.m2 = s.m2;
+        System.arraycopy(s.weekdays, 0, target.weekdays, 0, 7);
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package com.expensetracker.service;
+
+import com.expensetracker.event.ExpensesChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-user version of the data behind the expense and category lists, moved after every committed write so list
+// responses can be validated (ETag) without a query. Versions come from one strictly increasing microsecond clock,
+// so a version is never reissued, even across restarts.
+// Users without an entry (never written since startup, or evicted) report the floor: the clock value at startup
+// or at the latest eviction, which is never below any version they were given before. Writes served by another
+// instance are not seen here.
+@Component
+public class UserDataVersions {
+
+    private final AtomicLong clock = new AtomicLong(nowMicros());
+    private final Cache<Long, Long> versions;
+    private volatile long floor = clock.get();
+
+    public UserDataVersions(@Value("${data-version.max-users:100000}") long maxUsers, MeterRegistry meterRegistry) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .<Long, Long>evictionListener((userId, version, cause) -> raiseFloor())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "userDataVersions");
+    }
+
+    public long current(Long userId) {
+        Long version = versions.getIfPresent(userId);
+        return version != null ? version : floor;
+    }
+
+    // Moves the user's version once the surrounding transaction commits, or now when there is none
+    public void bump(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.put(userId, next());
+                }
+            });
+        } else {
+            versions.put(userId, next());
+        }
+    }
+
+    // Covers every expense writer: single and batch writes, imports and the recurring job
+    @TransactionalEventListener
+    public void onExpensesChanged(ExpensesChangedEvent event) {
+        versions.put(event.userId(), next());
+    }
+
+    private long next() {
+        return clock.updateAndGet(last -> Math.max(last + 1, nowMicros()));
+    }
+
+    private void raiseFloor() {
+        floor = next();
+    }
+
+    private static long nowMicros() {
+        return System.currentTimeMillis() * 1000;
+    }
+}
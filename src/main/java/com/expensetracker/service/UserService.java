@@ -4,8 +4,10 @@ import com.expensetracker.dto.UserRegistrationDto;
 import com.expensetracker.dto.UserResponseDto;
 import com.expensetracker.entity.User;
 import com.expensetracker.repository.UserRepository;
+import com.expensetracker.security.PasswordHashingExecutor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,7 +15,7 @@ import org.springframework.stereotype.Service;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashing;
 
     public UserResponseDto registerUser(UserRegistrationDto registrationDto) {
         if (userRepository.existsByUsername(registrationDto.getUsername())) {
@@ -27,7 +29,7 @@ public class UserService {
         User user = new User();
         user.setUsername(registrationDto.getUsername());
         user.setEmail(registrationDto.getEmail());
-        user.setPassword(passwordEncoder.encode(registrationDto.getPassword()));
+        user.setPassword(passwordHashing.encode(registrationDto.getPassword()));
     user.setFirstName(registrationDto.getFirstName());
     user.setLastName(registrationDto.getLastName());
     user.setName(registrationDto.getName());
@@ -54,12 +56,21 @@ public class UserService {
     }
 
     public UserResponseDto getUserByUsernameOrEmail(String usernameOrEmail) {
-        User user = userRepository.findByUsername(usernameOrEmail)
-                .or(() -> userRepository.findByEmail(usernameOrEmail))
+        User user = userRepository.findByUsernameOrEmail(usernameOrEmail)
                 .orElseThrow(() -> new RuntimeException("User not found: " + usernameOrEmail));
         return convertToDto(user);
     }
 
+    // Loads the user with one query and checks the password on the bounded hashing pool
+    public User authenticate(String usernameOrEmail, String password) {
+        User user = userRepository.findByUsernameOrEmail(usernameOrEmail).orElse(null);
+        if (!passwordHashing.matches(password, user != null ? user.getPassword() : null)) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (Boolean.FALSE.equals(user.getIsActive())) throw new DisabledException("User is disabled");
+        return user;
+    }
+
     public UserResponseDto getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
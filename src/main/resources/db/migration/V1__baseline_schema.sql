@@ -0,0 +1,76 @@
+-- Schema as previously produced by hibernate ddl-auto=update (MySQLDialect).
+-- IF NOT EXISTS lets this run against databases that ddl-auto already created (baseline version 0),
+-- adding only the tables that are missing there.
+
+CREATE TABLE IF NOT EXISTS users (
+    is_active bit,
+    created_at datetime(6),
+    id bigint NOT NULL AUTO_INCREMENT,
+    updated_at datetime(6),
+    email varchar(255) NOT NULL,
+    first_name varchar(255),
+    last_name varchar(255),
+    name varchar(255),
+    password varchar(255) NOT NULL,
+    phone_number varchar(255),
+    role enum ('ADMIN','USER'),
+    username varchar(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_username UNIQUE (username)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS categories (
+    is_active bit,
+    created_at datetime(6),
+    id bigint NOT NULL AUTO_INCREMENT,
+    updated_at datetime(6),
+    user_id bigint NOT NULL,
+    color_code varchar(255),
+    description varchar(255),
+    icon_name varchar(255),
+    name varchar(255) NOT NULL,
+    type enum ('EXPENSE','INCOME') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_categories_user FOREIGN KEY (user_id) REFERENCES users (id)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS expenses (
+    amount decimal(10,2) NOT NULL,
+    expense_date date NOT NULL,
+    is_recurring bit,
+    category_id bigint NOT NULL,
+    created_at datetime(6),
+    id bigint NOT NULL,
+    updated_at datetime(6),
+    user_id bigint NOT NULL,
+    description varchar(255),
+    notes varchar(255),
+    payment_method enum ('BANK_TRANSFER','CASH','CREDIT_CARD','DEBIT_CARD','DIGITAL_WALLET','OTHER'),
+    receipt_url varchar(255),
+    recurring_frequency enum ('DAILY','MONTHLY','WEEKLY','YEARLY'),
+    title varchar(255) NOT NULL,
+    type enum ('EXPENSE','INCOME'),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_expenses_category FOREIGN KEY (category_id) REFERENCES categories (id),
+    CONSTRAINT fk_expenses_user FOREIGN KEY (user_id) REFERENCES users (id)
+) engine=InnoDB;
+
+CREATE TABLE IF NOT EXISTS expense_monthly_rollups (
+    month_key integer NOT NULL,
+    total_amount decimal(14,2) NOT NULL,
+    category_id bigint NOT NULL,
+    entry_count bigint NOT NULL,
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_id bigint NOT NULL,
+    type enum ('EXPENSE','INCOME') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_rollup_user_month_category_type UNIQUE (user_id, month_key, category_id, type)
+) engine=InnoDB;
+
+-- Table-backed sequence for Expense ids (MySQL has no native sequences)
+CREATE TABLE IF NOT EXISTS expense_seq (
+    next_val bigint
+) engine=InnoDB;
+
+INSERT INTO expense_seq (next_val) SELECT 1 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM expense_seq);
@@ -0,0 +1,14 @@
+-- Every expense query is scoped by user_id, so user_id leads each index; the rest follows the filters.
+
+-- Default listing and keyset pagination: user + expense_date range, ordered by (expense_date, id)
+CREATE INDEX idx_expenses_user_date ON expenses (user_id, expense_date, id);
+
+-- Listing filtered by category within a date range
+CREATE INDEX idx_expenses_user_category_date ON expenses (user_id, category_id, expense_date);
+
+-- Listing filtered by type, plus the SUM/GROUP BY aggregations (totals by type, by category, monthly rebuild):
+-- covers every column those queries read, so they never touch the clustered rows
+CREATE INDEX idx_expenses_user_type_date ON expenses (user_id, type, expense_date, category_id, amount);
+
+-- Categories are always loaded per user
+CREATE INDEX idx_categories_user ON categories (user_id, is_active);
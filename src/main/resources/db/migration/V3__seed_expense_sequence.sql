@@ -0,0 +1,3 @@
+-- Databases created before Expense ids moved to expense_seq hold AUTO_INCREMENT ids; start the pooled
+-- sequence above them, with one allocation block (50) of headroom since Hibernate hands out [next_val - 49, next_val].
+UPDATE expense_seq SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 50 FROM expenses));
@@ -0,0 +1,38 @@
+-- Per user x category x weekday power sums of EXPENSE amounts; mean/variance and the weekday profile of a
+-- category are derived from its (at most seven) rows. Sums are exact decimals so deltas commute.
+CREATE TABLE expense_category_stats (
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_id bigint NOT NULL,
+    category_id bigint NOT NULL,
+    -- 1 = Sunday .. 7 = Saturday, as MySQL DAYOFWEEK
+    day_of_week integer NOT NULL,
+    entry_count bigint NOT NULL,
+    amount_sum decimal(19,2) NOT NULL,
+    amount_sum_sq decimal(30,4) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_category_stats_user_category_day UNIQUE (user_id, category_id, day_of_week)
+) engine=InnoDB;
+
+INSERT INTO expense_category_stats (user_id, category_id, day_of_week, entry_count, amount_sum, amount_sum_sq)
+SELECT user_id, category_id, DAYOFWEEK(expense_date), COUNT(*), SUM(amount), SUM(amount * amount)
+FROM expenses
+WHERE type = 'EXPENSE'
+GROUP BY user_id, category_id, DAYOFWEEK(expense_date);
+
+-- Anomaly feed. Rows are deleted together with their expense by the application, so expense_id has no FK.
+CREATE TABLE expense_insights (
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_id bigint NOT NULL,
+    expense_id bigint NOT NULL,
+    category_id bigint NOT NULL,
+    kind enum ('AMOUNT_OUTLIER','UNUSUAL_DAY') NOT NULL,
+    score float(53) NOT NULL,
+    amount decimal(10,2) NOT NULL,
+    expense_date date NOT NULL,
+    message varchar(255) NOT NULL,
+    created_at datetime(6),
+    PRIMARY KEY (id)
+) engine=InnoDB;
+
+CREATE INDEX idx_expense_insights_user ON expense_insights (user_id, id);
+CREATE INDEX idx_expense_insights_expense ON expense_insights (expense_id);
@@ -0,0 +1,19 @@
+-- Occurrences point at the recurring template they were generated from; the unique key makes generation
+-- idempotent per period. Templates carry the next occurrence date not yet generated (NULL = derive it).
+ALTER TABLE expenses ADD COLUMN recurrence_source_id bigint;
+ALTER TABLE expenses ADD COLUMN recurrence_next_date date;
+
+ALTER TABLE expenses ADD CONSTRAINT uk_expenses_recurrence_occurrence UNIQUE (recurrence_source_id, expense_date);
+
+-- Nightly job: keyset over users that have due templates, then that user's due templates
+CREATE INDEX idx_expenses_recurring_user_next ON expenses (is_recurring, user_id, recurrence_next_date);
+
+-- Progress of scheduled jobs, so an interrupted run resumes after the last completed chunk
+CREATE TABLE scheduled_job_checkpoints (
+    job_name varchar(100) NOT NULL,
+    run_date date NOT NULL,
+    last_user_id bigint NOT NULL,
+    completed_at datetime(6),
+    updated_at datetime(6),
+    PRIMARY KEY (job_name)
+) engine=InnoDB;
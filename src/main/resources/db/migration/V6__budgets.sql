@@ -0,0 +1,31 @@
+-- Monthly spending limit per user and category; alert_percent is the early-warning threshold (100% always alerts)
+CREATE TABLE budgets (
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_id bigint NOT NULL,
+    category_id bigint NOT NULL,
+    amount decimal(10,2) NOT NULL,
+    alert_percent integer NOT NULL,
+    created_at datetime(6),
+    updated_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_budgets_user_category UNIQUE (user_id, category_id),
+    CONSTRAINT fk_budgets_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_budgets_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) engine=InnoDB;
+
+-- One row per budget, month and threshold crossed; the unique key makes alert delivery idempotent
+CREATE TABLE budget_alerts (
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_id bigint NOT NULL,
+    budget_id bigint NOT NULL,
+    category_id bigint NOT NULL,
+    month_key integer NOT NULL,
+    threshold_percent integer NOT NULL,
+    spent decimal(12,2) NOT NULL,
+    budget_amount decimal(10,2) NOT NULL,
+    created_at datetime(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_budget_alerts_budget_month_threshold UNIQUE (budget_id, month_key, threshold_percent)
+) engine=InnoDB;
+
+CREATE INDEX idx_budget_alerts_user ON budget_alerts (user_id, id);
@@ -0,0 +1,15 @@
+-- Cold archive: each row is one compressed, append-only file of a user's archived expenses (ExpenseArchive).
+-- A segment is inserted in the same transaction that deletes its rows from expenses, so a row is either live or
+-- listed here, never both; files without a row (a batch that rolled back) are never read.
+CREATE TABLE expense_archive_segments (
+    id bigint NOT NULL AUTO_INCREMENT,
+    user_id bigint NOT NULL,
+    file_name varchar(255) NOT NULL,
+    first_date date NOT NULL,
+    last_date date NOT NULL,
+    row_count integer NOT NULL,
+    created_at datetime(6),
+    PRIMARY KEY (id)
+) engine=InnoDB;
+
+CREATE INDEX idx_expense_archive_segments_user ON expense_archive_segments (user_id, first_date, last_date);
@@ -0,0 +1,15 @@
+-- Per-segment summary of an archive segment's rows by (type, category): how many there are and their amount range.
+-- Listings take archived totals from here and skip segments that cannot hold matching rows or cannot sort into the
+-- requested page, instead of reading every overlapping file. Segments written before this table have no groups and
+-- are always read.
+CREATE TABLE expense_archive_segment_groups (
+    id bigint NOT NULL AUTO_INCREMENT,
+    segment_id bigint NOT NULL,
+    type enum ('EXPENSE','INCOME'),
+    category_id bigint NOT NULL,
+    row_count integer NOT NULL,
+    amount_min decimal(10,2) NOT NULL,
+    amount_max decimal(10,2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_archive_segment_groups_segment FOREIGN KEY (segment_id) REFERENCES expense_archive_segments (id)
+) engine=InnoDB;
@@ -1,6 +1,9 @@
 package com.expensetracker.it;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
@@ -21,6 +24,9 @@ public class AuthIntegrationTest extends IntegrationTestBase {
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
     @Test
     void signup_login_me_flow() throws Exception {
         var signupPayload = Map.of(
@@ -53,4 +59,40 @@ public class AuthIntegrationTest extends IntegrationTestBase {
         mockMvc.perform(get("/users/me").header("Authorization", "Bearer " + token))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void login_by_email_is_one_query_and_wrong_passwords_are_rejected() throws Exception {
+        var signupPayload = Map.of(
+                "username", "emaillogin",
+                "email", "emaillogin@example.com",
+                "password", "Password123!",
+                "name", "Email Login"
+        );
+        mockMvc.perform(post("/auth/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupPayload)))
+                .andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        var loginResponse = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "usernameOrEmail", "emaillogin@example.com", "password", "Password123!"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(objectMapper.readTree(loginResponse).get("user").get("username").asText()).isEqualTo("emaillogin");
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "usernameOrEmail", "emaillogin", "password", "wrong-password"))))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "usernameOrEmail", "nobody@example.com", "password", "Password123!"))))
+                .andExpect(status().isUnauthorized());
+    }
 }
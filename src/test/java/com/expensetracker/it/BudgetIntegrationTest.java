@@ -0,0 +1,203 @@
+package com.expensetracker.it;
+
+import com.expensetracker.repository.BudgetAlertRepository;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.service.BudgetSpendTracker;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class BudgetIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    BudgetSpendTracker spendTracker;
+
+    @Autowired
+    BudgetAlertRepository alertRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @SpyBean
+    BudgetRepository budgetRepository;
+
+    String token;
+    long userId;
+    long categoryId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        signup("budgetuser", "budget@example.com");
+        JsonNode login = login("budgetuser");
+        token = login.get("accessToken").asText();
+        userId = login.get("user").get("id").asLong();
+
+        categoryId = createCategory(token, "Dining", "EXPENSE");
+    }
+
+    @Test
+    void spend_is_tracked_per_month_and_thresholds_alert_once() throws Exception {
+        LocalDate today = LocalDate.now();
+        // Spend before the budget exists and in another month
+        createExpense(30, today);
+        createExpense(500, today.minusMonths(1));
+
+        Map<String, Object> budget = Map.of("categoryId", categoryId, "amount", 100, "alertPercent", 80);
+        mockMvc.perform(post("/budgets").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(budget)))
+                .andExpect(status().isOk());
+        assertThat(budget().get("spent").decimalValue()).isEqualByComparingTo("30.00");
+
+        createExpense(55, today);
+        JsonNode progress = budget();
+        assertThat(progress.get("spent").decimalValue()).isEqualByComparingTo("85.00");
+        assertThat(progress.get("remaining").decimalValue()).isEqualByComparingTo("15.00");
+        assertThat(progress.get("percentUsed").asDouble()).isEqualTo(85.0);
+
+        long over = createExpense(20, today);
+        JsonNode alerts = awaitAlerts(2);
+        assertThat(alerts.get(0).get("thresholdPercent").asInt()).isEqualTo(100);
+        assertThat(alerts.get(1).get("thresholdPercent").asInt()).isEqualTo(80);
+        assertThat(alerts.get(1).get("categoryName").asText()).isEqualTo("Dining");
+
+        mockMvc.perform(delete("/expenses/" + over).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        assertThat(budget().get("spent").decimalValue()).isEqualByComparingTo("85.00");
+
+        // Reconciliation agrees with the incrementally maintained counter
+        spendTracker.reconcile();
+        assertThat(budget().get("spent").decimalValue()).isEqualByComparingTo("85.00");
+
+        // Crossing 100% again in the same month does not alert twice
+        createExpense(20, today);
+        Thread.sleep(200);
+        assertThat(awaitAlerts(2)).hasSize(2);
+
+        // A duplicate delivered by another instance is skipped without marking the transaction rollback-only
+        long budgetId = budget().get("id").asLong();
+        int monthKey = today.getYear() * 100 + today.getMonthValue();
+        Integer inserted = transactionTemplate.execute(status -> alertRepository.insertIfAbsent(userId, budgetId, categoryId,
+                monthKey, 100, new BigDecimal("120.00"), new BigDecimal("100.00"), LocalDateTime.now()));
+        assertThat(inserted).isZero();
+        assertThat(awaitAlerts(2)).hasSize(2);
+    }
+
+    @Test
+    void reconciliation_keeps_changes_committed_while_it_reads() throws Exception {
+        String otherToken = signupAndLogin("reconcileuser", "reconcile@example.com");
+        long groceries = createCategory(otherToken, "Groceries", "EXPENSE");
+        long fuel = createCategory(otherToken, "Fuel", "EXPENSE");
+        LocalDate today = LocalDate.now();
+        postBudget(otherToken, groceries);
+        createExpense(otherToken, groceries, 30, today);
+        // Drift the rollup, as a write served by another instance would
+        jdbcTemplate.update("UPDATE expense_monthly_rollups SET total_amount = total_amount + 10 WHERE category_id = ?", groceries);
+
+        // Once the first row is read, another thread commits an expense and a new budget
+        // (Boot spies on a repository proxy through a delegating default answer)
+        Answer<?> realMethod = mockingDetails(budgetRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Stream<?> rows = (Stream<?>) realMethod.answer(invocation);
+            AtomicBoolean interleaved = new AtomicBoolean();
+            return rows.peek(row -> {
+                if (interleaved.getAndSet(true)) return;
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        createExpense(otherToken, groceries, 5, today);
+                        postBudget(otherToken, fuel);
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }).join();
+            });
+        }).when(budgetRepository).streamWithMonthSpend(anyInt(), any());
+        double tracked = meterRegistry.get("budget.tracked").gauge().value();
+        spendTracker.reconcile();
+
+        // The drift is corrected, the later expense kept and the later budget still tracked
+        assertThat(meterRegistry.get("budget.tracked").gauge().value()).isEqualTo(tracked + 1);
+        var res = mockMvc.perform(get("/budgets").header("Authorization", "Bearer " + otherToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode budgets = objectMapper.readTree(res);
+        assertThat(budgets.get(0).get("spent").decimalValue()).isEqualByComparingTo("45.00");
+    }
+
+    private void postBudget(String token, long categoryId) throws Exception {
+        Map<String, Object> budget = Map.of("categoryId", categoryId, "amount", 100, "alertPercent", 80);
+        mockMvc.perform(post("/budgets").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(budget)))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode budget() throws Exception {
+        var res = mockMvc.perform(get("/budgets").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode budgets = objectMapper.readTree(res);
+        assertThat(budgets).hasSize(1);
+        return budgets.get(0);
+    }
+
+    // Alerts are written asynchronously
+    private JsonNode awaitAlerts(int expected) throws Exception {
+        JsonNode content = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            var res = mockMvc.perform(get("/budgets/alerts").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            content = objectMapper.readTree(res).get("content");
+            if (content.size() >= expected) break;
+            Thread.sleep(100);
+        }
+        return content;
+    }
+
+    private long createExpense(int amount, LocalDate date) throws Exception {
+        return createExpense(token, categoryId, amount, date);
+    }
+
+    private long createExpense(String token, long categoryId, int amount, LocalDate date) throws Exception {
+        var payload = Map.of(
+                "title", "Dinner",
+                "amount", amount,
+                "expenseDate", date.toString(),
+                "type", "EXPENSE",
+                "categoryId", categoryId
+        );
+        return createExpense(token, payload);
+    }
+}
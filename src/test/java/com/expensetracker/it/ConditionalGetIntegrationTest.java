@@ -0,0 +1,91 @@
+package com.expensetracker.it;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ConditionalGetIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    String token;
+    long categoryId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("etaguser", "etag@example.com");
+
+        categoryId = createCategory(token, "Groceries", "EXPENSE");
+        for (int i = 1; i <= 20; i++) createExpense("Shop " + i);
+    }
+
+    @Test
+    void unchanged_lists_revalidate_without_queries_until_a_write() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        MockHttpServletResponse full = mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk()).andReturn().getResponse();
+        long fullStatements = statistics.getPrepareStatementCount();
+        String etag = full.getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        assertThat(full.getHeader(HttpHeaders.LAST_MODIFIED)).isNull();
+        assertThat(full.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("private, no-cache");
+        assertThat(fullStatements).isPositive();
+        assertThat(full.getContentLength() > 0 ? full.getContentLength() : full.getContentAsByteArray().length).isGreaterThan(1000);
+
+        // A polling client with the tag gets an empty 304 and costs no statements
+        statistics.clear();
+        MockHttpServletResponse revalidated = mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified()).andReturn().getResponse();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(revalidated.getContentAsByteArray()).isEmpty();
+
+        // Expense and category writes both move the version
+        createExpense("Shop 21");
+        String afterExpense = mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(afterExpense).isNotEqualTo(etag);
+        // Dates have whole-second resolution, so If-Modified-Since alone never yields a 304
+        mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Sun, 01 Jan 2090 00:00:00 GMT"))
+                .andExpect(status().isOk());
+
+        String categoriesTag = mockMvc.perform(get("/categories").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/categories").header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, categoriesTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(put("/categories/" + categoryId).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", "Food", "type", "EXPENSE"))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/categories").header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, categoriesTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token)
+                        .header(HttpHeaders.IF_NONE_MATCH, afterExpense))
+                .andExpect(status().isOk());
+    }
+
+    private void createExpense(String title) throws Exception {
+        var payload = Map.of("title", title, "amount", 12.5, "expenseDate", "2024-05-10", "categoryId", categoryId);
+        createExpense(token, payload);
+    }
+}
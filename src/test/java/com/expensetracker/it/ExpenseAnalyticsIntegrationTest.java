@@ -0,0 +1,85 @@
+package com.expensetracker.it;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseAnalyticsIntegrationTest extends IntegrationTestBase {
+
+    String token;
+    long foodId;
+    long rentId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("analyticsuser", "analytics@example.com");
+        foodId = createCategory(token, "Food", "EXPENSE");
+        rentId = createCategory(token, "Rent", "EXPENSE");
+    }
+
+    @Test
+    void breakdowns_follow_writes_after_the_columns_are_loaded() throws Exception {
+        createExpense("Lunch", "12.50", "2024-05-03", foodId);
+        long dinnerId = createExpense("Dinner", "30.00", "2024-05-20", foodId);
+        createExpense("May rent", "900.00", "2024-05-01", rentId);
+
+        JsonNode byCategory = get("/insights/breakdown", "groupBy", "CATEGORY", "startDate", "2024-05-01", "endDate", "2024-05-31");
+        assertThat(byCategory).hasSize(2);
+        assertThat(byCategory.get(0).get("label").asText()).isEqualTo("Rent");
+        assertThat(byCategory.get(1).get("total").decimalValue()).isEqualByComparingTo("42.50");
+        assertThat(byCategory.get(1).get("count").asLong()).isEqualTo(2);
+
+        // Columns are resident now; these writes must reach them through the after-commit event
+        createExpense("June rent", "950.00", "2024-06-01", rentId);
+        mockMvc.perform(put("/expenses/" + dinnerId).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "title", "Dinner", "amount", 45.00, "expenseDate", "2024-06-02", "categoryId", foodId))))
+                .andExpect(status().isOk());
+
+        JsonNode byMonth = get("/insights/breakdown", "groupBy", "MONTH", "startDate", "2024-04-15", "endDate", "2024-06-30");
+        assertThat(byMonth).hasSize(3);
+        assertThat(byMonth.get(0).get("key").asText()).isEqualTo("2024-04");
+        assertThat(byMonth.get(0).get("count").asLong()).isZero();
+        assertThat(byMonth.get(1).get("total").decimalValue()).isEqualByComparingTo("912.50");
+        assertThat(byMonth.get(2).get("total").decimalValue()).isEqualByComparingTo("995.00");
+
+        mockMvc.perform(delete("/expenses/" + dinnerId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        JsonNode top = get("/insights/top-expenses", "limit", "2");
+        assertThat(top).hasSize(2);
+        assertThat(top.get(0).get("amount").decimalValue()).isEqualByComparingTo("950.00");
+        assertThat(top.get(1).get("amount").decimalValue()).isEqualByComparingTo("900.00");
+        assertThat(top.get(1).get("categoryName").asText()).isEqualTo("Rent");
+
+        JsonNode june = get("/insights/breakdown", "groupBy", "CATEGORY", "startDate", "2024-06-01", "endDate", "2024-06-30");
+        assertThat(june).hasSize(1);
+        assertThat(june.get(0).get("total").decimalValue()).isEqualByComparingTo("950.00");
+    }
+
+    private long createExpense(String title, String amount, String date, long categoryId) throws Exception {
+        return createExpense(token, Map.of(
+                "title", title,
+                "amount", new java.math.BigDecimal(amount),
+                "expenseDate", date,
+                "type", "EXPENSE",
+                "categoryId", categoryId
+        ));
+    }
+
+    private JsonNode get(String path, String... params) throws Exception {
+        var request = org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get(path)
+                .header("Authorization", "Bearer " + token);
+        for (int i = 0; i < params.length; i += 2) request.param(params[i], params[i + 1]);
+        var res = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(res);
+    }
+}
@@ -0,0 +1,71 @@
+package com.expensetracker.it;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseAnomalyIntegrationTest extends IntegrationTestBase {
+
+    String token;
+    long foodId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("anomalyuser", "anomaly@example.com");
+
+        foodId = createCategory(token, "Food", "EXPENSE");
+    }
+
+    @Test
+    void outlier_is_flagged_on_create_and_cleared_on_delete() throws Exception {
+        LocalDate date = LocalDate.of(2024, 3, 4);
+        for (int amount : new int[]{48, 50, 52, 49, 51, 50}) {
+            createExpense(amount, date);
+        }
+        // Within the category's usual range
+        createExpense(55, date);
+        assertThat(anomalies().get("content")).isEmpty();
+
+        long outlierId = createExpense(400, date);
+        JsonNode content = anomalies().get("content");
+        assertThat(content).hasSize(1);
+        assertThat(content.get(0).get("kind").asText()).isEqualTo("AMOUNT_OUTLIER");
+        assertThat(content.get(0).get("expenseId").asLong()).isEqualTo(outlierId);
+        assertThat(content.get(0).get("categoryName").asText()).isEqualTo("Food");
+        assertThat(content.get(0).get("score").asDouble()).isGreaterThan(3.0);
+
+        mockMvc.perform(delete("/expenses/" + outlierId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        assertThat(anomalies().get("content")).isEmpty();
+
+        // The deleted outlier no longer widens the statistics, so the same amount is flagged again
+        long again = createExpense(400, date);
+        assertThat(anomalies().get("content").get(0).get("expenseId").asLong()).isEqualTo(again);
+    }
+
+    private JsonNode anomalies() throws Exception {
+        var res = mockMvc.perform(get("/insights/anomalies").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(res);
+    }
+
+    private long createExpense(int amount, LocalDate date) throws Exception {
+        var payload = Map.of(
+                "title", "Lunch",
+                "amount", amount,
+                "expenseDate", date.toString(),
+                "type", "EXPENSE",
+                "categoryId", foodId
+        );
+        return createExpense(token, payload);
+    }
+}
@@ -0,0 +1,198 @@
+package com.expensetracker.it;
+
+import com.expensetracker.service.ExpenseArchiveJob;
+import com.expensetracker.service.ExpenseRollupService;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseArchiveIntegrationTest extends IntegrationTestBase {
+
+    static final Path ARCHIVE_DIR = createTempDir();
+
+    @DynamicPropertySource
+    static void archive(DynamicPropertyRegistry registry) {
+        registry.add("archive.directory", ARCHIVE_DIR::toString);
+        registry.add("archive.horizon", () -> "P3Y");
+        // Several segments per user, so readers have to merge them
+        registry.add("archive.batch-size", () -> "2");
+        // One search result, so an archived id left in the text index would take the only slot
+        registry.add("search.max-results", () -> "1");
+    }
+
+    @Autowired
+    ExpenseArchiveJob archiveJob;
+
+    @Autowired
+    ExpenseRollupService rollupService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    String token;
+    long userId;
+    long categoryId;
+    long oldExpenseId;
+
+    @BeforeAll
+    void setupUserWithOldAndRecentExpenses() throws Exception {
+        signup("archiveuser", "archive@example.com");
+        JsonNode login = login("archiveuser");
+        token = login.get("accessToken").asText();
+        userId = login.get("user").get("id").asLong();
+
+        categoryId = createCategory(token, "Household", "EXPENSE");
+
+        // Created first, so on a score tie every archived "old" row ranks ahead of it
+        createExpense("Old subscription", 7, "2019-01-05", "EXPENSE", true);
+        oldExpenseId = createExpense("Old lamp", 10, "2019-03-10", "EXPENSE", false);
+        createExpense("Old chair", 20, "2019-03-20", "EXPENSE", false);
+        createExpense("Old bonus", 100, "2020-06-15", "INCOME", false);
+        createExpense("Coffee", 5, LocalDate.now().minusDays(3).toString(), "EXPENSE", false);
+    }
+
+    @Test
+    void archived_expenses_leave_the_table_but_not_the_listings_or_totals() throws Exception {
+        List<Long> listedBefore = ids(list(Map.of("size", "10")));
+        List<Long> cursorBefore = cursorIds();
+        JsonNode summaryBefore = summary("2019-03-05", "2019-04-30");
+        String exportBefore = export();
+        // Loads the user's text index while the old rows are still live
+        assertThat(list(Map.of("q", "old")).get("totalElements").asLong()).isEqualTo(1);
+
+        ExpenseArchiveJob.Result result = archiveJob.run(LocalDate.now());
+        assertThat(result.failedUsers()).isZero();
+        // Everything before the cutoff moved except the recurring template
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM expenses WHERE user_id = ?", Long.class, userId)).isEqualTo(2);
+        try (Stream<Path> files = Files.walk(ARCHIVE_DIR.resolve(String.valueOf(userId)))) {
+            assertThat(files.filter(f -> f.toString().endsWith(".seg.gz"))).hasSize(2);
+        }
+
+        assertThat(ids(list(Map.of("size", "10")))).isEqualTo(listedBefore);
+        assertThat(ids(list(Map.of("size", "2", "page", "1")))).isEqualTo(listedBefore.subList(2, 4));
+        assertThat(cursorIds()).isEqualTo(cursorBefore);
+        assertThat(summary("2019-03-05", "2019-04-30")).isEqualTo(summaryBefore);
+        assertThat(export()).isEqualTo(exportBefore);
+
+        // Search covers live rows only, and the archived ones have left the loaded index
+        JsonNode searched = list(Map.of("q", "old"));
+        assertThat(searched.get("totalElements").asLong()).isEqualTo(1);
+        assertThat(searched.get("content").get(0).get("title").asText()).isEqualTo("Old subscription");
+
+        // Non-date filters apply to archived rows too
+        JsonNode filtered = list(Map.of("startDate", "2019-01-01", "endDate", "2019-12-31", "minAmount", "15"));
+        assertThat(filtered.get("totalElements").asLong()).isEqualTo(1);
+        assertThat(filtered.get("content").get(0).get("title").asText()).isEqualTo("Old chair");
+
+        // A newest-first page that ends after the archived dates takes the archived count from the segment index,
+        // and a range starting after the cutoff does not look at the archive at all
+        double reads = meterRegistry.get("expense.archive.segment.reads").counter().count();
+        assertThat(list(Map.of("size", "1")).get("totalElements").asLong()).isEqualTo(5);
+        SqlCapture.start();
+        assertThat(list(Map.of("startDate", LocalDate.now().minusDays(30).toString())).get("totalElements").asLong()).isEqualTo(1);
+        assertThat(SqlCapture.stop()).noneMatch(s -> s.sql().contains("expense_archive_segments"));
+        assertThat(meterRegistry.get("expense.archive.segment.reads").counter().count()).isEqualTo(reads);
+
+        // Filtered totals come from the per-segment group summaries, and an amount-sorted page only reads segments
+        // whose amount range can reach it
+        assertThat(list(Map.of("size", "1", "type", "EXPENSE")).get("totalElements").asLong()).isEqualTo(4);
+        JsonNode cheapest = list(Map.of("size", "1", "sort", "amount,asc"));
+        assertThat(cheapest.get("totalElements").asLong()).isEqualTo(5);
+        assertThat(cheapest.get("content").get(0).get("title").asText()).isEqualTo("Coffee");
+        assertThat(meterRegistry.get("expense.archive.segment.reads").counter().count()).isEqualTo(reads);
+        assertThat(list(Map.of("size", "1", "sort", "amount,desc")).get("content").get(0).get("title").asText()).isEqualTo("Old bonus");
+        assertThat(meterRegistry.get("expense.archive.segment.reads").counter().count()).isEqualTo(reads + 1);
+
+        // Pages deeper than archive.max-merge-window are refused instead of merging that many rows
+        mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token).param("page", "10000").param("size", "1"))
+                .andExpect(status().isBadRequest());
+
+        // Rebuilt rollups still count archived expenses
+        rollupService.rebuild(userId);
+        assertThat(summary("2019-03-01", "2019-03-31").get("totalExpenses").decimalValue()).isEqualByComparingTo("30");
+
+        // Archived expenses are read-only
+        mockMvc.perform(put("/expenses/" + oldExpenseId).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("title", "Renamed lamp"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long createExpense(String title, int amount, String date, String type, boolean recurring) throws Exception {
+        var payload = Map.of("title", title, "amount", amount, "expenseDate", date, "type", type,
+                "categoryId", categoryId, "isRecurring", recurring, "recurringFrequency", "MONTHLY");
+        return createExpense(token, payload);
+    }
+
+    private JsonNode list(Map<String, String> params) throws Exception {
+        var request = get("/expenses").header("Authorization", "Bearer " + token);
+        params.forEach((name, value) -> request.param(name, value));
+        var res = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(res);
+    }
+
+    private List<Long> cursorIds() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            var res = mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token)
+                            .param("cursor", cursor).param("size", "2").param("sort", "expenseDate,asc"))
+                    .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+            JsonNode slice = objectMapper.readTree(res);
+            slice.get("content").forEach(e -> ids.add(e.get("id").asLong()));
+            cursor = slice.get("nextCursor").isNull() ? null : slice.get("nextCursor").asText();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private JsonNode summary(String startDate, String endDate) throws Exception {
+        var res = mockMvc.perform(get("/expenses/summary").header("Authorization", "Bearer " + token)
+                        .param("startDate", startDate).param("endDate", endDate))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(res);
+    }
+
+    private String export() throws Exception {
+        var result = mockMvc.perform(get("/expenses/export").header("Authorization", "Bearer " + token))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    }
+
+    private static List<Long> ids(JsonNode page) {
+        List<Long> ids = new ArrayList<>();
+        page.get("content").forEach(e -> ids.add(e.get("id").asLong()));
+        return ids;
+    }
+
+    private static Path createTempDir() {
+        try {
+            return Files.createTempDirectory("expense-archive");
+        } catch (java.io.IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.expensetracker.it;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseBatchIntegrationTest extends IntegrationTestBase {
+
+    String token;
+    long categoryId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("batchuser", "batch@example.com");
+
+        categoryId = createCategory(token, "Dining", "EXPENSE");
+    }
+
+    @Test
+    void batch_applies_operations_in_order_and_reports_each_result() throws Exception {
+        JsonNode created = batch(List.of(
+                Map.of("op", "CREATE", "expense", expense("Brunch", 40, "2024-08-03")),
+                Map.of("op", "CREATE", "expense", expense("Dinner", 60, "2024-08-04"))));
+        long brunchId = created.get(0).get("id").asLong();
+        long dinnerId = created.get(1).get("id").asLong();
+        assertThat(created.get(1).get("expense").get("categoryName").asText()).isEqualTo("Dining");
+
+        JsonNode results = batch(List.of(
+                Map.of("op", "UPDATE", "id", brunchId, "expense", expense("Brunch", 45, "2024-08-03")),
+                Map.of("op", "DELETE", "id", dinnerId),
+                Map.of("op", "DELETE", "id", dinnerId),
+                Map.of("op", "CREATE", "expense", Map.of("title", "No amount", "expenseDate", "2024-08-05", "categoryId", categoryId)),
+                Map.of("op", "MERGE", "id", brunchId)));
+
+        assertThat(results).hasSize(5);
+        assertThat(results.get(0).get("status").asText()).isEqualTo("OK");
+        assertThat(results.get(0).get("expense").get("amount").decimalValue()).isEqualByComparingTo("45");
+        assertThat(results.get(1).get("status").asText()).isEqualTo("OK");
+        assertThat(results.get(2).get("error").asText()).isEqualTo("Expense not found");
+        assertThat(results.get(3).get("status").asText()).isEqualTo("ERROR");
+        assertThat(results.get(4).get("status").asText()).isEqualTo("ERROR");
+
+        var summary = mockMvc.perform(get("/expenses/summary").header("Authorization", "Bearer " + token)
+                        .param("startDate", "2024-08-01").param("endDate", "2024-08-31"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(summary).get("totalExpenses").decimalValue()).isEqualByComparingTo("45");
+    }
+
+    private Map<String, Object> expense(String title, int amount, String date) {
+        return Map.of("title", title, "amount", amount, "expenseDate", date, "categoryId", categoryId);
+    }
+
+    private JsonNode batch(List<Map<String, Object>> operations) throws Exception {
+        var res = mockMvc.perform(post("/expenses/batch").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(operations)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(res);
+    }
+}
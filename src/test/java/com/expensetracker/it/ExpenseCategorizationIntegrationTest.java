@@ -0,0 +1,86 @@
+package com.expensetracker.it;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseCategorizationIntegrationTest extends IntegrationTestBase {
+
+    String token;
+    long groceriesId;
+    long transportId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("classifyuser", "classify@example.com");
+
+        groceriesId = createCategory(token, "Groceries", "EXPENSE");
+        transportId = createCategory(token, "Transport", "EXPENSE");
+    }
+
+    @Test
+    void suggests_and_autofills_from_learned_titles() throws Exception {
+        // Nothing learned yet: no suggestion, and a create without a category is rejected
+        assertThat(suggest("weekly supermarket run")).isEmpty();
+        mockMvc.perform(post("/expenses").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(expense("Supermarket", null))))
+                .andExpect(status().isBadRequest());
+
+        createExpense("Supermarket groceries", groceriesId);
+        createExpense("Fresh vegetables from supermarket", groceriesId);
+        createExpense("Uber ride to airport", transportId);
+        long taxiId = createExpense("Taxi to office", groceriesId);
+
+        JsonNode suggestions = suggest("Supermarket weekly shop");
+        assertThat(suggestions.get(0).get("categoryId").asLong()).isEqualTo(groceriesId);
+        assertThat(suggestions.get(0).get("probability").asDouble()).isGreaterThan(0.5);
+
+        // Re-categorising an expense moves what the model learned from it
+        mockMvc.perform(put("/expenses/" + taxiId).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(expense("Taxi to office", transportId))))
+                .andExpect(status().isOk());
+        assertThat(suggest("taxi").get(0).get("categoryId").asLong()).isEqualTo(transportId);
+
+        // categoryId omitted: filled from the top suggestion
+        var res = mockMvc.perform(post("/expenses").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(expense("Taxi home", null))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(res).get("categoryId").asLong()).isEqualTo(transportId);
+    }
+
+    private JsonNode suggest(String title) throws Exception {
+        var res = mockMvc.perform(post("/expenses/suggest-category").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("title", title))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(res);
+    }
+
+    private long createExpense(String title, long categoryId) throws Exception {
+        return createExpense(token, expense(title, categoryId));
+    }
+
+    private static Map<String, Object> expense(String title, Long categoryId) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("title", title);
+        payload.put("amount", 12.30);
+        payload.put("expenseDate", "2024-07-01");
+        payload.put("type", "EXPENSE");
+        if (categoryId != null) payload.put("categoryId", categoryId);
+        return payload;
+    }
+}
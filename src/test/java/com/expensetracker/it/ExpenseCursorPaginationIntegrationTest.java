@@ -0,0 +1,153 @@
+package com.expensetracker.it;
+
+import com.expensetracker.service.ExpenseArchiveJob;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseCursorPaginationIntegrationTest extends IntegrationTestBase {
+
+    static final Path ARCHIVE_DIR = createTempDir();
+
+    @DynamicPropertySource
+    static void archive(DynamicPropertyRegistry registry) {
+        registry.add("archive.directory", ARCHIVE_DIR::toString);
+        // Several segments, so a slice has to merge them
+        registry.add("archive.batch-size", () -> "2");
+    }
+
+    @Autowired
+    ExpenseArchiveJob archiveJob;
+
+    String token;
+    String archiveToken;
+
+    @BeforeAll
+    void setupUserWithExpenses() throws Exception {
+        token = signupAndLogin("cursoruser", "cursor@example.com");
+
+        long categoryId = createCategory(token, "Transport", "EXPENSE");
+
+        // Several rows share a date so the id tie-breaker is exercised
+        LocalDate base = LocalDate.of(2024, 5, 1);
+        for (int i = 0; i < 7; i++) {
+            var payload = Map.of(
+                    "title", "Ride " + i,
+                    "amount", 10 + i,
+                    "expenseDate", base.plusDays(i / 2).toString(),
+                    "categoryId", categoryId
+            );
+            createExpense(token, payload);
+        }
+    }
+
+    @BeforeAll
+    void setupUserWithArchivedExpenses() throws Exception {
+        archiveToken = signupAndLogin("cursorarchive", "cursorarchive@example.com");
+
+        long categoryId = createCategory(archiveToken, "Transport", "EXPENSE");
+
+        // Archived pairs share a date, and the ties straddle segment boundaries
+        String[] dates = {"2019-02-01", "2019-02-01", "2019-03-01", "2019-03-01", "2019-04-01",
+                "2024-06-01", "2024-06-01", "2024-07-01"};
+        for (int i = 0; i < dates.length; i++) {
+            var payload = Map.of(
+                    "title", (i < 5 ? "Old " : "New ") + i,
+                    "amount", 10 + i,
+                    "expenseDate", dates[i],
+                    "categoryId", categoryId
+            );
+            createExpense(archiveToken, payload);
+        }
+        // A fixed day, so the cutoff (2021-01-01) does not move the 2024 rows as time passes
+        ExpenseArchiveJob.Result result = archiveJob.run(LocalDate.of(2024, 1, 1));
+        assertThat(result.failedUsers()).isZero();
+        assertThat(result.archived()).isEqualTo(5);
+        assertThat(result.segments()).isEqualTo(3);
+    }
+
+    @Test
+    void cursor_mode_walks_all_rows_in_order_without_duplicates() throws Exception {
+        assertThat(walk(token, Map.of("sort", "expenseDate,asc"), 3, 3))
+                .containsExactly("Ride 0", "Ride 1", "Ride 2", "Ride 3", "Ride 4", "Ride 5", "Ride 6");
+    }
+
+    @Test
+    void cursor_mode_walks_newest_first_by_default() throws Exception {
+        assertThat(walk(token, Map.of(), 3, 3))
+                .containsExactly("Ride 6", "Ride 5", "Ride 4", "Ride 3", "Ride 2", "Ride 1", "Ride 0");
+    }
+
+    @Test
+    void cursor_mode_applies_filters_on_every_slice() throws Exception {
+        assertThat(walk(token, Map.of("minAmount", "11", "endDate", "2024-05-03", "sort", "expenseDate,asc"), 2, 3))
+                .containsExactly("Ride 1", "Ride 2", "Ride 3", "Ride 4", "Ride 5");
+        assertThat(walk(token, Map.of("minAmount", "11", "endDate", "2024-05-03"), 2, 3))
+                .containsExactly("Ride 5", "Ride 4", "Ride 3", "Ride 2", "Ride 1");
+    }
+
+    @Test
+    void cursor_mode_walks_newest_first_across_archived_segments() throws Exception {
+        assertThat(walk(archiveToken, Map.of(), 2, 4))
+                .containsExactly("New 7", "New 6", "New 5", "Old 4", "Old 3", "Old 2", "Old 1", "Old 0");
+        assertThat(walk(archiveToken, Map.of("sort", "expenseDate,asc"), 2, 4))
+                .containsExactly("Old 0", "Old 1", "Old 2", "Old 3", "Old 4", "New 5", "New 6", "New 7");
+        // An end date inside the archive bounds the segments before and after the cursor
+        assertThat(walk(archiveToken, Map.of("endDate", "2019-03-15"), 1, 4))
+                .containsExactly("Old 3", "Old 2", "Old 1", "Old 0");
+        assertThat(walk(archiveToken, Map.of("startDate", "2019-02-15", "endDate", "2024-06-01"), 2, 3))
+                .containsExactly("New 6", "New 5", "Old 4", "Old 3", "Old 2");
+    }
+
+    @Test
+    void cursor_size_is_capped() throws Exception {
+        for (String size : List.of("0", "101", String.valueOf(Integer.MAX_VALUE))) {
+            mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token)
+                            .param("cursor", "").param("size", size))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    private List<String> walk(String token, Map<String, String> params, int size, int expectedSlices) throws Exception {
+        List<String> titles = new ArrayList<>();
+        String cursor = "";
+        int slices = 0;
+        do {
+            var request = get("/expenses").header("Authorization", "Bearer " + token)
+                    .param("cursor", cursor).param("size", String.valueOf(size));
+            params.forEach((name, value) -> request.param(name, value));
+            var res = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode slice = objectMapper.readTree(res);
+            slice.get("content").forEach(row -> titles.add(row.get("title").asText()));
+            cursor = slice.get("hasNext").asBoolean() ? slice.get("nextCursor").asText() : null;
+            slices++;
+        } while (cursor != null);
+
+        assertThat(slices).isEqualTo(expectedSlices);
+        return titles;
+    }
+
+    private static Path createTempDir() {
+        try {
+            return Files.createTempDirectory("expense-cursor-archive");
+        } catch (java.io.IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.expensetracker.it;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseForecastIntegrationTest extends IntegrationTestBase {
+
+    String token;
+    long foodId;
+    long gymId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("forecastuser", "forecast@example.com");
+
+        foodId = createCategory(token, "Food", "EXPENSE");
+        gymId = createCategory(token, "Gym", "EXPENSE");
+    }
+
+    @Test
+    void forecast_is_fitted_on_complete_months_and_refreshed_by_past_edits() throws Exception {
+        YearMonth current = YearMonth.now();
+        for (int m = 6; m >= 1; m--) {
+            createExpense(foodId, 100 + (6 - m) * 10, current.minusMonths(m).atDay(10));
+        }
+        createExpense(gymId, 40, current.minusMonths(1).atDay(3));
+
+        JsonNode forecast = forecast(2);
+        assertThat(forecast.get("fittedThrough").asText()).isEqualTo(current.minusMonths(1).toString());
+        assertThat(forecast.get("total")).hasSize(2);
+        assertThat(forecast.get("total").get(0).get("month").asText()).isEqualTo(current.toString());
+        JsonNode food = category(forecast, foodId);
+        JsonNode gym = category(forecast, gymId);
+        assertThat(food.get("method").asText()).isEqualTo("HOLT");
+        // Rising series: the next month is forecast above the last observed 150
+        assertThat(food.get("points").get(0).get("amount").decimalValue()).isGreaterThan(new BigDecimal("150"));
+        assertThat(gym.get("method").asText()).isEqualTo("MEAN");
+        assertThat(gym.get("points").get(0).get("amount").decimalValue()).isEqualByComparingTo("40.00");
+        assertThat(forecast.get("total").get(0).get("amount").decimalValue()).isEqualByComparingTo(
+                food.get("points").get(0).get("amount").decimalValue().add(new BigDecimal("40.00")));
+
+        // A current-month expense does not change any fitted month, so the cached fit is served unchanged
+        createExpense(gymId, 500, current.atDay(1));
+        assertThat(category(forecast(2), gymId).get("points").get(0).get("amount").decimalValue()).isEqualByComparingTo("40.00");
+
+        // An expense in a fitted month refits the category
+        createExpense(gymId, 60, current.minusMonths(2).atDay(3));
+        assertThat(category(forecast(2), gymId).get("points").get(0).get("amount").decimalValue()).isEqualByComparingTo("50.00");
+    }
+
+    private JsonNode forecast(int horizon) throws Exception {
+        var res = mockMvc.perform(get("/insights/forecast").header("Authorization", "Bearer " + token)
+                        .param("horizon", Integer.toString(horizon)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(res);
+    }
+
+    private static JsonNode category(JsonNode forecast, long categoryId) {
+        for (JsonNode c : forecast.get("categories")) {
+            if (c.get("categoryId").asLong() == categoryId) return c;
+        }
+        throw new AssertionError("No forecast for category " + categoryId);
+    }
+
+    private void createExpense(long categoryId, int amount, LocalDate date) throws Exception {
+        var payload = Map.of(
+                "title", "Spend",
+                "amount", amount,
+                "expenseDate", date.toString(),
+                "type", "EXPENSE",
+                "categoryId", categoryId
+        );
+        createExpense(token, payload);
+    }
+}
@@ -0,0 +1,68 @@
+package com.expensetracker.it;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseIdAllocationIntegrationTest extends IntegrationTestBase {
+
+    // Two pooled connections: the test holds one and the batch's transaction the other for its whole run, so an id
+    // refill that needed a pooled connection of its own would time out
+    @DynamicPropertySource
+    static void smallPool(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> "2");
+        registry.add("spring.datasource.hikari.connection-timeout", () -> "1000");
+    }
+
+    @Autowired
+    DataSource dataSource;
+
+    String token;
+    long categoryId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("idsuser", "ids@example.com");
+        categoryId = createCategory(token, "Bills", "EXPENSE");
+    }
+
+    @Test
+    void id_blocks_are_claimed_without_a_pooled_connection() throws Exception {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            operations.add(Map.of("op", "CREATE", "expense",
+                    Map.of("title", "Bill " + i, "amount", 10, "expenseDate", "2024-09-01", "categoryId", categoryId)));
+        }
+        String res;
+        try (Connection held = dataSource.getConnection()) {
+            res = mockMvc.perform(post("/expenses/batch").header("Authorization", "Bearer " + token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(operations)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (JsonNode result : objectMapper.readTree(res)) {
+            assertThat(result.get("status").asText()).isEqualTo("OK");
+            ids.add(result.get("id").asLong());
+        }
+        assertThat(ids).hasSize(120);
+    }
+}
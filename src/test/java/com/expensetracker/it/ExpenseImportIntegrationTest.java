@@ -0,0 +1,92 @@
+package com.expensetracker.it;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseImportIntegrationTest extends IntegrationTestBase {
+
+    String token;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("importuser", "import@example.com");
+
+        createCategory(token, "Utilities", "EXPENSE");
+    }
+
+    @Test
+    void csv_and_ndjson_import_report_row_errors_without_aborting() throws Exception {
+        String csv = "title,amount,expenseDate,categoryName,notes\n"
+                + "Power,80.10,2024-06-01,Utilities,\"Bill, June\"\n"
+                + "Water,-5,2024-06-02,Utilities,\n"
+                + "Gas,30.00,2024-06-03,Unknown,\n"
+                + "Internet,45.00,2024-06-04,utilities,\n";
+        var csvRes = mockMvc.perform(post("/expenses/import").header("Authorization", "Bearer " + token)
+                        .contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode csvResult = objectMapper.readTree(csvRes);
+        assertThat(csvResult.get("totalRows").asLong()).isEqualTo(4);
+        assertThat(csvResult.get("imported").asLong()).isEqualTo(2);
+        assertThat(csvResult.get("failed").asLong()).isEqualTo(2);
+        assertThat(csvResult.get("errors").get(0).get("line").asLong()).isEqualTo(3);
+        assertThat(csvResult.get("errors").get(1).get("line").asLong()).isEqualTo(4);
+
+        String ndjson = "{\"title\":\"Phone\",\"amount\":20.5,\"expenseDate\":\"2024-06-05\",\"categoryName\":\"Utilities\"}\n"
+                + "{not json}\n";
+        var ndRes = mockMvc.perform(post("/expenses/import").header("Authorization", "Bearer " + token)
+                        .contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode ndResult = objectMapper.readTree(ndRes);
+        assertThat(ndResult.get("imported").asLong()).isEqualTo(1);
+        assertThat(ndResult.get("failed").asLong()).isEqualTo(1);
+
+        var list = mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token)
+                        .param("startDate", "2024-06-01").param("endDate", "2024-06-30"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(list).get("totalElements").asLong()).isEqualTo(3);
+    }
+
+    @Test
+    void export_streams_filtered_rows_as_csv_and_ndjson() throws Exception {
+        String csv = "title,amount,expenseDate,categoryName,notes\n"
+                + "Rent,900.00,2023-01-01,Utilities,\"Flat \"\"A\"\", Jan\"\n"
+                + "Rent,900.00,2023-02-01,Utilities,\n"
+                + "Rent,900.00,2023-03-01,Utilities,\n";
+        mockMvc.perform(post("/expenses/import").header("Authorization", "Bearer " + token)
+                        .contentType("text/csv").content(csv))
+                .andExpect(status().isOk());
+
+        var csvExport = mockMvc.perform(get("/expenses/export").header("Authorization", "Bearer " + token)
+                        .param("startDate", "2023-01-01").param("endDate", "2023-02-28"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String exported = mockMvc.perform(asyncDispatch(csvExport))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = exported.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("id,title,description,amount,expenseDate");
+        assertThat(lines[1]).contains("2023-01-01").contains("\"Flat \"\"A\"\", Jan\"");
+
+        var ndjsonExport = mockMvc.perform(get("/expenses/export").header("Authorization", "Bearer " + token)
+                        .param("startDate", "2023-01-01").param("endDate", "2023-12-31").param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(ndjsonExport))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(ndjson.split("\n")).hasSize(3)
+                .allSatisfy(line -> assertThat(objectMapper.readTree(line).get("categoryName").asText()).isEqualTo("Utilities"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.expensetracker.it;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseListQueryCountIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    String token;
+
+    @BeforeAll
+    void setupUserWithExpenses() throws Exception {
+        token = signupAndLogin("countuser", "count@example.com");
+
+        // 100 rows spread over 10 categories, so a per-row category load would show up as extra statements
+        StringBuilder csv = new StringBuilder("title,amount,expenseDate,categoryName\n");
+        for (int c = 0; c < 10; c++) {
+            createCategory(token, "Cat " + c, "EXPENSE");
+            for (int i = 0; i < 10; i++) {
+                csv.append("Row ").append(c).append('-').append(i).append(",1.00,2024-07-").append(String.format("%02d", i + 1))
+                        .append(",Cat ").append(c).append('\n');
+            }
+        }
+        mockMvc.perform(post("/expenses/import").header("Authorization", "Bearer " + token)
+                        .contentType("text/csv").content(csv.toString()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listing_a_page_uses_a_constant_number_of_statements() throws Exception {
+        long tenRows = statementsForPage(10);
+        long hundredRows = statementsForPage(100);
+
+        assertThat(hundredRows).isEqualTo(tenRows);
+        assertThat(hundredRows).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void steady_state_create_runs_no_selects() throws Exception {
+        var listRes = mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token).param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long categoryId = objectMapper.readTree(listRes).get("content").get(0).get("categoryId").asLong();
+        // In line with the category's imported 1.00 rows, so no anomaly insight is written
+        Map<String, Object> payload = Map.of("title", "Coffee", "amount", 1.0, "expenseDate", "2024-07-15", "categoryId", categoryId);
+        createExpense(payload);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SqlCapture.start();
+        var created = objectMapper.readTree(createExpense(payload));
+        List<SqlCapture.Statement> statements = SqlCapture.stop();
+
+        assertThat(created.get("categoryName").asText()).startsWith("Cat ");
+        // Principal, category and budget state all come from memory; only writes reach the database
+        assertThat(statements).isNotEmpty();
+        assertThat(statements).noneMatch(s -> s.sql().stripLeading().regionMatches(true, 0, "select", 0, 6));
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getEntityFetchCount()).isZero();
+    }
+
+    private String createExpense(Map<String, Object> payload) throws Exception {
+        return mockMvc.perform(post("/expenses").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private long statementsForPage(int size) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        var res = mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token)
+                        .param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(res).get("content").size()).isEqualTo(size);
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,188 @@
+package com.expensetracker.it;
+
+import com.expensetracker.entity.Expense;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.BudgetRepository;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseCategoryStatsRepository;
+import com.expensetracker.repository.ExpenseMonthlyRollupRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Runs EXPLAIN on the SQL behind every hot expense query and fails on a full scan of a user-data table
+public class ExpenseQueryPlanIntegrationTest extends IntegrationTestBase {
+
+    private static final List<String> USER_TABLES = List.of("expenses", "categories", "expense_monthly_rollups");
+
+    @Autowired
+    ExpenseRepository expenseRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    ExpenseMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    ExpenseCategoryStatsRepository statsRepository;
+
+    @Autowired
+    BudgetRepository budgetRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    String token;
+    long userId;
+    long categoryId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("planuser", "plan@example.com");
+        userId = userRepository.findByUsername("planuser").orElseThrow().getId();
+
+        categoryId = createCategory(token, "Travel", "EXPENSE");
+
+        for (int i = 1; i <= 5; i++) {
+            var payload = Map.of("title", "Trip " + i, "amount", 10 * i, "expenseDate", "2024-0" + i + "-15",
+                    "type", "EXPENSE", "categoryId", categoryId);
+            createExpense(token, payload);
+        }
+    }
+
+    @Test
+    void hot_queries_use_indexes() throws Exception {
+        List<SqlCapture.Statement> statements = new ArrayList<>();
+
+        // Listing: default, date range, category, type, amount, keyset cursor and export
+        statements.addAll(captureRequest("/expenses"));
+        statements.addAll(captureRequest("/expenses", "startDate", "2024-02-01", "endDate", "2024-04-30"));
+        statements.addAll(captureRequest("/expenses", "categoryId", Long.toString(categoryId), "startDate", "2024-01-01"));
+        statements.addAll(captureRequest("/expenses", "type", "EXPENSE", "startDate", "2024-01-01", "endDate", "2024-12-31"));
+        statements.addAll(captureRequest("/expenses", "minAmount", "15", "maxAmount", "45"));
+        statements.addAll(captureRequest("/expenses", "cursor", "", "size", "2"));
+        statements.addAll(captureRequest("/expenses/summary", "startDate", "2024-01-10", "endDate", "2024-04-20"));
+        statements.addAll(captureRequest("/insights/anomalies"));
+        statements.addAll(captureRequest("/expenses", "q", "plan", "minAmount", "15"));
+
+        // Repository queries not reached above
+        User user = userRepository.getReferenceById(userId);
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+        statements.addAll(capture(() -> {
+            expenseRepository.getTotalExpensesByUserAndDateRange(user, from, to);
+            expenseRepository.getTotalIncomeByUserAndDateRange(user, from, to);
+            expenseRepository.getExpensesByCategoryAndDateRange(user, from, to);
+            expenseRepository.aggregateMonthlyByUser(userId);
+            expenseRepository.countByUser(user);
+            expenseRepository.findByUserAndExpenseDateBetween(user, from, to);
+            expenseRepository.findByUserAndIsRecurringTrue(user);
+            expenseRepository.findAllByUserIdAndIdIn(userId, List.of(1L, 2L));
+            try (var rows = expenseRepository.streamColumnsByUserId(userId)) {
+                rows.forEach(row -> { });
+            }
+            try (var rows = expenseRepository.streamSearchTextByUserId(userId)) {
+                rows.forEach(r -> { });
+            }
+            try (var rows = expenseRepository.streamTextByUserId(userId)) {
+                rows.forEach(row -> { });
+            }
+            rollupRepository.sumByTypeAndMonthRange(userId, Expense.ExpenseType.EXPENSE, 202401, 202412);
+            rollupRepository.sumByCategoryAndMonthRange(userId, Expense.ExpenseType.EXPENSE, 202401, 202412);
+            categoryRepository.findAllByUserId(userId);
+            statsRepository.findRowsByUserId(userId);
+            expenseRepository.findUserIdsWithDueRecurring(0L, to, org.springframework.data.domain.PageRequest.of(0, 500));
+            expenseRepository.findDueRecurringTemplates(userId, to);
+            expenseRepository.findLastOccurrenceDates(List.of(1L, 2L));
+            rollupRepository.findTotal(userId, 202403, categoryId, Expense.ExpenseType.EXPENSE);
+            budgetRepository.findByUserIdOrderByIdAsc(userId);
+        }));
+
+        List<String> scans = new ArrayList<>();
+        int explained = 0;
+        for (SqlCapture.Statement statement : statements) {
+            String sql = statement.sql().trim();
+            if (!sql.toLowerCase(Locale.ROOT).startsWith("select")) continue;
+            explained++;
+            String scanned = fullScan(statement);
+            if (scanned != null) scans.add(scanned + " <- " + sql);
+        }
+        assertThat(explained).isGreaterThan(15);
+        assertThat(scans).as("queries doing a full table scan").isEmpty();
+    }
+
+    private List<SqlCapture.Statement> captureRequest(String path, String... params) throws Exception {
+        var request = get(path).header("Authorization", "Bearer " + token);
+        for (int i = 0; i < params.length; i += 2) request.param(params[i], params[i + 1]);
+        SqlCapture.start();
+        try {
+            mockMvc.perform(request).andExpect(status().isOk());
+        } catch (Exception | AssertionError ex) {
+            SqlCapture.stop();
+            throw ex;
+        }
+        return SqlCapture.stop();
+    }
+
+    private List<SqlCapture.Statement> capture(Runnable queries) {
+        SqlCapture.start();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> queries.run());
+        } catch (RuntimeException ex) {
+            SqlCapture.stop();
+            throw ex;
+        }
+        return SqlCapture.stop();
+    }
+
+    // Returns the table that is fully scanned, or null when every table is reached through an index
+    private String fullScan(SqlCapture.Statement statement) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+            try (PreparedStatement ps = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                for (int i = 0; i < statement.parameters().size(); i++) {
+                    ps.setObject(i + 1, statement.parameters().get(i));
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (mysql) {
+                            // One row per table (named by its alias); access type ALL is a full scan
+                            if ("ALL".equalsIgnoreCase(rs.getString("type"))) return rs.getString("table");
+                        } else {
+                            // H2 prints the chosen access path as a comment, e.g. /* PUBLIC.EXPENSES.tableScan */
+                            String plan = rs.getString(1).toLowerCase(Locale.ROOT);
+                            for (String table : USER_TABLES) {
+                                if (plan.contains("public." + table + ".tablescan")) return table;
+                            }
+                        }
+                    }
+                    return null;
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.expensetracker.it;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseSearchIntegrationTest extends IntegrationTestBase {
+
+    String token;
+    long foodId;
+    long travelId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("searchuser", "search@example.com");
+
+        foodId = createCategory(token, "Food", "EXPENSE");
+        travelId = createCategory(token, "Travel", "EXPENSE");
+    }
+
+    @Test
+    void search_ranks_prefix_matches_and_follows_writes() throws Exception {
+        long bottle = createExpense("Coffee at Blue Bottle", null, null, foodId);
+        long beans = createExpense("Groceries", "Coffee beans, whole bean", null, foodId);
+        long train = createExpense("Train ticket", null, "grabbed a coffee at the station", travelId);
+        createExpense("Bakery", "croissant", null, foodId);
+
+        // The title match ranks first; equal scores come newest first; a prefix matches whole words
+        assertThat(search("coffee")).containsExactly(bottle, train, beans);
+        assertThat(search("cof")).containsExactlyInAnyOrder(bottle, beans, train);
+        // Every word must match
+        assertThat(search("coffee bean")).containsExactly(beans);
+        // Combined with the existing filters
+        assertThat(search("coffee", "categoryId", Long.toString(travelId))).containsExactly(train);
+
+        // The index follows updates and deletes
+        mockMvc.perform(put("/expenses/" + bottle).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("title", "Tea at Blue Bottle", "amount", 4.5,
+                                "expenseDate", "2024-06-01", "categoryId", foodId))))
+                .andExpect(status().isOk());
+        assertThat(search("coffee")).containsExactly(train, beans);
+        assertThat(search("tea")).containsExactly(bottle);
+        mockMvc.perform(delete("/expenses/" + train).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        assertThat(search("coffee")).containsExactly(beans);
+        assertThat(search("espresso")).isEmpty();
+
+        mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token).param("q", "a"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> search(String q, String... params) throws Exception {
+        var request = get("/expenses").header("Authorization", "Bearer " + token).param("q", q);
+        for (int i = 0; i < params.length; i += 2) request = request.param(params[i], params[i + 1]);
+        var res = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode e : objectMapper.readTree(res).get("content")) ids.add(e.get("id").asLong());
+        return ids;
+    }
+
+    private long createExpense(String title, String description, String notes, long categoryId) throws Exception {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("title", title);
+        payload.put("amount", 4.5);
+        payload.put("expenseDate", "2024-06-01");
+        payload.put("categoryId", categoryId);
+        if (description != null) payload.put("description", description);
+        if (notes != null) payload.put("notes", notes);
+        return createExpense(token, payload);
+    }
+}
@@ -0,0 +1,69 @@
+package com.expensetracker.it;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExpenseSummaryIntegrationTest extends IntegrationTestBase {
+
+    String token;
+    long categoryId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("sumuser", "sum@example.com");
+
+        categoryId = createCategory(token, "Groceries", "EXPENSE");
+    }
+
+    @Test
+    void summary_combines_monthly_rollups_with_partial_edge_months() throws Exception {
+        createExpense("Jan", "100.00", "2024-01-15", "EXPENSE");
+        long febId = createExpense("Feb", "50.00", "2024-02-10", "EXPENSE");
+        long marId = createExpense("Mar", "20.00", "2024-03-05", "EXPENSE");
+        createExpense("Salary", "1000.00", "2024-02-01", "INCOME");
+        createExpense("Outside", "999.00", "2024-03-20", "EXPENSE");
+
+        JsonNode summary = summary("2024-01-10", "2024-03-10");
+        assertThat(summary.get("totalExpenses").decimalValue()).isEqualByComparingTo("170.00");
+        assertThat(summary.get("totalIncome").decimalValue()).isEqualByComparingTo("1000.00");
+        assertThat(summary.get("expensesByCategory").get("Groceries").decimalValue()).isEqualByComparingTo("170.00");
+
+        mockMvc.perform(put("/expenses/" + febId).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "title", "Feb", "amount", 70.00, "expenseDate", "2024-02-10", "categoryId", categoryId))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/expenses/" + marId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        assertThat(summary("2024-01-10", "2024-03-10").get("totalExpenses").decimalValue()).isEqualByComparingTo("170.00");
+        assertThat(summary("2024-02-01", "2024-02-29").get("totalExpenses").decimalValue()).isEqualByComparingTo("70.00");
+    }
+
+    private long createExpense(String title, String amount, String date, String type) throws Exception {
+        var payload = Map.of(
+                "title", title,
+                "amount", new java.math.BigDecimal(amount),
+                "expenseDate", date,
+                "type", type,
+                "categoryId", categoryId
+        );
+        return createExpense(token, payload);
+    }
+
+    private JsonNode summary(String startDate, String endDate) throws Exception {
+        var res = mockMvc.perform(get("/expenses/summary").header("Authorization", "Bearer " + token)
+                        .param("startDate", startDate).param("endDate", endDate))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(res);
+    }
+}
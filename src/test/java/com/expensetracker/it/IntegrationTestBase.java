@@ -1,20 +1,33 @@
 package com.expensetracker.it;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
 import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.junit.jupiter.api.AfterAll;
 
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
 @SpringBootTest
 @AutoConfigureMockMvc
+@org.springframework.context.annotation.Import(SqlCapture.Config.class)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public abstract class IntegrationTestBase {
 
+    protected static final String PASSWORD = "Password123!";
+
     private static boolean USE_TESTCONTAINERS = false;
 
     // Declare but do not initialize to avoid touching Docker when disabled
@@ -43,24 +56,74 @@ public abstract class IntegrationTestBase {
     // Common test props - use 32+ byte secret to satisfy JJWT requirements
     registry.add("jwt.secret", () -> "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef");
         registry.add("spring.main.allow-bean-definition-overriding", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        // Every test signs in from the same address, so the limiter is off unless a test sets test.rate-limit.enabled
+        // (subclass @DynamicPropertySource values are applied before these and cannot override them)
+        registry.add("rate-limit.enabled", () -> "${test.rate-limit.enabled:false}");
 
         if (USE_TESTCONTAINERS) {
             // Wire Testcontainers MySQL
             registry.add("spring.datasource.url", mysql::getJdbcUrl);
             registry.add("spring.datasource.username", mysql::getUsername);
             registry.add("spring.datasource.password", mysql::getPassword);
-            registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+            registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
             registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.MySQLDialect");
         } else {
             // Fallback to in-memory H2 for local runs without Docker
             registry.add("spring.datasource.url", () -> "jdbc:h2:mem:testdb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
             registry.add("spring.datasource.driver-class-name", () -> "org.h2.Driver");
             registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.H2Dialect");
-            registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+            // Flyway builds the schema from the same migrations as production; Hibernate only validates it
+            registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
             registry.add("spring.h2.console.enabled", () -> "true");
         }
     }
 
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    // Fixtures shared by the API tests; every test user has PASSWORD
+    protected void signup(String username, String email) throws Exception {
+        var payload = Map.of("username", username, "email", email, "password", PASSWORD, "name", username);
+        mockMvc.perform(post("/auth/signup").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(payload))).andExpect(status().isOk());
+    }
+
+    // The login response: accessToken and user
+    protected JsonNode login(String usernameOrEmail) throws Exception {
+        var payload = Map.of("usernameOrEmail", usernameOrEmail, "password", PASSWORD);
+        var response = mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(payload))).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    // Access token of a new user
+    protected String signupAndLogin(String username, String email) throws Exception {
+        signup(username, email);
+        return login(username).get("accessToken").asText();
+    }
+
+    protected long createCategory(String token, String name, String type) throws Exception {
+        return postForId(token, "/categories", Map.of("name", name, "type", type));
+    }
+
+    protected long createExpense(String token, Map<String, ?> payload) throws Exception {
+        return postForId(token, "/expenses", payload);
+    }
+
+    private long postForId(String token, String path, Map<String, ?> payload) throws Exception {
+        var response = mockMvc.perform(post(path).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("id").asLong();
+    }
+
     @AfterAll
     static void tearDown() {
         if (mysql != null) {
@@ -0,0 +1,103 @@
+package com.expensetracker.it;
+
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.UserRepository;
+import com.expensetracker.security.AuthenticatedPrincipalCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class JwtPrincipalCacheIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    AuthenticatedPrincipalCache principalCache;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void repeated_requests_are_served_from_the_cache() throws Exception {
+        String token = signupAndLogin("cachehit", "cachehit@example.com");
+        me(token).andExpect(status().isOk());
+
+        long hits = principalCache.hitCount();
+        long misses = principalCache.missCount();
+        me(token).andExpect(status().isOk());
+        assertThat(principalCache.hitCount()).isEqualTo(hits + 1);
+        assertThat(principalCache.missCount()).isEqualTo(misses);
+    }
+
+    @Test
+    void deactivation_evicts_the_cached_principal_and_rejects_the_token() throws Exception {
+        String token = signupAndLogin("deactivated", "deactivated@example.com");
+        me(token).andExpect(status().isOk());
+
+        update("deactivated", user -> user.setIsActive(false));
+        me(token).andExpect(status().isForbidden());
+
+        // Rejected on a fresh lookup as well, not only because the entry is gone
+        principalCache.evictAll();
+        me(token).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void role_change_evicts_the_cached_principal() throws Exception {
+        String token = signupAndLogin("promoted", "promoted@example.com");
+        metrics(token).andExpect(status().isForbidden());
+
+        update("promoted", user -> user.setRole(User.Role.ADMIN));
+        metrics(token).andExpect(status().isOk());
+
+        update("promoted", user -> user.setRole(User.Role.USER));
+        metrics(token).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void a_principal_cached_between_flush_and_commit_is_evicted_on_commit() throws Exception {
+        String token = signupAndLogin("racing", "racing@example.com");
+        me(token).andExpect(status().isOk());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findByUsername("racing").orElseThrow();
+            user.setIsActive(false);
+            // The flush evicts; a request on another thread still reads the committed, active row and caches it
+            userRepository.saveAndFlush(user);
+            CompletableFuture.runAsync(() -> {
+                try {
+                    me(token).andExpect(status().isOk());
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }).join();
+        });
+
+        me(token).andExpect(status().isForbidden());
+    }
+
+    private void update(String username, Consumer<User> change) {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findByUsername(username).orElseThrow();
+            change.accept(user);
+            userRepository.save(user);
+        });
+    }
+
+    private ResultActions me(String token) throws Exception {
+        return mockMvc.perform(get("/users/me").header("Authorization", "Bearer " + token));
+    }
+
+    private ResultActions metrics(String token) throws Exception {
+        return mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token));
+    }
+}
@@ -0,0 +1,61 @@
+package com.expensetracker.it;
+
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Metrics export is off in tests unless asked for
+@AutoConfigureObservability(tracing = false)
+public class MetricsEndpointIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    UserRepository userRepository;
+
+    String userToken;
+    String adminToken;
+
+    @BeforeAll
+    void setupUsers() throws Exception {
+        signup("metricsuser", "metrics-user@example.com");
+        signup("metricsadmin", "metrics-admin@example.com");
+        User admin = userRepository.findByUsername("metricsadmin").orElseThrow();
+        admin.setRole(User.Role.ADMIN);
+        userRepository.save(admin);
+        userToken = login("metricsuser").get("accessToken").asText();
+        adminToken = login("metricsadmin").get("accessToken").asText();
+    }
+
+    @Test
+    void prometheus_scrape_is_admin_only_and_covers_services_queries_and_pool() throws Exception {
+        mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + userToken)).andExpect(status().isOk());
+        mockMvc.perform(get("/categories").header("Authorization", "Bearer " + userToken)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(scrape)
+                .contains("service_invocations_seconds_count{exception=\"none\",method=\"list\",service=\"ExpenseService\",}")
+                .contains("service_invocations_seconds_count{exception=\"none\",method=\"listCategories\",service=\"CategoryService\",}")
+                .contains("spring_data_repository_invocations_seconds_count{exception=\"None\",method=\"findDtos\",repository=\"ExpenseRepository\",state=\"SUCCESS\",}")
+                .contains("http_server_requests_statements_count{method=\"GET\",uri=\"/expenses\",}")
+                .contains("security_jwt_filter_seconds_count{outcome=\"verified\",}")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_entities_loads_total")
+                .contains("hibernate_statements_total")
+                // Per-endpoint SLO bucket from metrics.http.slo.[/expenses]
+                .contains("http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/expenses\",le=\"0.25\",}");
+    }
+}
@@ -0,0 +1,78 @@
+package com.expensetracker.it;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class RateLimitIntegrationTest extends IntegrationTestBase {
+
+    @DynamicPropertySource
+    static void rateLimits(DynamicPropertyRegistry registry) {
+        registry.add("test.rate-limit.enabled", () -> "true");
+        registry.add("rate-limit.groups.auth.capacity", () -> "3");
+        registry.add("rate-limit.groups.auth.period", () -> "PT1H");
+        registry.add("rate-limit.groups.api.capacity", () -> "5");
+        registry.add("rate-limit.groups.api.period", () -> "PT1H");
+    }
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    String firstToken;
+    String secondToken;
+
+    @BeforeAll
+    void setupUsers() throws Exception {
+        // Signups and logins share the auth bucket of the test client's address: two signups and one login fill it
+        signup("ratelimitone", "ratelimit-one@example.com");
+        signup("ratelimittwo", "ratelimit-two@example.com");
+        firstToken = login("ratelimitone").get("accessToken").asText();
+    }
+
+    @Test
+    void callers_are_limited_per_user_and_per_address_with_retry_after() throws Exception {
+        MockHttpServletResponse limitedLogin = mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("usernameOrEmail", "ratelimittwo", "password", "Password123!"))))
+                .andExpect(status().isTooManyRequests())
+                .andReturn().getResponse();
+        assertThat(Long.parseLong(limitedLogin.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+
+        // Another address has its own auth bucket
+        secondToken = objectMapper.readTree(mockMvc.perform(post("/auth/login").with(r -> {
+                            r.setRemoteAddr("10.0.0.2");
+                            return r;
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("usernameOrEmail", "ratelimittwo", "password", "Password123!"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("accessToken").asText();
+
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + firstToken)).andExpect(status().isOk());
+        }
+        MockHttpServletResponse limited = mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + firstToken))
+                .andExpect(status().isTooManyRequests())
+                .andReturn().getResponse();
+        assertThat(Long.parseLong(limited.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 3600L);
+        assertThat(objectMapper.readTree(limited.getContentAsString()).get("status").asInt()).isEqualTo(429);
+
+        // Authenticated callers are keyed by user, not by the address they share
+        mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + secondToken)).andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("rate.limit.rejected").tag("group", "auth").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("rate.limit.rejected").tag("group", "api").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,106 @@
+package com.expensetracker.it;
+
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.UserRepository;
+import com.expensetracker.service.RecurringExpenseJob;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A second in-memory H2 database stands in for the replica; nothing replicates into it, so a read that reaches it
+// sees only the rows copied there by hand. The second replica URL points at a closed port.
+public class ReadReplicaRoutingIntegrationTest extends IntegrationTestBase {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replicadb;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @DynamicPropertySource
+    static void replicas(DynamicPropertyRegistry registry) {
+        registry.add("datasource.replica.urls", () -> REPLICA_URL + ",jdbc:h2:tcp://127.0.0.1:1/unreachable");
+        registry.add("datasource.replica.username", () -> "sa");
+        registry.add("datasource.replica.password", () -> "");
+        registry.add("datasource.replica.connection-timeout", () -> "PT2S");
+        registry.add("datasource.replica.health-check-interval", () -> "PT1H");
+        registry.add("datasource.replica.read-your-writes-window", () -> "PT1S");
+    }
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    RecurringExpenseJob recurringExpenseJob;
+
+    String token;
+    long categoryId;
+
+    @BeforeAll
+    void setupReplicaAndUser() throws Exception {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+
+        token = signupAndLogin("replicauser", "replica@example.com");
+
+        categoryId = createCategory(token, "Groceries", "EXPENSE");
+
+        // "Replicate" the user only, so reads served by the replica find the user but none of its expenses
+        User user = userRepository.findByUsername("replicauser").orElseThrow();
+        new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "")).update(
+                "INSERT INTO users (id, username, email, password, role, is_active) VALUES (?, ?, ?, ?, 'USER', true)",
+                user.getId(), user.getUsername(), user.getEmail(), user.getPassword());
+    }
+
+    @Test
+    void reads_go_to_healthy_replicas_except_right_after_the_callers_own_writes() throws Exception {
+        assertThat(meterRegistry.get("datasource.replica.up").tag("pool", "replica-1").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("datasource.replica.up").tag("pool", "replica-2").gauge().value()).isZero();
+
+        createExpense("Weekly shop");
+        // Inside the read-your-writes window the list comes from the primary
+        assertThat(totalExpenses()).isEqualTo(1);
+
+        Thread.sleep(1200);
+        // Afterwards every read goes to the replica that is up, never to the unreachable one
+        for (int i = 0; i < 4; i++) {
+            assertThat(totalExpenses()).isZero();
+        }
+        assertThat(meterRegistry.get("datasource.read.routes").tag("route", "replica").counter().count()).isGreaterThanOrEqualTo(4);
+        assertThat(meterRegistry.get("datasource.read.routes").tag("route", "fallback").counter().count()).isZero();
+
+        createExpense("Pharmacy");
+        assertThat(totalExpenses()).isEqualTo(2);
+        assertThat(meterRegistry.get("datasource.read.routes").tag("route", "recent-write").counter().count()).isGreaterThanOrEqualTo(2);
+
+        createExpense(token, Map.of("title", "Rent", "amount", 500, "expenseDate", "2024-05-10", "categoryId", categoryId,
+                "isRecurring", true, "recurringFrequency", "MONTHLY"));
+        Thread.sleep(1200);
+        assertThat(totalExpenses()).isZero();
+        // A background job writes with no signed-in user; its commit still opens the window for the owner
+        assertThat(recurringExpenseJob.run(LocalDate.of(2024, 6, 15)).failedUsers()).isZero();
+        assertThat(totalExpenses()).isEqualTo(4);
+    }
+
+    private long totalExpenses() throws Exception {
+        var res = mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(res).get("totalElements").asLong();
+    }
+
+    private void createExpense(String title) throws Exception {
+        var payload = Map.of("title", title, "amount", 12.5, "expenseDate", "2024-05-10", "categoryId", categoryId);
+        createExpense(token, payload);
+    }
+}
@@ -0,0 +1,111 @@
+package com.expensetracker.it;
+
+import com.expensetracker.service.RecurringExpenseJob;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class RecurringExpenseIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    RecurringExpenseJob recurringExpenseJob;
+
+    String token;
+    long categoryId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        token = signupAndLogin("recurringuser", "recurring@example.com");
+
+        categoryId = createCategory(token, "Bills", "EXPENSE");
+    }
+
+    @Test
+    void due_occurrences_are_generated_once() throws Exception {
+        LocalDate today = LocalDate.of(2024, 5, 20);
+        createTemplate("Rent", "MONTHLY", LocalDate.of(2024, 1, 31));
+        createTemplate("Gym", "WEEKLY", today.minusDays(15));
+        createTemplate("Insurance", "YEARLY", LocalDate.of(2024, 3, 1));
+
+        RecurringExpenseJob.Result first = recurringExpenseJob.run(today);
+        assertThat(first.failedUsers()).isZero();
+        // Rent on Feb 29, Mar 31, Apr 30; Gym 8 and 1 days ago; Insurance not due until 2025
+        assertThat(datesOf("Rent")).containsExactly("2024-01-31", "2024-02-29", "2024-03-31", "2024-04-30");
+        assertThat(datesOf("Gym")).containsExactly(today.minusDays(15).toString(), today.minusDays(8).toString(),
+                today.minusDays(1).toString());
+        assertThat(datesOf("Insurance")).containsExactly("2024-03-01");
+
+        // Reruns for the same day, and the next day's run, only add what became due
+        recurringExpenseJob.run(today);
+        assertThat(datesOf("Rent")).hasSize(4);
+        recurringExpenseJob.run(LocalDate.of(2024, 5, 31));
+        assertThat(datesOf("Rent")).hasSize(5).contains("2024-05-31");
+        assertThat(datesOf("Gym")).hasSize(4);
+    }
+
+    @Test
+    void editing_a_template_without_rescheduling_keeps_a_deleted_occurrence_deleted() throws Exception {
+        LocalDate today = LocalDate.of(2024, 5, 20);
+        long templateId = createTemplate("Phone", "MONTHLY", LocalDate.of(2024, 2, 10));
+        recurringExpenseJob.run(today);
+        long skipped = occurrencesOf("Phone").stream()
+                .filter(e -> e.get("expenseDate").asText().equals("2024-05-10"))
+                .findFirst().orElseThrow().get("id").asLong();
+        mockMvc.perform(delete("/expenses/" + skipped).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+
+        // Clients resend every field on edit, including the unchanged date and frequency
+        mockMvc.perform(put("/expenses/" + templateId).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(templatePayload("Phone plan", "MONTHLY", LocalDate.of(2024, 2, 10)))))
+                .andExpect(status().isOk());
+        recurringExpenseJob.run(today);
+        assertThat(datesOf("Phone")).containsExactly("2024-03-10", "2024-04-10");
+        assertThat(datesOf("Phone plan")).containsExactly("2024-02-10");
+    }
+
+    private long createTemplate(String title, String frequency, LocalDate date) throws Exception {
+        return createExpense(token, templatePayload(title, frequency, date));
+    }
+
+    private Map<String, Object> templatePayload(String title, String frequency, LocalDate date) {
+        return Map.of(
+                "title", title,
+                "amount", 100,
+                "expenseDate", date.toString(),
+                "type", "EXPENSE",
+                "categoryId", categoryId,
+                "isRecurring", true,
+                "recurringFrequency", frequency
+        );
+    }
+
+    private List<String> datesOf(String title) throws Exception {
+        return occurrencesOf(title).stream().map(e -> e.get("expenseDate").asText()).toList();
+    }
+
+    private List<JsonNode> occurrencesOf(String title) throws Exception {
+        var res = mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token)
+                        .param("size", "100").param("sort", "expenseDate,asc"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<JsonNode> rows = new ArrayList<>();
+        for (JsonNode e : objectMapper.readTree(res).get("content")) {
+            if (e.get("title").asText().equals(title)) rows.add(e);
+        }
+        return rows;
+    }
+}
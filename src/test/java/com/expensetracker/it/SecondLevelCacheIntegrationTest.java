@@ -0,0 +1,100 @@
+package com.expensetracker.it;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.expensetracker.entity.User;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SecondLevelCacheIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    CategoryRepository categoryRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    String token;
+    long userId;
+    long categoryId;
+
+    @BeforeAll
+    void setupUser() throws Exception {
+        signup("cacheuser", "cache@example.com");
+        JsonNode login = login("cacheuser");
+        token = login.get("accessToken").asText();
+        userId = login.get("user").get("id").asLong();
+
+        categoryId = createCategory(token, "Groceries", "EXPENSE");
+    }
+
+    @Test
+    void users_and_categories_come_from_the_cache_and_stay_current_after_updates() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+
+        // requireUser is answered by the cache, and an expense write (native rollup upserts) does not clear it
+        createExpense("Weekly shop");
+        SqlCapture.start();
+        mockMvc.perform(get("/expenses").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+        mockMvc.perform(get("/categories").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+        assertThat(touching(SqlCapture.stop(), "users")).isEmpty();
+        assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount()).isPositive();
+
+        // Natural-id and email lookups: the second call of each issues no SQL
+        userRepository.findByUsername("cacheuser").orElseThrow();
+        userRepository.findByEmail("cache@example.com").orElseThrow();
+        SqlCapture.start();
+        assertThat(userRepository.findByUsername("cacheuser").orElseThrow().getId()).isEqualTo(userId);
+        assertThat(userRepository.findByEmail("cache@example.com").orElseThrow().getId()).isEqualTo(userId);
+        assertThat(SqlCapture.stop()).isEmpty();
+
+        // Updates replace the cached state on commit; the next reads see them without going to the database
+        mockMvc.perform(put("/categories/" + categoryId).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", "Food", "type", "EXPENSE"))))
+                .andExpect(status().isOk());
+        User user = userRepository.findById(userId).orElseThrow();
+        user.setName("Renamed");
+        userRepository.save(user);
+        SqlCapture.start();
+        assertThat(categoryRepository.findById(categoryId).orElseThrow().getName()).isEqualTo("Food");
+        assertThat(userRepository.findById(userId).orElseThrow().getName()).isEqualTo("Renamed");
+        assertThat(userRepository.findByUsername("cacheuser").orElseThrow().getName()).isEqualTo("Renamed");
+        assertThat(SqlCapture.stop()).isEmpty();
+
+        // A write to users invalidates the cached email query rather than serving a stale id list
+        SqlCapture.start();
+        assertThat(userRepository.findByEmail("cache@example.com")).isPresent();
+        assertThat(touching(SqlCapture.stop(), "users")).hasSize(1);
+    }
+
+    private static List<SqlCapture.Statement> touching(List<SqlCapture.Statement> statements, String table) {
+        return statements.stream()
+                .filter(s -> s.sql().toLowerCase(Locale.ROOT).matches("(?s).*\\b(from|update|into) " + table + "\\b.*"))
+                .toList();
+    }
+
+    private void createExpense(String title) throws Exception {
+        var payload = Map.of("title", title, "amount", 12.5, "expenseDate", "2024-05-10", "categoryId", categoryId);
+        createExpense(token, payload);
+    }
+}
@@ -0,0 +1,71 @@
+package com.expensetracker.it;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Records statements (with their bound parameters) executed on the current thread while a capture is open
+public class SqlCapture implements QueryExecutionListener {
+
+    public record Statement(String sql, List<Object> parameters) {
+    }
+
+    private static final ThreadLocal<List<Statement>> CAPTURED = new ThreadLocal<>();
+
+    public static void start() {
+        CAPTURED.set(new ArrayList<>());
+    }
+
+    public static List<Statement> stop() {
+        List<Statement> statements = CAPTURED.get();
+        CAPTURED.remove();
+        return statements != null ? statements : List.of();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<Statement> captured = CAPTURED.get();
+        if (captured == null) return;
+        for (QueryInfo query : queryInfoList) {
+            List<Object> parameters = new ArrayList<>();
+            if (!query.getParametersList().isEmpty()) {
+                for (ParameterSetOperation op : query.getParametersList().get(0)) {
+                    if (!(op.getArgs()[0] instanceof Integer index)) continue;
+                    while (parameters.size() < index) parameters.add(null);
+                    parameters.set(index - 1, op.getMethod().getName().equals("setNull") ? null : op.getArgs()[1]);
+                }
+            }
+            captured.add(new Statement(query.getQuery(), parameters));
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        static BeanPostProcessor sqlCaptureDataSourceProxy() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource ds) {
+                        return ProxyDataSourceBuilder.create(ds).name(beanName).listener(new SqlCapture()).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.expensetracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// End-to-end load test over real HTTP against the app booted with the H2 dev profile. Seeds users, categories and
+// expenses, then runs closed-loop clients issuing a weighted mix of requests for a fixed duration and reports
+// latency percentiles, throughput and error rate per operation (console and target/load-test-report.json), plus
+// the hit ratio of each second-level cache region over the measured run.
+// Only runs under the load-test profile:
+//   mvn -o -Pload-test test -Dload.clients=64 -Dload.duration=PT60S -Dload.mix=list:60,create:10,update:10,categories:15,login:5
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // The dev profile's SQL echo and debug logging would dominate the measurement
+        "spring.jpa.show-sql=false",
+        "logging.level.com.expensetracker=INFO",
+        // A second servlet (the H2 console) makes the security config's plain path matchers ambiguous
+        "spring.h2.console.enabled=false",
+        // Every simulated client shares one address; -Dload.rate-limit=true runs with the limiter on
+        "rate-limit.enabled=${load.rate-limit:false}",
+        "jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef"
+})
+@ActiveProfiles("dev")
+public class ExpenseApiLoadTest {
+
+    enum Operation { LOGIN, LIST_EXPENSES, CREATE_EXPENSE, UPDATE_EXPENSE, LIST_CATEGORIES }
+
+    private static final String PASSWORD = "Password123!";
+    private static final int CATEGORIES_PER_USER = 8;
+    // Sentinel for a shed request; the client then pauses as the Retry-After header asks
+    private static final String SHED = "shed";
+    private static final long SHED_BACKOFF_MS = 1000;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final int clients = Integer.getInteger("load.clients", 32);
+    private final Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private final Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT5S"));
+    private final int users = Integer.getInteger("load.users", 20);
+    private final int expensesPerUser = Integer.getInteger("load.expenses-per-user", 500);
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    private final Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix",
+            "list:50,create:15,update:10,categories:20,login:5"));
+
+    static final class SeededUser {
+        final String username;
+        final List<Long> categoryIds = new ArrayList<>();
+        final List<Long> expenseIds = Collections.synchronizedList(new ArrayList<>());
+        volatile String token;
+
+        SeededUser(String username) {
+            this.username = username;
+        }
+    }
+
+    // Latencies of one client for one operation; merged after the run
+    static final class Samples {
+        long[] nanos = new long[1024];
+        int size;
+        long errors;
+        // 429/503 answers: the server shedding load, counted apart from errors and from the latency samples
+        long rejected;
+        String firstError;
+
+        void add(long value) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = value;
+        }
+    }
+
+    @Test
+    void mixed_traffic() throws Exception {
+        long seedStarted = System.nanoTime();
+        List<SeededUser> seeded = seed();
+        System.out.printf(Locale.ROOT, "Seeded %d users x %d expenses in %d ms%n", users, expensesPerUser,
+                (System.nanoTime() - seedStarted) / 1_000_000);
+
+        if (!warmup.isZero()) run(seeded, warmup);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Map<Operation, Samples>> perClient = run(seeded, duration);
+
+        Map<Operation, Samples> merged = new EnumMap<>(Operation.class);
+        for (Map<Operation, Samples> client : perClient) {
+            client.forEach((op, s) -> {
+                Samples m = merged.computeIfAbsent(op, k -> new Samples());
+                for (int i = 0; i < s.size; i++) m.add(s.nanos[i]);
+                m.errors += s.errors;
+                m.rejected += s.rejected;
+                if (m.firstError == null) m.firstError = s.firstError;
+            });
+        }
+        Map<String, Object> report = report(merged);
+        report.put("secondLevelCache", cacheRegions(statistics));
+        Path out = Path.of("target", "load-test-report.json");
+        Files.createDirectories(out.getParent());
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> total = (Map<String, Object>) report.get("total");
+        assertThat((double) total.get("errorRate")).isLessThanOrEqualTo(maxErrorRate);
+    }
+
+    private List<SeededUser> seed() throws Exception {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<SeededUser> seeded = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(users, 8));
+        try {
+            List<Future<SeededUser>> futures = new ArrayList<>();
+            for (int u = 0; u < users; u++) {
+                String username = "load" + run + "u" + u;
+                futures.add(pool.submit(() -> seedUser(username)));
+            }
+            for (Future<SeededUser> f : futures) seeded.add(f.get());
+        } finally {
+            pool.shutdownNow();
+        }
+        return seeded;
+    }
+
+    private SeededUser seedUser(String username) throws IOException, InterruptedException {
+        SeededUser user = new SeededUser(username);
+        expect(send("POST", "/auth/signup", null, json(Map.of("username", username, "email", username + "@example.com",
+                "password", PASSWORD, "name", "Load " + username))), 200);
+        login(user);
+        List<String> names = new ArrayList<>();
+        for (int c = 0; c < CATEGORIES_PER_USER; c++) {
+            String name = "Category " + c;
+            JsonNode category = objectMapper.readTree(expect(send("POST", "/categories", user.token,
+                    json(Map.of("name", name, "type", "EXPENSE"))), 200));
+            user.categoryIds.add(category.get("id").asLong());
+            names.add(name);
+        }
+        StringBuilder csv = new StringBuilder("title,amount,expenseDate,categoryName\n");
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = LocalDate.now().minusYears(2);
+        for (int i = 0; i < expensesPerUser; i++) {
+            csv.append("Seeded expense ").append(i).append(',')
+                    .append(1 + random.nextInt(200)).append('.').append(String.format("%02d", random.nextInt(100))).append(',')
+                    .append(start.plusDays(random.nextInt(730))).append(',')
+                    .append(names.get(random.nextInt(names.size()))).append('\n');
+        }
+        HttpRequest importRequest = HttpRequest.newBuilder(uri("/expenses/import"))
+                .header("Authorization", "Bearer " + user.token)
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                .build();
+        expect(http.send(importRequest, HttpResponse.BodyHandlers.ofString()), 200);
+        JsonNode page = objectMapper.readTree(expect(send("GET", "/expenses?size=100", user.token, null), 200));
+        for (JsonNode e : page.get("content")) user.expenseIds.add(e.get("id").asLong());
+        return user;
+    }
+
+    private List<Map<Operation, Samples>> run(List<SeededUser> seeded, Duration length) throws Exception {
+        long deadline = System.nanoTime() + length.toNanos();
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Map<Operation, Samples>>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                futures.add(pool.submit(() -> {
+                    Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        SeededUser user = seeded.get(random.nextInt(seeded.size()));
+                        Operation op = pick(random.nextInt(totalWeight));
+                        Samples s = samples.computeIfAbsent(op, k -> new Samples());
+                        long started = System.nanoTime();
+                        String error;
+                        try {
+                            error = execute(op, user, random);
+                        } catch (IOException ex) {
+                            error = ex.toString();
+                        }
+                        if (error == SHED) {
+                            s.rejected++;
+                            Thread.sleep(SHED_BACKOFF_MS);
+                            continue;
+                        }
+                        s.add(System.nanoTime() - started);
+                        if (error != null) {
+                            s.errors++;
+                            if (s.firstError == null) s.firstError = error;
+                        }
+                    }
+                    return samples;
+                }));
+            }
+            List<Map<Operation, Samples>> results = new ArrayList<>();
+            for (Future<Map<Operation, Samples>> f : futures) results.add(f.get());
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Null on success, otherwise a description of the failed response
+    private String execute(Operation op, SeededUser user, ThreadLocalRandom random) throws IOException, InterruptedException {
+        switch (op) {
+            case LOGIN:
+                return login(user);
+            case LIST_EXPENSES: {
+                String query = random.nextInt(4) == 0
+                        ? "?categoryId=" + user.categoryIds.get(random.nextInt(user.categoryIds.size())) + "&size=20"
+                        : "?page=" + random.nextInt(5) + "&size=20";
+                return failure(send("GET", "/expenses" + query, user.token, null));
+            }
+            case CREATE_EXPENSE: {
+                HttpResponse<String> res = send("POST", "/expenses", user.token, expense(user, random, "Load create"));
+                if (res.statusCode() == 200) user.expenseIds.add(objectMapper.readTree(res.body()).get("id").asLong());
+                return failure(res);
+            }
+            case UPDATE_EXPENSE: {
+                long id;
+                synchronized (user.expenseIds) {
+                    if (user.expenseIds.isEmpty()) return null;
+                    id = user.expenseIds.get(random.nextInt(user.expenseIds.size()));
+                }
+                return failure(send("PUT", "/expenses/" + id, user.token, expense(user, random, "Load update")));
+            }
+            default:
+                return failure(send("GET", "/categories", user.token, null));
+        }
+    }
+
+    private String login(SeededUser user) throws IOException, InterruptedException {
+        HttpResponse<String> res = send("POST", "/auth/login", null,
+                json(Map.of("usernameOrEmail", user.username, "password", PASSWORD)));
+        if (res.statusCode() == 200) user.token = objectMapper.readTree(res.body()).get("accessToken").asText();
+        return failure(res);
+    }
+
+    private static String failure(HttpResponse<String> res) {
+        if (res.statusCode() == 429 || res.statusCode() == 503) return SHED;
+        return res.statusCode() == 200 ? null : res.statusCode() + " " + res.body();
+    }
+
+    private String expense(SeededUser user, ThreadLocalRandom random, String title) throws IOException {
+        return json(Map.of(
+                "title", title + " " + random.nextInt(1000),
+                "amount", 1 + random.nextInt(20000) / 100.0,
+                "expenseDate", LocalDate.now().minusDays(random.nextInt(60)).toString(),
+                "categoryId", user.categoryIds.get(random.nextInt(user.categoryIds.size()))));
+    }
+
+    private Operation pick(int ticket) {
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) return entry.getKey();
+        }
+        throw new IllegalStateException("Empty load.mix");
+    }
+
+    private Map<String, Object> report(Map<Operation, Samples> merged) {
+        double seconds = duration.toNanos() / 1e9;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("clients", clients);
+        report.put("durationSeconds", seconds);
+        report.put("users", users);
+        report.put("expensesPerUser", expensesPerUser);
+        report.put("mix", mix);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        Samples all = new Samples();
+        System.out.printf(Locale.ROOT, "%n%-16s %9s %10s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "rejected", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map.Entry<Operation, Samples> entry : merged.entrySet()) {
+            Samples s = entry.getValue();
+            for (int i = 0; i < s.size; i++) all.add(s.nanos[i]);
+            all.errors += s.errors;
+            all.rejected += s.rejected;
+            if (all.firstError == null) all.firstError = s.firstError;
+            operations.put(entry.getKey().name(), summarize(entry.getKey().name(), s, seconds));
+        }
+        report.put("operations", operations);
+        report.put("total", summarize("TOTAL", all, seconds));
+        return report;
+    }
+
+    private static Map<String, Object> cacheRegions(Statistics statistics) {
+        Map<String, Object> regions = new LinkedHashMap<>();
+        System.out.printf(Locale.ROOT, "%n%-32s %10s %10s %10s %9s%n", "cache region", "hits", "misses", "puts", "hit ratio");
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region == null) continue;
+            long lookups = region.getHitCount() + region.getMissCount();
+            double ratio = lookups > 0 ? (double) region.getHitCount() / lookups : 0.0;
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("hits", region.getHitCount());
+            summary.put("misses", region.getMissCount());
+            summary.put("puts", region.getPutCount());
+            summary.put("hitRatio", ratio);
+            regions.put(name, summary);
+            System.out.printf(Locale.ROOT, "%-32s %10d %10d %10d %9.3f%n", name, region.getHitCount(), region.getMissCount(),
+                    region.getPutCount(), ratio);
+        }
+        return regions;
+    }
+
+    private static Map<String, Object> summarize(String label, Samples s, double seconds) {
+        long[] sorted = Arrays.copyOf(s.nanos, s.size);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", s.size);
+        summary.put("throughputPerSecond", s.size / seconds);
+        summary.put("errors", s.errors);
+        summary.put("errorRate", s.size > 0 ? (double) s.errors / s.size : 0.0);
+        summary.put("rejected", s.rejected);
+        summary.put("p50Ms", percentile(sorted, 0.50));
+        summary.put("p95Ms", percentile(sorted, 0.95));
+        summary.put("p99Ms", percentile(sorted, 0.99));
+        summary.put("maxMs", sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0.0);
+        if (s.firstError != null) summary.put("firstError", s.firstError);
+        System.out.printf(Locale.ROOT, "%-16s %9d %10.1f %8d %9d %9.2f %9.2f %9.2f %9.2f%n", label, s.size, s.size / seconds,
+                s.errors, s.rejected, summary.get("p50Ms"), summary.get("p95Ms"), summary.get("p99Ms"), summary.get("maxMs"));
+        if (s.firstError != null) System.out.printf(Locale.ROOT, "%16s first error: %s%n", "", s.firstError);
+        return summary;
+    }
+
+    // Nearest-rank percentile in milliseconds
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, rank)] / 1e6;
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<String, Operation> names = Map.of("login", Operation.LOGIN, "list", Operation.LIST_EXPENSES,
+                "create", Operation.CREATE_EXPENSE, "update", Operation.UPDATE_EXPENSE, "categories", Operation.LIST_CATEGORIES);
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            Operation op = names.get(kv[0].trim());
+            if (op == null || kv.length != 2) throw new IllegalArgumentException("Bad load.mix entry: " + part + " (expected one of " + names.keySet() + ":weight)");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) mix.put(op, weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("load.mix has no positive weights");
+        return mix;
+    }
+
+    private HttpResponse<String> send(String method, String path, String token, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(30));
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        if (body != null) {
+            request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String expect(HttpResponse<String> response, int status) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Seeding failed: " + response.request().method() + " " + response.request().uri()
+                    + " -> " + response.statusCode() + " " + response.body());
+        }
+        return response.body();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private String json(Object value) throws IOException {
+        return objectMapper.writeValueAsString(value);
+    }
+}
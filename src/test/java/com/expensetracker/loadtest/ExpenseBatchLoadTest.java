@@ -0,0 +1,207 @@
+package com.expensetracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Throughput of the same write workload over real HTTP, once as one request per row (POST/PUT/DELETE /expenses) and
+// once as POST /expenses/batch requests of load.batch.size operations. Each pass creates load.batch.rows expenses,
+// updates all of them and deletes all of them; every pass uses its own user so both start from the same state.
+// Prints and writes operations per second for each path (target/batch-load-test-report.json) and fails when the
+// batch path is not at least load.batch.min-speedup times faster.
+// Only runs under the load-test profile:
+//   mvn -o -Pload-test test -Dtest=ExpenseBatchLoadTest -Dload.batch.rows=10000 -Dload.batch.size=500
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.expensetracker=INFO",
+        "spring.h2.console.enabled=false",
+        "rate-limit.enabled=false",
+        "jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef"
+})
+@ActiveProfiles("dev")
+public class ExpenseBatchLoadTest {
+
+    private static final String PASSWORD = "Password123!";
+
+    @LocalServerPort
+    int port;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final int rows = Integer.getInteger("load.batch.rows", 5000);
+    private final int batchSize = Integer.getInteger("load.batch.size", 500);
+    private final double minSpeedup = Double.parseDouble(System.getProperty("load.batch.min-speedup", "2"));
+
+    record Pass(long createMs, long updateMs, long deleteMs) {
+
+        long totalMs() {
+            return createMs + updateMs + deleteMs;
+        }
+    }
+
+    @Test
+    void batches_outrun_single_row_requests() throws Exception {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        // Warms up both paths (JIT, connection pool, caches) before anything is measured
+        singleRows(user("warm" + run + "s"), Math.min(rows, 200));
+        batches(user("warm" + run + "b"), Math.min(rows, 200));
+
+        Pass single = singleRows(user("single" + run), rows);
+        Pass batched = batches(user("batch" + run), rows);
+
+        double speedup = (double) single.totalMs() / Math.max(1, batched.totalMs());
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rows", rows);
+        report.put("batchSize", batchSize);
+        report.put("single", summarize("single", single));
+        report.put("batch", summarize("batch " + batchSize, batched));
+        report.put("speedup", speedup);
+        System.out.printf(Locale.ROOT, "Batch speedup over single-row requests: %.1fx%n", speedup);
+        Path out = Path.of("target", "batch-load-test-report.json");
+        Files.createDirectories(out.getParent());
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+
+        assertThat(speedup).isGreaterThanOrEqualTo(minSpeedup);
+    }
+
+    private Pass singleRows(Seeded user, int count) throws Exception {
+        List<Long> ids = new ArrayList<>(count);
+        long started = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            ids.add(objectMapper.readTree(expect(send("POST", "/expenses", user.token(), json(expense(user, "Single", i))), 200))
+                    .get("id").asLong());
+        }
+        long created = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            expect(send("PUT", "/expenses/" + ids.get(i), user.token(), json(expense(user, "Single updated", i))), 200);
+        }
+        long updated = System.nanoTime();
+        for (Long id : ids) {
+            expect(send("DELETE", "/expenses/" + id, user.token(), null), 204);
+        }
+        long deleted = System.nanoTime();
+        return new Pass((created - started) / 1_000_000, (updated - created) / 1_000_000, (deleted - updated) / 1_000_000);
+    }
+
+    private Pass batches(Seeded user, int count) throws Exception {
+        List<Long> ids = new ArrayList<>(count);
+        long started = System.nanoTime();
+        for (int from = 0; from < count; from += batchSize) {
+            List<Map<String, Object>> ops = new ArrayList<>();
+            for (int i = from; i < Math.min(count, from + batchSize); i++) {
+                ops.add(Map.of("op", "CREATE", "expense", expense(user, "Batch", i)));
+            }
+            for (JsonNode result : batch(user, ops)) ids.add(result.get("id").asLong());
+        }
+        long created = System.nanoTime();
+        for (int from = 0; from < count; from += batchSize) {
+            List<Map<String, Object>> ops = new ArrayList<>();
+            for (int i = from; i < Math.min(count, from + batchSize); i++) {
+                ops.add(Map.of("op", "UPDATE", "id", ids.get(i), "expense", expense(user, "Batch updated", i)));
+            }
+            batch(user, ops);
+        }
+        long updated = System.nanoTime();
+        for (int from = 0; from < count; from += batchSize) {
+            List<Map<String, Object>> ops = new ArrayList<>();
+            for (int i = from; i < Math.min(count, from + batchSize); i++) {
+                ops.add(Map.of("op", "DELETE", "id", ids.get(i)));
+            }
+            batch(user, ops);
+        }
+        long deleted = System.nanoTime();
+        return new Pass((created - started) / 1_000_000, (updated - created) / 1_000_000, (deleted - updated) / 1_000_000);
+    }
+
+    // Fails on any operation that did not succeed, so both paths do the same work
+    private JsonNode batch(Seeded user, List<Map<String, Object>> ops) throws IOException, InterruptedException {
+        JsonNode results = objectMapper.readTree(expect(send("POST", "/expenses/batch", user.token(), json(ops)), 200));
+        for (JsonNode result : results) {
+            if (!"OK".equals(result.get("status").asText())) throw new IllegalStateException("Batch operation failed: " + result);
+        }
+        return results;
+    }
+
+    private Map<String, Object> summarize(String label, Pass pass) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("createMs", pass.createMs());
+        summary.put("updateMs", pass.updateMs());
+        summary.put("deleteMs", pass.deleteMs());
+        summary.put("operationsPerSecond", 3.0 * rows * 1000 / Math.max(1, pass.totalMs()));
+        System.out.printf(Locale.ROOT, "%-10s create %7d ms  update %7d ms  delete %7d ms  %9.1f ops/s%n", label,
+                pass.createMs(), pass.updateMs(), pass.deleteMs(), summary.get("operationsPerSecond"));
+        return summary;
+    }
+
+    record Seeded(String token, long categoryId) {
+    }
+
+    private Seeded user(String username) throws IOException, InterruptedException {
+        expect(send("POST", "/auth/signup", null, json(Map.of("username", username, "email", username + "@example.com",
+                "password", PASSWORD, "name", "Load " + username))), 200);
+        String token = objectMapper.readTree(expect(send("POST", "/auth/login", null,
+                json(Map.of("usernameOrEmail", username, "password", PASSWORD))), 200)).get("accessToken").asText();
+        long categoryId = objectMapper.readTree(expect(send("POST", "/categories", token,
+                json(Map.of("name", "Bills", "type", "EXPENSE"))), 200)).get("id").asLong();
+        return new Seeded(token, categoryId);
+    }
+
+    private static Map<String, Object> expense(Seeded user, String title, int i) {
+        return Map.of(
+                "title", title + " " + i,
+                "amount", 1 + (i % 20000) / 100.0,
+                "expenseDate", LocalDate.now().minusDays(i % 60).toString(),
+                "categoryId", user.categoryId());
+    }
+
+    private HttpResponse<String> send(String method, String path, String token, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(60));
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        if (body != null) {
+            request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(body));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String expect(HttpResponse<String> response, int status) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException("Expected " + status + " but got " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private String json(Object value) throws IOException {
+        return objectMapper.writeValueAsString(value);
+    }
+}
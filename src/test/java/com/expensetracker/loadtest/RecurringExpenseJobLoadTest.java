@@ -0,0 +1,104 @@
+package com.expensetracker.loadtest;
+
+import com.expensetracker.service.RecurringExpenseJob;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Times one RecurringExpenseJob run over load.recurring.templates due templates (default 1M) seeded straight into the
+// H2 dev database, and fails when the run, scaled linearly to 1M templates, does not fit load.recurring.window. The
+// default window is the gap between the recurring job (01:30) and the archive job (03:00). Every template is due, so
+// the run generates one occurrence per template, plus its rollup, statistics and index updates.
+// Only runs under the load-test profile; 1M templates need a larger heap than surefire's default:
+//   mvn -o -Pload-test test -Dtest=RecurringExpenseJobLoadTest -DargLine=-Xmx3g [-Dload.recurring.templates=200000]
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.expensetracker=INFO",
+        "spring.h2.console.enabled=false",
+        "recurring.cron=-",
+        "archive.cron=-",
+        "jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef"
+})
+@ActiveProfiles("dev")
+public class RecurringExpenseJobLoadTest {
+
+    private static final long TARGET_TEMPLATES = 1_000_000;
+
+    @Autowired
+    RecurringExpenseJob recurringExpenseJob;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int templates = Integer.getInteger("load.recurring.templates", (int) TARGET_TEMPLATES);
+    private final int templatesPerUser = Integer.getInteger("load.recurring.templates-per-user", 10);
+    private final Duration window = Duration.parse(System.getProperty("load.recurring.window", "PT1H30M"));
+
+    @Test
+    void nightly_run_fits_the_window() throws Exception {
+        LocalDate today = LocalDate.now();
+        int users = (templates + templatesPerUser - 1) / templatesPerUser;
+        long seedStarted = System.nanoTime();
+        seed(users, today);
+        long seedMs = (System.nanoTime() - seedStarted) / 1_000_000;
+        System.out.printf(Locale.ROOT, "Seeded %d recurring templates for %d users in %d ms%n", templates, users, seedMs);
+
+        RecurringExpenseJob.Result result = recurringExpenseJob.run(today);
+        // Users that failed are retried by the next run, as they would be the next night
+        RecurringExpenseJob.Result retry = result.failedUsers() > 0 ? recurringExpenseJob.run(today) : null;
+
+        long projectedMs = result.durationMs() * TARGET_TEMPLATES / templates;
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("templates", templates);
+        report.put("users", users);
+        report.put("generated", result.generated());
+        report.put("failedUsers", result.failedUsers());
+        report.put("retriedGenerated", retry != null ? retry.generated() : 0);
+        report.put("seedMs", seedMs);
+        report.put("durationMs", result.durationMs());
+        report.put("templatesPerSecond", templates * 1000L / Math.max(1, result.durationMs()));
+        report.put("projectedMsFor1M", projectedMs);
+        report.put("windowMs", window.toMillis());
+        System.out.printf(Locale.ROOT, "Recurring job: %d templates in %d ms (%d/s); 1M projected at %d ms, window %d ms%n",
+                templates, result.durationMs(), report.get("templatesPerSecond"), projectedMs, window.toMillis());
+        Path out = Path.of("target", "recurring-job-load-test-report.json");
+        Files.createDirectories(out.getParent());
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.toFile(), report);
+
+        assertThat(retry == null || retry.failedUsers() == 0).isTrue();
+        assertThat(result.generated() + (retry != null ? retry.generated() : 0)).isEqualTo(templates);
+        assertThat(projectedMs).isLessThanOrEqualTo(window.toMillis());
+    }
+
+    // Set-based inserts (H2's SYSTEM_RANGE) instead of the API: a million templates through HTTP would take longer
+    // than the run being measured. Each template is a month old with its next date due today.
+    private void seed(int users, LocalDate today) {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, name, role, is_active) " +
+                "SELECT X, CONCAT('recurring', X), CONCAT('recurring', X, '@example.com'), 'not-a-hash', 'Recurring', 'USER', TRUE " +
+                "FROM SYSTEM_RANGE(1, ?)", users);
+        jdbcTemplate.update("INSERT INTO categories (id, user_id, name, type, is_active) " +
+                "SELECT X, X, 'Bills', 'EXPENSE', TRUE FROM SYSTEM_RANGE(1, ?)", users);
+        jdbcTemplate.update("INSERT INTO expenses (id, user_id, category_id, title, amount, expense_date, type, " +
+                "is_recurring, recurring_frequency, recurrence_next_date) " +
+                "SELECT X, (X - 1) / ? + 1, (X - 1) / ? + 1, CONCAT('Subscription ', X), 9.99, ?, 'EXPENSE', TRUE, 'MONTHLY', ? " +
+                "FROM SYSTEM_RANGE(1, ?)", templatesPerUser, templatesPerUser, today.minusMonths(1), today, templates);
+        // Generated occurrences draw their ids from expense_seq, which hands out blocks starting at next_val
+        jdbcTemplate.update("UPDATE expense_seq SET next_val = ?", templates + 1L);
+    }
+}